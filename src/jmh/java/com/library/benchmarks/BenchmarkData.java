@@ -0,0 +1,128 @@
+package com.library.benchmarks;
+
+import com.library.database.DatabaseManager;
+import com.library.database.InMemoryStorage;
+import com.library.model.Book;
+import com.library.testutil.DatabaseTestHelper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Наполняет временную SQLite-БД (как в DatabaseTestHelper) синтетическими данными заданного размера.
+ * rows — количество книг и выдач; читателей и пользователей в 10 раз меньше.
+ */
+final class BenchmarkData {
+    static final String[] WORDS = {
+        "Война", "Мир", "Мастер", "Ночь", "Дорога", "Город", "Море", "Тайна", "Сад", "Зима",
+        "История", "Код", "Звезда", "Остров", "Книга", "Время", "Путь", "Дом", "Север", "Огонь"
+    };
+    static final String[] AUTHORS = {
+        "Толстой", "Достоевский", "Булгаков", "Пушкин", "Чехов",
+        "Гоголь", "Тургенев", "Лермонтов", "Бунин", "Набоков"
+    };
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    static int readersFor(int rows) {
+        return Math.max(100, rows / 10);
+    }
+
+    static DatabaseManager seed(int rows) {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+        Random random = new Random(42);
+        int readers = readersFor(rows);
+        try (Connection conn = DriverManager.getConnection(DatabaseTestHelper.currentUrl())) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement books = conn.prepareStatement(
+                    "INSERT INTO books (title, author, year, copies_total, copies_available) VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    Book book = randomBook(random, i);
+                    books.setString(1, book.getTitle());
+                    books.setString(2, book.getAuthor());
+                    books.setInt(3, book.getYear());
+                    books.setInt(4, book.getCopiesTotal());
+                    books.setInt(5, book.getCopiesAvailable());
+                    addAndFlush(books, i);
+                }
+                books.executeBatch();
+            }
+            try (PreparedStatement readerStmt = conn.prepareStatement(
+                    "INSERT INTO readers (full_name, card_number, registration_date, phone, email, address, status) " +
+                    "VALUES (?, ?, ?, '', '', '', 'ACTIVE')");
+                 PreparedStatement userStmt = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role) VALUES (?, ?, 'READER')")) {
+                for (int i = 0; i < readers; i++) {
+                    readerStmt.setString(1, "Читатель " + i);
+                    readerStmt.setString(2, "BENCH-" + i);
+                    readerStmt.setString(3, LocalDate.now().toString());
+                    addAndFlush(readerStmt, i);
+                    userStmt.setString(1, "user" + i);
+                    userStmt.setString(2, "pwd" + i);
+                    addAndFlush(userStmt, i);
+                }
+                readerStmt.executeBatch();
+                userStmt.executeBatch();
+            }
+            int maxBookId = queryInt(conn, "SELECT MAX(id) FROM books");
+            int maxReaderId = queryInt(conn, "SELECT MAX(id) FROM readers");
+            try (PreparedStatement loans = conn.prepareStatement(
+                    "INSERT INTO loans (book_id, reader_id, issue_date, return_date, due_date, status) VALUES (?, ?, ?, ?, ?, ?)")) {
+                LocalDate today = LocalDate.now();
+                for (int i = 0; i < rows; i++) {
+                    LocalDate issued = today.minusDays(random.nextInt(730));
+                    boolean returned = random.nextInt(10) < 7;
+                    loans.setInt(1, 1 + random.nextInt(maxBookId));
+                    loans.setInt(2, 1 + random.nextInt(maxReaderId));
+                    loans.setString(3, issued.toString());
+                    loans.setString(4, returned ? issued.plusDays(random.nextInt(14)).toString() : null);
+                    loans.setString(5, issued.plusDays(14).toString());
+                    loans.setString(6, returned ? "RETURNED" : "ACTIVE");
+                    addAndFlush(loans, i);
+                }
+                loans.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось наполнить БД для бенчмарка", e);
+        }
+        return dbManager;
+    }
+
+    /**
+     * Хранилище в памяти с тем же каталогом, что и seed(rows) (выдачи и читатели не нужны бенчмаркам каталога).
+     */
+    static InMemoryStorage seedMemory(int rows) {
+        InMemoryStorage storage = new InMemoryStorage(false);
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            storage.addBook(randomBook(random, i));
+        }
+        return storage;
+    }
+
+    private static Book randomBook(Random random, int index) {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + index;
+        return new Book(title, AUTHORS[random.nextInt(AUTHORS.length)], 1800 + random.nextInt(225), 1000);
+    }
+
+    static int queryInt(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            return pstmt.executeQuery().getInt(1);
+        }
+    }
+
+    private static void addAndFlush(PreparedStatement pstmt, int index) throws SQLException {
+        pstmt.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            pstmt.executeBatch();
+        }
+    }
+}
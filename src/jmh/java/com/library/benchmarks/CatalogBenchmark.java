@@ -0,0 +1,64 @@
+package com.library.benchmarks;
+
+import com.library.database.LibraryStorage;
+import com.library.database.Repositories;
+import com.library.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение каталога: поиск и полная выгрузка книг. engine — хранилище: SQLite или в памяти.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({Repositories.SQLITE, Repositories.MEMORY})
+    public String engine;
+
+    private LibraryStorage dbManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dbManager = Repositories.MEMORY.equals(engine) ? BenchmarkData.seedMemory(rows) : BenchmarkData.seed(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.shutdown();
+    }
+
+    @Benchmark
+    public List<Book> searchBooks() {
+        String word = BenchmarkData.WORDS[ThreadLocalRandom.current().nextInt(BenchmarkData.WORDS.length)];
+        return dbManager.searchBooks(word);
+    }
+
+    @Benchmark
+    public List<Book> searchBooksByAuthor() {
+        String author = BenchmarkData.AUTHORS[ThreadLocalRandom.current().nextInt(BenchmarkData.AUTHORS.length)];
+        return dbManager.searchBooks(author);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Book> getAllBooks() {
+        return dbManager.getAllBooks();
+    }
+}
@@ -0,0 +1,67 @@
+package com.library.benchmarks;
+
+import com.library.database.DatabaseManager;
+import com.library.database.LoanResult;
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.model.Reader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выдачи: история читателя и полный цикл выдача + возврат.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoanBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private DatabaseManager dbManager;
+    private int readers;
+    private int bookId;
+    private int readerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dbManager = BenchmarkData.seed(rows);
+        readers = BenchmarkData.readersFor(rows);
+        dbManager.addBook(new Book("Бенчмарк", "JMH", 2024, Integer.MAX_VALUE / 2));
+        bookId = dbManager.searchBooks("Бенчмарк").get(0).getId();
+        dbManager.addReader(new Reader("Бенчмарк Читатель", "BENCH-LOANS", "", "", ""));
+        Reader reader = dbManager.getReaderByCardNumber("BENCH-LOANS");
+        readerId = reader.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.shutdown();
+    }
+
+    @Benchmark
+    public List<Loan> getLoansByReaderId() {
+        return dbManager.getLoansByReaderId(1 + ThreadLocalRandom.current().nextInt(readers));
+    }
+
+    @Benchmark
+    public LoanResult addLoanAndReturnLoan() {
+        Loan loan = new Loan(bookId, readerId, LocalDate.now().plusDays(14));
+        dbManager.addLoan(loan);
+        return dbManager.returnLoan(loan.getId());
+    }
+}
@@ -0,0 +1,80 @@
+package com.library.benchmarks;
+
+import com.library.database.DatabaseManager;
+import com.library.model.Book;
+import com.library.model.Loan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка чтения и записи при разных профилях хранения (library.db.profile):
+ * одиночная запись в autocommit, чтение истории и чтение на фоне непрерывной записи.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StorageProfileBenchmark {
+
+    @Param({"legacy", "balanced", "durable"})
+    public String profile;
+
+    @Param({"100000"})
+    public int rows;
+
+    private DatabaseManager dbManager;
+    private int readers;
+    private Book book;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("library.db.profile", profile);
+        dbManager = BenchmarkData.seed(rows);
+        readers = BenchmarkData.readersFor(rows);
+        book = dbManager.getBookById(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.shutdown();
+        System.clearProperty("library.db.profile");
+    }
+
+    @Benchmark
+    public void updateBook() {
+        book.setYear(1800 + ThreadLocalRandom.current().nextInt(225));
+        dbManager.updateBook(book);
+    }
+
+    @Benchmark
+    public List<Loan> getLoansByReaderId() {
+        return dbManager.getLoansByReaderId(1 + ThreadLocalRandom.current().nextInt(readers));
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public void writer() {
+        updateBook();
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public List<Loan> reader() {
+        return getLoansByReaderId();
+    }
+}
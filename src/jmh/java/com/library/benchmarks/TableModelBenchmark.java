@@ -0,0 +1,77 @@
+package com.library.benchmarks;
+
+import com.library.gui.LoanTableModel;
+import com.library.model.LoanView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.table.DefaultTableModel;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полная загрузка таблицы выдач: столбцовая модель против DefaultTableModel из Object[].
+ * Без БД — только заполнение модели уже прочитанными строками (с -prof gc видно выделение памяти).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TableModelBenchmark {
+    private static final String[] COLUMNS = {"ID", "Книга", "Читатель", "Дата выдачи", "Срок возврата", "Статус"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private List<LoanView> loans;
+    private LoanTableModel columnar;
+    private DefaultTableModel boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        loans = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDate issued = start.plusDays(random.nextInt(1_500));
+            loans.add(new LoanView(i + 1, 1 + random.nextInt(5_000), "Книга " + random.nextInt(5_000),
+                1 + random.nextInt(2_000), "Читатель " + random.nextInt(2_000),
+                issued, null, issued.plusDays(14), random.nextInt(10) == 0 ? "ACTIVE" : "RETURNED"));
+        }
+        columnar = new LoanTableModel(true);
+        boxed = new DefaultTableModel(COLUMNS, 0);
+    }
+
+    @Benchmark
+    public int columnarSetRows() {
+        columnar.setRows(loans);
+        return columnar.getRowCount();
+    }
+
+    @Benchmark
+    public int defaultTableModelAddRows() {
+        boxed.setRowCount(0);
+        for (LoanView loan : loans) {
+            boxed.addRow(new Object[]{
+                loan.getId(),
+                loan.getBookTitle(),
+                loan.getReaderName(),
+                loan.getIssueDate().format(DATE_FORMAT),
+                loan.getDueDate().format(DATE_FORMAT),
+                loan.getStatus()
+            });
+        }
+        return boxed.getRowCount();
+    }
+}
@@ -0,0 +1,74 @@
+package com.library.benchmarks;
+
+import com.library.database.DatabaseManager;
+import com.library.model.DashboardStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Аутентификация, счетчики статистики администратора и панель статистики одним запросом.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserAndStatisticsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private DatabaseManager dbManager;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dbManager = BenchmarkData.seed(rows);
+        users = BenchmarkData.readersFor(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.shutdown();
+    }
+
+    @Benchmark
+    public boolean authenticateUser() {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        return dbManager.authenticateUser("user" + i, "pwd" + i);
+    }
+
+    @Benchmark
+    public int getTotalBooks() {
+        return dbManager.getTotalBooks();
+    }
+
+    @Benchmark
+    public int getTotalReaders() {
+        return dbManager.getTotalReaders();
+    }
+
+    @Benchmark
+    public int getActiveLoans() {
+        return dbManager.getActiveLoans();
+    }
+
+    @Benchmark
+    public int getOverdueLoans() {
+        return dbManager.getOverdueLoans();
+    }
+
+    @Benchmark
+    public DashboardStats getDashboardStats() {
+        return dbManager.getDashboardStats();
+    }
+}
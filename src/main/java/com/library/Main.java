@@ -1,14 +1,14 @@
 package com.library;
 
-import com.library.database.DatabaseManager;
+import com.library.database.Repositories;
 import com.library.gui.LoginWindow;
 
 import javax.swing.*;
 
 public class Main {
     public static void main(String[] args) {
-        // Инициализация базы данных
-        DatabaseManager.getInstance();
+        // Инициализация хранилища (library.storage: sqlite или memory)
+        Repositories.getInstance();
 
         // Запуск GUI в потоке событий Swing
         SwingUtilities.invokeLater(() -> {
@@ -0,0 +1,48 @@
+package com.library.auth;
+
+/**
+ * Неизменяемая сессия вошедшего пользователя: логин, роль и ID связанного читателя.
+ */
+public final class Session {
+    private final String username;
+    private final String role;
+    private final int readerId;
+
+    public Session(String username, String role, int readerId) {
+        this.username = username;
+        this.role = role;
+        this.readerId = readerId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * ID связанного читателя или 0, если учетная запись не связана с читателем.
+     */
+    public int getReaderId() {
+        return readerId;
+    }
+
+    public boolean hasReader() {
+        return readerId > 0;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    @Override
+    public String toString() {
+        return "Session{" +
+                "username='" + username + '\'' +
+                ", role='" + role + '\'' +
+                ", readerId=" + readerId +
+                '}';
+    }
+}
@@ -1,15 +1,21 @@
 package com.library.auth;
 
-import com.library.database.DatabaseManager;
+import com.library.database.Repositories;
+import com.library.database.UserRepository;
+import com.library.model.SystemUser;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UserManager {
     private static UserManager instance;
-    private DatabaseManager dbManager;
+    private UserRepository users;
+    // Активные сессии по логину: проверки роли во время сессии не обращаются к БД
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
 
     private UserManager() {
-        dbManager = DatabaseManager.getInstance();
+        users = Repositories.getInstance();
     }
 
     public static synchronized UserManager getInstance() {
@@ -19,35 +25,75 @@ public class UserManager {
         return instance;
     }
 
+    /**
+     * Вход в систему: проверка пароля, роль и связанный читатель читаются одним запросом.
+     * Возвращает сессию или null, если логин или пароль неверны.
+     */
+    public Session login(String username, String password) {
+        SystemUser user = users.findUserByCredentials(username, password);
+        if (user == null) {
+            return null;
+        }
+        Session session = new Session(user.getUsername(), user.getRole(), user.getReaderId());
+        sessions.put(session.getUsername(), session);
+        return session;
+    }
+
+    public void logout(String username) {
+        sessions.remove(username);
+    }
+
+    /**
+     * Активная сессия пользователя или null, если он не входил (или сессия сброшена изменением учетной записи).
+     */
+    public Session getSession(String username) {
+        return sessions.get(username);
+    }
+
+    /**
+     * Только проверка логина и пароля: в отличие от login, сессию не создает.
+     */
     public boolean authenticate(String username, String password) {
-        return dbManager.authenticateUser(username, password);
+        return users.findUserByCredentials(username, password) != null;
     }
 
     public String getUserRole(String username) {
-        return dbManager.getUserRole(username);
+        Session session = sessions.get(username);
+        if (session != null) {
+            return session.getRole();
+        }
+        return users.getUserRole(username);
     }
 
     public List<User> getAllUsers() {
-        List<DatabaseManager.SystemUser> systemUsers = dbManager.getAllSystemUsers();
+        List<SystemUser> systemUsers = users.getAllSystemUsers();
         return systemUsers.stream()
                 .map(su -> new User(su.getUsername(), su.getPassword(), su.getRole()))
                 .collect(java.util.stream.Collectors.toList());
     }
 
     public void addUser(String username, String password, String role) {
-        dbManager.addSystemUser(username, password, role);
+        users.addSystemUser(username, password, role);
     }
 
     public void updateUser(String username, String newPassword, String newRole) {
-        dbManager.updateSystemUser(username, newPassword, newRole);
+        users.updateSystemUser(username, newPassword, newRole);
+        sessions.remove(username);
     }
 
     public void deleteUser(String username) {
-        dbManager.deleteSystemUser(username);
+        users.deleteSystemUser(username);
+        sessions.remove(username);
+    }
+
+    public boolean linkReader(String username, int readerId) {
+        boolean linked = users.linkUserToReader(username, readerId);
+        sessions.remove(username);
+        return linked;
     }
 
     public boolean userExists(String username) {
-        return dbManager.systemUserExists(username);
+        return users.systemUserExists(username);
     }
 
     /**
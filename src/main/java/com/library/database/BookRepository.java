@@ -0,0 +1,80 @@
+package com.library.database;
+
+import com.library.model.Book;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Каталог книг. Порядок каталога — (title, id); поиск — по словам названия и автора.
+ * Запись публикует ChangeEvent.BookChanged в шину событий хранилища.
+ */
+public interface BookRepository {
+
+    /**
+     * Добавляет книгу; при успехе book получает ID.
+     */
+    void addBook(Book book);
+
+    List<Book> getAllBooks();
+
+    /**
+     * Книги по запросу; пустой запрос возвращает весь каталог.
+     */
+    List<Book> searchBooks(String query);
+
+    /**
+     * Страница каталога в порядке (title, id), начиная с позиции offset.
+     */
+    List<Book> getBooksPage(int offset, int limit);
+
+    /**
+     * Keyset-страница: книги, идущие в порядке (title, id) строго после указанного ключа.
+     */
+    List<Book> getBooksAfter(String afterTitle, int afterId, int limit);
+
+    /**
+     * ID всех книг, найденных по запросу, в том же порядке, что и searchBooksPage.
+     *
+     * @param cancelled если вернул true, поиск прекращается
+     * @return ID найденных книг или null, если поиск прерван или не удался
+     */
+    int[] searchBookIds(String query, BooleanSupplier cancelled);
+
+    /**
+     * Книги с ID ids[from..to) в порядке массива; отсутствующие пропускаются.
+     */
+    List<Book> getBooksByIds(int[] ids, int from, int to);
+
+    List<Book> searchBooksPage(String query, int offset, int limit);
+
+    int countSearchBooks(String query);
+
+    /**
+     * Не больше limit книг по запросу, самые подходящие первыми; пустой запрос — пустой список.
+     */
+    List<Book> searchCatalog(String query, int limit);
+
+    /**
+     * Книга по ID или null. Изменение полученного объекта не меняет хранилище.
+     */
+    Book getBookById(int id);
+
+    void updateBook(Book book);
+
+    void deleteBook(int id);
+
+    int getTotalBooks();
+
+    /**
+     * Версия каталога: растет при любом изменении книг, включая число доступных экземпляров.
+     */
+    long getCatalogVersion();
+
+    /**
+     * Импорт книг из CSV (формат — в CatalogImporter).
+     *
+     * @return отчет об импорте или null, если импорт не удался
+     */
+    CatalogImporter.Report importBooks(java.io.Reader csv, CatalogImporter.ProgressListener listener);
+}
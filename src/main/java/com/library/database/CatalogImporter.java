@@ -0,0 +1,439 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.model.Reader;
+import com.library.util.CsvReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Массовый импорт книг и читателей. Записи читаются потоково и вставляются пакетами
+ * (addBatch/executeBatch) в одной транзакции: весь импорт — один commit вместо
+ * отдельной транзакции на каждую строку.
+ *
+ * Триггер полнотекстового индекса на время импорта книг снимается, а новые строки
+ * индексируются одним INSERT ... SELECT в той же транзакции — это в разы быстрее
+ * построчной индексации; при откате триггер восстанавливается вместе с данными.
+ *
+ * Ошибочные строки CSV пропускаются и попадают в отчет; ошибка БД откатывает импорт целиком.
+ * Читатели с уже существующим номером билета пропускаются как дубликаты.
+ *
+ * Формат CSV — первая строка с именами столбцов (порядок произвольный):
+ * книги — title, author, year, copies;
+ * читатели — full_name, card_number и необязательные phone, email, address,
+ * registration_date (ГГГГ-ММ-ДД), status.
+ */
+public class CatalogImporter {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_BOOK_SQL =
+        "INSERT INTO books (title, author, year, copies_total, copies_available) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_READER_SQL =
+        "INSERT INTO readers (full_name, card_number, registration_date, phone, email, address, status) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT(card_number) DO NOTHING";
+    private static final String FTS_INSERT_TRIGGER = "books_fts_ai";
+
+    /**
+     * Получает прогресс после каждого пакета (в потоке импорта).
+     */
+    public interface ProgressListener {
+        void onProgress(long processed, long imported);
+    }
+
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    private interface RowParser<T> {
+        T parse(Map<String, String> fields);
+    }
+
+    /**
+     * Приемник строк импорта без JDBC; false — строка не добавлена как дубликат.
+     */
+    interface RowSink<T> {
+        boolean accept(T row);
+    }
+
+    private final Connection conn;
+    private final int batchSize;
+    private final ProgressListener listener;
+
+    public CatalogImporter(Connection conn) {
+        this(conn, DEFAULT_BATCH_SIZE, null);
+    }
+
+    public CatalogImporter(Connection conn, int batchSize, ProgressListener listener) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize должен быть положительным");
+        }
+        this.conn = conn;
+        this.batchSize = batchSize;
+        this.listener = listener;
+    }
+
+    public Report importBooks(Iterable<Book> books) throws SQLException {
+        Report report = new Report();
+        insertAll(INSERT_BOOK_SQL, books.iterator(), CatalogImporter::bindBook, report, true);
+        return report;
+    }
+
+    public Report importReaders(Iterable<Reader> readers) throws SQLException {
+        Report report = new Report();
+        insertAll(INSERT_READER_SQL, readers.iterator(), CatalogImporter::bindReader, report, false);
+        return report;
+    }
+
+    public Report importBooksCsv(java.io.Reader source) throws SQLException, IOException {
+        return importCsv(source, List.of("title", "author", "year", "copies"),
+            CatalogImporter::parseBook, INSERT_BOOK_SQL, CatalogImporter::bindBook, true);
+    }
+
+    public Report importReadersCsv(java.io.Reader source) throws SQLException, IOException {
+        return importCsv(source, List.of("full_name", "card_number"),
+            CatalogImporter::parseReader, INSERT_READER_SQL, CatalogImporter::bindReader, false);
+    }
+
+    private <T> Report importCsv(java.io.Reader source, List<String> requiredColumns, RowParser<T> parser,
+                                 String sql, RowBinder<T> binder, boolean books) throws SQLException, IOException {
+        Report report = new Report();
+        Iterator<T> rows = openCsv(source, requiredColumns, parser, report);
+        try {
+            insertAll(sql, rows, binder, report, books);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return report;
+    }
+
+    /**
+     * Импорт книг из CSV без JDBC — для хранилища в памяти. Строки передаются в sink по одной,
+     * прогресс сообщается через каждые DEFAULT_BATCH_SIZE строк; отката нет.
+     */
+    static Report readBooksCsv(java.io.Reader source, RowSink<Book> sink, ProgressListener listener) throws IOException {
+        return readCsv(source, List.of("title", "author", "year", "copies"), CatalogImporter::parseBook, sink, listener);
+    }
+
+    /**
+     * Импорт читателей из CSV без JDBC (см. readBooksCsv).
+     */
+    static Report readReadersCsv(java.io.Reader source, RowSink<Reader> sink, ProgressListener listener) throws IOException {
+        return readCsv(source, List.of("full_name", "card_number"), CatalogImporter::parseReader, sink, listener);
+    }
+
+    private static <T> Report readCsv(java.io.Reader source, List<String> requiredColumns, RowParser<T> parser,
+                                      RowSink<T> sink, ProgressListener listener) throws IOException {
+        long started = System.nanoTime();
+        Report report = new Report();
+        Iterator<T> rows = openCsv(source, requiredColumns, parser, report);
+        try {
+            while (rows.hasNext()) {
+                T row = rows.next();
+                report.processed++;
+                if (sink.accept(row)) {
+                    report.imported++;
+                } else {
+                    report.duplicates++;
+                }
+                if (listener != null && report.processed % DEFAULT_BATCH_SIZE == 0) {
+                    listener.onProgress(report.processed, report.imported);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            report.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        }
+        if (listener != null && report.processed % DEFAULT_BATCH_SIZE != 0) {
+            listener.onProgress(report.processed, report.imported);
+        }
+        return report;
+    }
+
+    /**
+     * Проверяет заголовок CSV и возвращает итератор по корректным строкам.
+     */
+    private static <T> Iterator<T> openCsv(java.io.Reader source, List<String> requiredColumns, RowParser<T> parser,
+                                           Report report) throws IOException {
+        CsvReader csv = new CsvReader(source);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return Collections.emptyIterator();
+        }
+        List<String> columns = new ArrayList<>();
+        for (String name : header) {
+            columns.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+        for (String required : requiredColumns) {
+            if (!columns.contains(required)) {
+                throw new IOException("В заголовке CSV нет столбца " + required);
+            }
+        }
+        return new CsvRows<>(csv, columns, parser, report);
+    }
+
+    private <T> void insertAll(String sql, Iterator<T> rows, RowBinder<T> binder, Report report,
+                               boolean books) throws SQLException {
+        long started = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            String ftsTrigger = books ? queryString(
+                "SELECT sql FROM sqlite_master WHERE type = 'trigger' AND name = '" + FTS_INSERT_TRIGGER + "'") : null;
+            long lastBookId = 0;
+            if (ftsTrigger != null) {
+                lastBookId = Long.parseLong(queryString("SELECT IFNULL(MAX(id), 0) FROM books"));
+                execute("DROP TRIGGER " + FTS_INSERT_TRIGGER);
+            }
+
+            int pending = 0;
+            while (rows.hasNext()) {
+                binder.bind(pstmt, rows.next());
+                pstmt.addBatch();
+                report.processed++;
+                if (++pending == batchSize) {
+                    flush(pstmt, report);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                flush(pstmt, report);
+            }
+            if (ftsTrigger != null) {
+                String columns = DatabaseManager.BOOKS_FTS_COLUMNS;
+                execute("INSERT INTO books_fts(rowid, " + columns + ") SELECT id, " + columns +
+                    " FROM books WHERE id > " + lastBookId);
+                execute(ftsTrigger);
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            report.imported = 0;
+            report.duplicates = 0;
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            report.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private void flush(PreparedStatement pstmt, Report report) throws SQLException {
+        for (int count : pstmt.executeBatch()) {
+            if (count == 0) {
+                report.duplicates++;
+            } else {
+                report.imported++;
+            }
+        }
+        if (listener != null) {
+            listener.onProgress(report.processed, report.imported);
+        }
+    }
+
+    private static void bindBook(PreparedStatement pstmt, Book book) throws SQLException {
+        pstmt.setString(1, book.getTitle());
+        pstmt.setString(2, book.getAuthor());
+        pstmt.setInt(3, book.getYear());
+        pstmt.setInt(4, book.getCopiesTotal());
+        pstmt.setInt(5, book.getCopiesAvailable());
+    }
+
+    private static void bindReader(PreparedStatement pstmt, Reader reader) throws SQLException {
+        pstmt.setString(1, reader.getFullName());
+        pstmt.setString(2, reader.getCardNumber());
+        pstmt.setString(3, reader.getRegistrationDate().toString());
+        pstmt.setString(4, reader.getPhone());
+        pstmt.setString(5, reader.getEmail());
+        pstmt.setString(6, reader.getAddress());
+        pstmt.setString(7, reader.getStatus());
+    }
+
+    private static Book parseBook(Map<String, String> fields) {
+        String title = required(fields, "title");
+        String author = required(fields, "author");
+        int year = parseInt(fields, "year");
+        int copies = parseInt(fields, "copies");
+        if (copies < 0) {
+            throw new IllegalArgumentException("количество экземпляров не может быть отрицательным");
+        }
+        return new Book(title, author, year, copies);
+    }
+
+    private static Reader parseReader(Map<String, String> fields) {
+        Reader reader = new Reader(required(fields, "full_name"), required(fields, "card_number"),
+            optional(fields, "phone"), optional(fields, "email"), optional(fields, "address"));
+        String registered = optional(fields, "registration_date");
+        if (!registered.isEmpty()) {
+            try {
+                reader.setRegistrationDate(LocalDate.parse(registered));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("некорректная дата регистрации: " + registered);
+            }
+        }
+        String status = optional(fields, "status");
+        if (!status.isEmpty()) {
+            reader.setStatus(status.toUpperCase(Locale.ROOT));
+        }
+        return reader;
+    }
+
+    private static String required(Map<String, String> fields, String column) {
+        String value = optional(fields, column);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("не заполнено поле " + column);
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String column) {
+        String value = fields.get(column);
+        return value == null ? "" : value.trim();
+    }
+
+    private static int parseInt(Map<String, String> fields, String column) {
+        String value = required(fields, column);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("поле " + column + " должно быть числом: " + value);
+        }
+    }
+
+    /**
+     * Итератор по корректным строкам CSV; ошибки разбора записываются в отчет.
+     */
+    private static class CsvRows<T> implements Iterator<T> {
+        private final CsvReader csv;
+        private final List<String> columns;
+        private final RowParser<T> parser;
+        private final Report report;
+        private T next;
+
+        CsvRows(CsvReader csv, List<String> columns, RowParser<T> parser, Report report) {
+            this.csv = csv;
+            this.columns = columns;
+            this.parser = parser;
+            this.report = report;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    List<String> record = csv.readRecord();
+                    if (record == null) {
+                        return false;
+                    }
+                    if (record.size() != columns.size()) {
+                        report.addError(csv.getRecordLine(),
+                            "ожидалось полей: " + columns.size() + ", получено: " + record.size());
+                        continue;
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        fields.put(columns.get(i), record.get(i));
+                    }
+                    try {
+                        next = parser.parse(fields);
+                    } catch (IllegalArgumentException e) {
+                        report.addError(csv.getRecordLine(), e.getMessage());
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    /**
+     * Итог импорта. Пропущенные из-за ошибок строки не входят в processed.
+     */
+    public static class Report {
+        private long processed;
+        private long imported;
+        private long duplicates;
+        private long errorCount;
+        private long elapsedMillis;
+        private final List<String> errors = new ArrayList<>();
+
+        private void addError(int line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Строка " + line + ": " + message);
+            }
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * Описания ошибочных строк (не больше первых 100).
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Импортировано: " + imported + ", дубликатов: " + duplicates
+                + ", ошибок: " + errorCount + " (" + elapsedMillis + " мс)";
+        }
+    }
+}
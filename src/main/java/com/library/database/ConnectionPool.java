@@ -0,0 +1,766 @@
+package com.library.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный пул JDBC-соединений.
+ * Соединения переиспользуются между вызовами DatabaseManager: close() у выданного
+ * соединения возвращает его в пул, а не закрывает файл БД.
+ * Фоновый поток вытесняет простаивающие соединения и сообщает о «забытых» (утечках).
+ * При выдаче запоминается только время; стек выдачи пишется лишь при library.db.pool.leakTrace.
+ *
+ * Каждое соединение держит LRU-кэш подготовленных выражений по тексту SQL:
+ * prepareStatement(sql) с уже встречавшимся текстом возвращает готовое выражение
+ * без повторного разбора и планирования, а close() у него возвращает выражение в кэш.
+ *
+ * Если заданы QueryMetrics, каждое выполнение выражения (execute*) замеряется и передается
+ * в журнал медленных запросов вместе с текстом SQL и типами параметров. Без метрик выражения
+ * не оборачиваются.
+ */
+public class ConnectionPool implements AutoCloseable {
+    /**
+     * Настройка нового физического соединения (например, PRAGMA) до первой выдачи.
+     */
+    public interface Initializer {
+        void initialize(Connection connection) throws SQLException;
+    }
+
+    private final String url;
+    private final Config config;
+    private final Initializer initializer;
+    private final QueryMetrics metrics;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitTimeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+    private final AtomicInteger cachedStatements = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, Config config) {
+        this(url, config, connection -> { });
+    }
+
+    public ConnectionPool(String url, Config config, Initializer initializer) {
+        this(url, config, initializer, null);
+    }
+
+    /**
+     * @param metrics журнал медленных запросов или null, если замеры не нужны
+     */
+    public ConnectionPool(String url, Config config, Initializer initializer, QueryMetrics metrics) {
+        this.url = url;
+        this.config = config;
+        this.initializer = initializer;
+        this.metrics = metrics;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "library-db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = config.getHousekeepingMs();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Выдает соединение из пула, при необходимости ожидая освобождения не дольше maxWaitMs.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Пул соединений закрыт");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                waitTimeoutCount.incrementAndGet();
+                throw new SQLException("Истекло время ожидания свободного соединения ("
+                        + config.getMaxWaitMs() + " мс, размер пула " + config.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения прервано", e);
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = create();
+            }
+            pooled.markBorrowed(config.getLeakThresholdMs() > 0 && config.isLeakTrace());
+            borrowed.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            validationFailureCount.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    /**
+     * isValid() у sqlite-jdbc выполняет запрос, поэтому полная проверка делается только
+     * для соединений, простоявших дольше validateAfterIdleMs; недавно возвращенные
+     * проверяются лишь на isClosed().
+     */
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            Connection connection = pooled.physical;
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastReturnedAt < config.getValidateAfterIdleMs()) {
+                return true;
+            }
+            return connection.isValid(config.getValidationTimeoutSec());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url);
+        try {
+            initializer.initialize(physical);
+        } catch (SQLException | RuntimeException e) {
+            physical.close();
+            throw e;
+        }
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.releaseStatements();
+        boolean reusable = !closed && resetState(pooled.physical);
+        if (reusable) {
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            // LIFO: следующим выдается самое «горячее» соединение
+            idle.offerFirst(pooled);
+        } else {
+            destroy(pooled);
+        }
+        permits.release();
+    }
+
+    private boolean resetState(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Не удалось вернуть соединение в пул: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        cachedStatements.addAndGet(-pooled.statements.size());
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Ошибка закрытия соединения: " + e.getMessage());
+        }
+        destroyedCount.incrementAndGet();
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка обслуживания пула соединений: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > config.getMinIdle()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnedAt >= config.getIdleTimeoutMs() && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakThresholdMs();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt >= threshold) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Возможная утечка соединения: не возвращено в пул более "
+                        + threshold + " мс" + (pooled.borrowTrace == null
+                        ? " (стек выдачи: -Dlibrary.db.pool.leakTrace=true)" : ""));
+                if (pooled.borrowTrace != null) {
+                    pooled.borrowTrace.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public Stats getStats() {
+        long borrows = borrowCount.get();
+        return new Stats(
+            config.getMaxSize(),
+            idle.size(),
+            borrowed.size(),
+            createdCount.get(),
+            destroyedCount.get(),
+            borrows,
+            waitTimeoutCount.get(),
+            validationFailureCount.get(),
+            leakCount.get(),
+            borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1000
+        );
+    }
+
+    /**
+     * Метрики кэша подготовленных выражений по всем соединениям пула.
+     * maxSize — предел на одно соединение, умноженный на размер пула.
+     */
+    public LruCache.Stats getStatementCacheStats() {
+        return new LruCache.Stats(config.getStatementCacheSize() * config.getMaxSize(), cachedStatements.get(),
+            statementHits.get(), statementMisses.get(), statementEvictions.get());
+    }
+
+    /**
+     * Закрывает пул: простаивающие соединения закрываются сразу, выданные — при возврате.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private final class PooledConnection implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+        private volatile boolean checkedOut;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile boolean leakReported;
+        private volatile Throwable borrowTrace;
+        // Соединение в каждый момент используется одним потоком, поэтому кэш без синхронизации
+        private final LinkedHashMap<String, CachedStatement> statements =
+            new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() > config.getStatementCacheSize()) {
+                        statementEvictions.incrementAndGet();
+                        cachedStatements.decrementAndGet();
+                        eldest.getValue().evict();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        private PreparedStatement prepareCached(String sql) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementHits.incrementAndGet();
+                return cached.checkOut();
+            }
+            statementMisses.incrementAndGet();
+            if (cached != null) {
+                // То же выражение уже открыто в этой выдаче (вложенный запрос) — отдаем некэшируемую копию
+                return (PreparedStatement) traced(physical.prepareStatement(sql), sql);
+            }
+            cached = new CachedStatement(physical.prepareStatement(sql), metrics == null ? null : new StatementTrace(sql));
+            statements.put(sql, cached);
+            cachedStatements.incrementAndGet();
+            return cached.checkOut();
+        }
+
+        /**
+         * Возвращает в кэш выражения, не закрытые вызывающим кодом до возврата соединения.
+         */
+        private void releaseStatements() {
+            for (CachedStatement cached : statements.values()) {
+                if (cached.inUse) {
+                    cached.checkIn();
+                }
+            }
+        }
+
+        private void markBorrowed(boolean captureTrace) {
+            checkedOut = true;
+            leakReported = false;
+            borrowedAt = System.currentTimeMillis();
+            borrowTrace = captureTrace ? new Throwable("Соединение получено здесь") : null;
+        }
+
+        @Override
+        public Object invoke(Object proxyObject, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (checkedOut) {
+                        checkedOut = false;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !checkedOut || physical.isClosed();
+                case "equals":
+                    return proxyObject == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObject);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (!checkedOut) {
+                        throw new SQLException("Соединение уже возвращено в пул");
+                    }
+                    if (method.getName().equals("prepareStatement") && args.length == 1
+                            && config.getStatementCacheSize() > 0) {
+                        return prepareCached((String) args[0]);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return traced((Statement) result, sql);
+                    }
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * Некэшируемое выражение: с метриками — обернутое для замеров, иначе как есть.
+     */
+    private Statement traced(Statement statement, String sql) {
+        if (metrics == null) {
+            return statement;
+        }
+        Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+            new TracedStatement(statement, new StatementTrace(sql)));
+    }
+
+    /**
+     * Замер выполнений одного выражения: длительность execute* и типы установленных параметров.
+     */
+    private final class StatementTrace {
+        private final String sql;
+        private final List<String> paramTypes = new ArrayList<>();
+
+        private StatementTrace(String sql) {
+            this.sql = sql;
+        }
+
+        private Object invoke(Statement target, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                boolean failed = true;
+                long start = System.nanoTime();
+                try {
+                    Object result = method.invoke(target, args);
+                    failed = false;
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    metrics.recordStatement(executed, paramTypes, System.nanoTime() - start, failed);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0] - 1;
+                while (paramTypes.size() <= index) {
+                    paramTypes.add("?");
+                }
+                paramTypes.set(index, name.substring(3));
+            } else if (name.equals("clearParameters")) {
+                paramTypes.clear();
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Некэшируемое выражение с замерами при включенных метриках.
+     */
+    private static final class TracedStatement implements InvocationHandler {
+        private final Statement physical;
+        private final StatementTrace trace;
+
+        private TracedStatement(Statement physical, StatementTrace trace) {
+            this.physical = physical;
+            this.trace = trace;
+        }
+
+        @Override
+        public Object invoke(Object proxyObject, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxyObject == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObject);
+                case "toString":
+                    return "TracedStatement[" + physical + "]";
+                default:
+                    return trace.invoke(physical, method, args);
+            }
+        }
+    }
+
+    /**
+     * Подготовленное выражение из кэша соединения. close() не закрывает его, а сбрасывает
+     * (закрывает открытый ResultSet, очищает параметры и пакет) и возвращает в кэш.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement physical;
+        private final PreparedStatement proxy;
+        private final StatementTrace trace;
+        private boolean inUse;
+        private boolean evicted;
+        private ResultSet openResultSet;
+
+        private CachedStatement(PreparedStatement physical, StatementTrace trace) {
+            this.physical = physical;
+            this.trace = trace;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        private PreparedStatement checkOut() {
+            inUse = true;
+            return proxy;
+        }
+
+        private void checkIn() {
+            inUse = false;
+            try {
+                if (openResultSet != null) {
+                    // Незакрытый ResultSet держит выражение активным, а с ним и снимок чтения WAL
+                    openResultSet.close();
+                    openResultSet = null;
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                if (trace != null) {
+                    trace.paramTypes.clear();
+                }
+            } catch (SQLException e) {
+                System.err.println("Ошибка сброса подготовленного выражения: " + e.getMessage());
+            }
+            if (evicted) {
+                closePhysical();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Ошибка закрытия подготовленного выражения: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxyObject, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || physical.isClosed();
+                case "equals":
+                    return proxyObject == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObject);
+                case "toString":
+                    return "CachedStatement[" + physical + "]";
+                default:
+                    if (!inUse) {
+                        throw new SQLException("Выражение уже закрыто");
+                    }
+                    try {
+                        Object result = trace != null ? trace.invoke(physical, method, args) : method.invoke(physical, args);
+                        if (result instanceof ResultSet) {
+                            openResultSet = (ResultSet) result;
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Настройки пула. Читаются из системных свойств рядом с library.db.url.
+     */
+    public static class Config {
+        public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+        public static final long DEFAULT_VALIDATE_AFTER_IDLE_MS = 30_000L;
+
+        private final int maxSize;
+        private final int minIdle;
+        private final long maxWaitMs;
+        private final long idleTimeoutMs;
+        private final long leakThresholdMs;
+        private final int validationTimeoutSec;
+        private final long housekeepingMs;
+        private final int statementCacheSize;
+        private final long validateAfterIdleMs;
+        private final boolean leakTrace;
+
+        public Config(int maxSize, int minIdle, long maxWaitMs, long idleTimeoutMs,
+                      long leakThresholdMs, int validationTimeoutSec, long housekeepingMs) {
+            this(maxSize, minIdle, maxWaitMs, idleTimeoutMs, leakThresholdMs, validationTimeoutSec,
+                housekeepingMs, DEFAULT_STATEMENT_CACHE_SIZE);
+        }
+
+        /**
+         * @param statementCacheSize предел кэша подготовленных выражений на соединение; 0 — без кэша
+         */
+        public Config(int maxSize, int minIdle, long maxWaitMs, long idleTimeoutMs,
+                      long leakThresholdMs, int validationTimeoutSec, long housekeepingMs,
+                      int statementCacheSize) {
+            this(maxSize, minIdle, maxWaitMs, idleTimeoutMs, leakThresholdMs, validationTimeoutSec,
+                housekeepingMs, statementCacheSize, DEFAULT_VALIDATE_AFTER_IDLE_MS, false);
+        }
+
+        /**
+         * @param validateAfterIdleMs простой, после которого соединение проверяется isValid() перед выдачей
+         * @param leakTrace запоминать стек каждой выдачи для отчета об утечке (отладка, дорого)
+         */
+        public Config(int maxSize, int minIdle, long maxWaitMs, long idleTimeoutMs,
+                      long leakThresholdMs, int validationTimeoutSec, long housekeepingMs,
+                      int statementCacheSize, long validateAfterIdleMs, boolean leakTrace) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("Размер пула должен быть положительным: " + maxSize);
+            }
+            this.maxSize = maxSize;
+            this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+            this.maxWaitMs = maxWaitMs;
+            this.idleTimeoutMs = idleTimeoutMs;
+            this.leakThresholdMs = leakThresholdMs;
+            this.validationTimeoutSec = validationTimeoutSec;
+            this.housekeepingMs = Math.max(100, housekeepingMs);
+            this.statementCacheSize = Math.max(0, statementCacheSize);
+            this.validateAfterIdleMs = Math.max(0, validateAfterIdleMs);
+            this.leakTrace = leakTrace;
+        }
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                Integer.getInteger("library.db.pool.maxSize", 8),
+                Integer.getInteger("library.db.pool.minIdle", 1),
+                Long.getLong("library.db.pool.maxWaitMs", 5_000L),
+                Long.getLong("library.db.pool.idleTimeoutMs", 300_000L),
+                Long.getLong("library.db.pool.leakThresholdMs", 60_000L),
+                Integer.getInteger("library.db.pool.validationTimeoutSec", 2),
+                Long.getLong("library.db.pool.housekeepingMs", 30_000L),
+                Integer.getInteger("library.db.pool.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE),
+                Long.getLong("library.db.pool.validateAfterIdleMs", DEFAULT_VALIDATE_AFTER_IDLE_MS),
+                Boolean.getBoolean("library.db.pool.leakTrace")
+            );
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getMinIdle() {
+            return minIdle;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public long getIdleTimeoutMs() {
+            return idleTimeoutMs;
+        }
+
+        public long getLeakThresholdMs() {
+            return leakThresholdMs;
+        }
+
+        public int getValidationTimeoutSec() {
+            return validationTimeoutSec;
+        }
+
+        public long getHousekeepingMs() {
+            return housekeepingMs;
+        }
+
+        public int getStatementCacheSize() {
+            return statementCacheSize;
+        }
+
+        public long getValidateAfterIdleMs() {
+            return validateAfterIdleMs;
+        }
+
+        public boolean isLeakTrace() {
+            return leakTrace;
+        }
+    }
+
+    /**
+     * Снимок метрик пула.
+     */
+    public static class Stats {
+        private final int maxSize;
+        private final int idle;
+        private final int active;
+        private final long created;
+        private final long destroyed;
+        private final long borrows;
+        private final long waitTimeouts;
+        private final long validationFailures;
+        private final long leaks;
+        private final long averageWaitMicros;
+
+        public Stats(int maxSize, int idle, int active, long created, long destroyed, long borrows,
+                     long waitTimeouts, long validationFailures, long leaks, long averageWaitMicros) {
+            this.maxSize = maxSize;
+            this.idle = idle;
+            this.active = active;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrows = borrows;
+            this.waitTimeouts = waitTimeouts;
+            this.validationFailures = validationFailures;
+            this.leaks = leaks;
+            this.averageWaitMicros = averageWaitMicros;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getDestroyed() {
+            return destroyed;
+        }
+
+        public long getBorrows() {
+            return borrows;
+        }
+
+        public long getWaitTimeouts() {
+            return waitTimeouts;
+        }
+
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        public long getLeaks() {
+            return leaks;
+        }
+
+        public long getAverageWaitMicros() {
+            return averageWaitMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "pool[max=" + maxSize + ", idle=" + idle + ", active=" + active
+                    + ", created=" + created + ", destroyed=" + destroyed + ", borrows=" + borrows
+                    + ", waitTimeouts=" + waitTimeouts + ", leaks=" + leaks
+                    + ", avgWait=" + averageWaitMicros + "us]";
+        }
+    }
+}
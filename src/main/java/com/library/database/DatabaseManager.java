@@ -1,22 +1,89 @@
 package com.library.database;
 
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
 import com.library.model.Book;
+import com.library.model.DashboardStats;
 import com.library.model.Loan;
+import com.library.model.LoanView;
 import com.library.model.Reader;
+import com.library.model.SystemUser;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
-public class DatabaseManager {
+/**
+ * Хранилище библиотеки на SQLite: схема и миграции, демонстрационные данные, пул соединений,
+ * кэши и фоновые задачи (checkpoint WAL, пометка просрочек, архивация возвращенных выдач).
+ */
+public class DatabaseManager implements LibraryStorage {
     private static String DB_URL = System.getProperty("library.db.url", "jdbc:sqlite:library.db");
     private static DatabaseManager instance;
-    private static final Set<String> ALLOWED_ROLES = Set.of("ADMIN", "READER");
+    static final Set<String> ALLOWED_ROLES = Set.of("ADMIN", "READER");
+
+    private final StorageProfile storageProfile;
+    private final ConnectionPool pool;
+    private final QueryMetrics queryMetrics;
+    private final WalCheckpointer checkpointer;
+    private final OverdueEngine overdueEngine;
+    private final LoanArchiver loanArchiver;
+    private final ChangeEventBus eventBus = new ChangeEventBus();
+    private boolean ftsAvailable;
+
+    /**
+     * Кэши книг и читателей по ID. Хранят собственные копии объектов и отдают наружу копии,
+     * поэтому изменение полученной книги/читателя не портит кэш. Любая запись в строку
+     * (update/delete/выдача/возврат) инвалидирует соответствующий элемент.
+     */
+    private final LruCache<Integer, Book> bookCache =
+            new LruCache<>(Integer.getInteger("library.cache.books.maxSize", 1_000));
+    private final LruCache<Integer, Reader> readerCache =
+            new LruCache<>(Integer.getInteger("library.cache.readers.maxSize", 1_000));
+    /**
+     * Кэш результатов поиска: нормализованный запрос -> ID найденных книг в порядке выдачи.
+     * Сбрасывается целиком при любом изменении состава или текста каталога; выдача и возврат
+     * меняют только число экземпляров и кэш не трогают.
+     */
+    private final LruCache<String, int[]> searchCache =
+            new LruCache<>(Integer.getInteger("library.cache.search.maxSize", 32));
+    /**
+     * Версия каталога: растет при любом изменении книг, в том числе числа доступных экземпляров
+     * (выдача, возврат). По ней клиенты кэша каталога понимают, что данные устарели.
+     */
+    private final AtomicLong catalogVersion = new AtomicLong();
 
     private DatabaseManager() {
+        storageProfile = StorageProfile.fromSystemProperties();
+        queryMetrics = QueryMetrics.fromSystemProperties();
+        if (queryMetrics != null) {
+            queryMetrics.registerMBeans();
+        }
+        pool = new ConnectionPool(DB_URL, ConnectionPool.Config.fromSystemProperties(), storageProfile::apply, queryMetrics);
         initializeDatabase();
+        checkpointer = storageProfile.isWal() && storageProfile.getCheckpointIntervalMs() > 0
+            ? new WalCheckpointer(pool, storageProfile.getCheckpointIntervalMs(), WalCheckpointer.DEFAULT_TRUNCATE_PAGES)
+            : null;
+        overdueEngine = new OverdueEngine(pool, true);
+        overdueEngine.addListener(overdue -> OverdueEngine.publish(eventBus, overdue));
+        try {
+            overdueEngine.markOverdue(LocalDate.now());
+        } catch (SQLException e) {
+            System.err.println("Ошибка пометки просроченных выдач: " + e.getMessage());
+            e.printStackTrace();
+        }
+        loanArchiver = new LoanArchiver(pool, LoanArchiver.Config.fromSystemProperties());
+        loanArchiver.addListener(moved -> eventBus.publish(ChangeEvent.LoansChanged.ALL));
     }
 
     public static synchronized DatabaseManager getInstance() {
@@ -30,12 +97,104 @@ public class DatabaseManager {
      * Позволяет тестам переключать БД и пересоздавать синглтон с чистыми данными.
      */
     public static synchronized void useCustomUrlForTests(String customUrl) {
+        if (instance != null) {
+            instance.shutdown();
+        }
         DB_URL = customUrl;
         instance = null;
     }
 
+    /**
+     * Соединение из пула; close() возвращает его в пул.
+     */
+    private Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public LruCache.Stats getStatementCacheStats() {
+        return pool.getStatementCacheStats();
+    }
+
+    /**
+     * Задержки операций и журнал медленных запросов или null, если метрики выключены
+     * (library.db.metrics=false). Операции замеряет обертка из Repositories.getInstance().
+     */
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    /**
+     * Шина событий об изменениях, сделанных через этот DatabaseManager (события публикуются после commit).
+     */
+    public ChangeEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+
+    /**
+     * Ежедневная пометка просроченных выдач; через нее можно получить выдачи, ставшие просроченными.
+     */
+    public OverdueEngine getOverdueEngine() {
+        return overdueEngine;
+    }
+
+    /**
+     * Перенос давно возвращенных выдач в архив loans_archive.
+     */
+    public LoanArchiver getLoanArchiver() {
+        return loanArchiver;
+    }
+
+    /**
+     * Фоновый checkpoint WAL или null, если профиль хранения не использует WAL.
+     */
+    public WalCheckpointer getCheckpointer() {
+        return checkpointer;
+    }
+
+    public LruCache.Stats getBookCacheStats() {
+        return bookCache.getStats();
+    }
+
+    public LruCache.Stats getReaderCacheStats() {
+        return readerCache.getStats();
+    }
+
+    public LruCache.Stats getSearchCacheStats() {
+        return searchCache.getStats();
+    }
+
+    /**
+     * Текущая версия каталога (только изменения, сделанные через этот экземпляр).
+     */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Останавливает фоновые задачи и закрывает пул соединений. После вызова экземпляр использовать нельзя.
+     */
+    public void shutdown() {
+        overdueEngine.close();
+        loanArchiver.close();
+        if (checkpointer != null) {
+            checkpointer.close();
+        }
+        pool.close();
+        if (queryMetrics != null) {
+            queryMetrics.unregisterMBeans();
+        }
+    }
+
     private void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
 
             // Создание таблицы книг
@@ -82,25 +241,100 @@ public class DatabaseManager {
             stmt.execute(createLoansTable);
             stmt.execute(createUsersTable);
 
-            // Добавление тестовых данных, если таблицы пусты
-            if (isTableEmpty("books")) {
-                insertSampleBooks();
+            ftsAvailable = initializeFullTextIndex(stmt);
+
+            // Индексы и последующие изменения схемы — версионными миграциями
+            new SchemaMigrator(SchemaMigrator.libraryMigrations()).migrate(conn);
+
+        } catch (SQLException e) {
+            System.err.println("Ошибка инициализации БД: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        // Добавление тестовых данных, если таблицы пусты
+        if (isTableEmpty("books")) {
+            insertSampleBooks();
+        }
+        boolean seedUsers = isTableEmpty("users");
+        if (seedUsers) {
+            insertDefaultUsers(this);
+        }
+        if (isTableEmpty("readers")) {
+            insertSampleReaders();
+        }
+        if (seedUsers) {
+            linkSampleUsers(this);
+        }
+    }
+
+    /**
+     * Полнотекстовый индекс FTS5 по каталогу (external content над таблицей books),
+     * синхронизируемый триггерами. Чтобы индексировать новое поле книги, достаточно
+     * добавить его в BOOKS_FTS_COLUMNS — индекс перестроится при следующем запуске.
+     */
+    static final String BOOKS_FTS_COLUMNS = "title, author";
+
+    private boolean initializeFullTextIndex(Statement stmt) {
+        try {
+            String existingSql = null;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = 'books_fts'")) {
+                if (rs.next()) {
+                    existingSql = rs.getString(1);
+                }
             }
-            if (isTableEmpty("users")) {
-                insertDefaultUsers();
+            String createSql = "CREATE VIRTUAL TABLE books_fts USING fts5(" + BOOKS_FTS_COLUMNS + ", " +
+                    "content='books', content_rowid='id', " +
+                    "tokenize='unicode61 remove_diacritics 2', prefix='2 3')";
+            boolean rebuild = !createSql.equals(existingSql);
+            if (rebuild) {
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_ai");
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_ad");
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_au");
+                stmt.execute("DROP TABLE IF EXISTS books_fts");
+                stmt.execute(createSql);
+                // Совпадение в названии весит вдвое больше совпадения в авторе
+                stmt.execute("INSERT INTO books_fts(books_fts, rank) VALUES ('rank', 'bm25(10.0, 5.0)')");
             }
-            if (isTableEmpty("readers")) {
-                insertSampleReaders();
+
+            String newValues = "new." + BOOKS_FTS_COLUMNS.replace(", ", ", new.");
+            String oldValues = "old." + BOOKS_FTS_COLUMNS.replace(", ", ", old.");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS books_fts_ai AFTER INSERT ON books BEGIN " +
+                    "INSERT INTO books_fts(rowid, " + BOOKS_FTS_COLUMNS + ") VALUES (new.id, " + newValues + "); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS books_fts_ad AFTER DELETE ON books BEGIN " +
+                    "INSERT INTO books_fts(books_fts, rowid, " + BOOKS_FTS_COLUMNS + ") " +
+                    "VALUES ('delete', old.id, " + oldValues + "); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS books_fts_au AFTER UPDATE OF " + BOOKS_FTS_COLUMNS + " ON books BEGIN " +
+                    "INSERT INTO books_fts(books_fts, rowid, " + BOOKS_FTS_COLUMNS + ") " +
+                    "VALUES ('delete', old.id, " + oldValues + "); " +
+                    "INSERT INTO books_fts(rowid, " + BOOKS_FTS_COLUMNS + ") VALUES (new.id, " + newValues + "); END");
+
+            if (rebuild) {
+                stmt.execute("INSERT INTO books_fts(books_fts) VALUES ('rebuild')");
             }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Полнотекстовый индекс недоступен, поиск будет через LIKE: " + e.getMessage());
+            return false;
+        }
+    }
 
+    /**
+     * Версия схемы по таблице schema_version.
+     */
+    public int getSchemaVersion() {
+        try (Connection conn = getConnection()) {
+            return new SchemaMigrator(SchemaMigrator.libraryMigrations()).getCurrentVersion(conn);
         } catch (SQLException e) {
-            System.err.println("Ошибка инициализации БД: " + e.getMessage());
+            System.err.println("Ошибка получения версии схемы: " + e.getMessage());
             e.printStackTrace();
         }
+        return 0;
     }
 
     private boolean isTableEmpty(String tableName) {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
             return rs.getInt(1) == 0;
@@ -110,7 +344,14 @@ public class DatabaseManager {
     }
 
     private void insertSampleBooks() {
-        List<Book> sampleBooks = List.of(
+        importSamples(importer -> importer.importBooks(sampleBooks()));
+    }
+
+    /**
+     * Демонстрационный каталог новой БД (и хранилища в памяти).
+     */
+    static List<Book> sampleBooks() {
+        return List.of(
             // Русская классика
             new Book("Война и мир", "Лев Толстой", 1869, 5),
             new Book("Преступление и наказание", "Федор Достоевский", 1866, 3),
@@ -184,60 +425,122 @@ public class DatabaseManager {
             new Book("Стихотворения", "Владимир Маяковский", 1920, 5),
             new Book("Стихотворения", "Анна Ахматова", 1920, 5)
         );
-
-        for (Book book : sampleBooks) {
-            addBook(book);
-        }
     }
 
-    private void insertDefaultUsers() {
+    static void insertDefaultUsers(UserRepository users) {
         // Администраторы
-        addSystemUser("admin", "admin", "ADMIN");
-        addSystemUser("admin1", "admin123", "ADMIN");
-        addSystemUser("root", "root", "ADMIN");
+        users.addSystemUser("admin", "admin", "ADMIN");
+        users.addSystemUser("admin1", "admin123", "ADMIN");
+        users.addSystemUser("root", "root", "ADMIN");
 
         // Читатели
-        addSystemUser("reader", "reader", "READER");
-        addSystemUser("reader1", "read123", "READER");
-        addSystemUser("reader2", "read456", "READER");
-        addSystemUser("petrov", "petrov123", "READER");
-        addSystemUser("sidorov", "sidorov123", "READER");
-        addSystemUser("kozlov", "kozlov123", "READER");
-        addSystemUser("volkov", "volkov123", "READER");
-        addSystemUser("novikov", "novikov123", "READER");
-        addSystemUser("morozov", "morozov123", "READER");
-        addSystemUser("sokolov", "sokolov123", "READER");
+        users.addSystemUser("reader", "reader", "READER");
+        users.addSystemUser("reader1", "read123", "READER");
+        users.addSystemUser("reader2", "read456", "READER");
+        users.addSystemUser("petrov", "petrov123", "READER");
+        users.addSystemUser("sidorov", "sidorov123", "READER");
+        users.addSystemUser("kozlov", "kozlov123", "READER");
+        users.addSystemUser("volkov", "volkov123", "READER");
+        users.addSystemUser("novikov", "novikov123", "READER");
+        users.addSystemUser("morozov", "morozov123", "READER");
+        users.addSystemUser("sokolov", "sokolov123", "READER");
+    }
+
+    static void linkSampleUsers(LibraryStorage storage) {
+        // Демонстрационные учетные записи читателей -> номера читательских билетов
+        String[][] links = {
+            {"petrov", "R001"}, {"sidorov", "R002"}, {"kozlov", "R003"}, {"volkov", "R004"},
+            {"novikov", "R005"}, {"morozov", "R006"}, {"sokolov", "R007"}
+        };
+        for (String[] link : links) {
+            Reader reader = storage.getReaderByCardNumber(link[1]);
+            if (reader != null) {
+                storage.linkUserToReader(link[0], reader.getId());
+            }
+        }
     }
 
     private void insertSampleReaders() {
-        // Создаем читателей, соответствующих пользователям с ролью READER
-        addReader(new Reader("Иван Петров", "R001", "+7-999-111-22-33", "petrov@example.com", "г. Москва, ул. Ленина, д. 1"));
-        addReader(new Reader("Петр Сидоров", "R002", "+7-999-222-33-44", "sidorov@example.com", "г. Москва, ул. Пушкина, д. 5"));
-        addReader(new Reader("Сергей Козлов", "R003", "+7-999-333-44-55", "kozlov@example.com", "г. Санкт-Петербург, Невский пр., д. 10"));
-        addReader(new Reader("Александр Волков", "R004", "+7-999-444-55-66", "volkov@example.com", "г. Москва, ул. Тверская, д. 15"));
-        addReader(new Reader("Дмитрий Новиков", "R005", "+7-999-555-66-77", "novikov@example.com", "г. Санкт-Петербург, ул. Невская, д. 20"));
-        addReader(new Reader("Андрей Морозов", "R006", "+7-999-666-77-88", "morozov@example.com", "г. Москва, ул. Арбат, д. 25"));
-        addReader(new Reader("Михаил Соколов", "R007", "+7-999-777-88-99", "sokolov@example.com", "г. Москва, ул. Садовая, д. 30"));
-        addReader(new Reader("Елена Иванова", "R008", "+7-999-888-99-00", "ivanova@example.com", "г. Санкт-Петербург, ул. Литейная, д. 35"));
-        addReader(new Reader("Мария Смирнова", "R009", "+7-999-999-00-11", "smirnova@example.com", "г. Москва, ул. Красная, д. 40"));
-        addReader(new Reader("Анна Кузнецова", "R010", "+7-999-000-11-22", "kuznetsova@example.com", "г. Москва, ул. Зеленая, д. 45"));
-        addReader(new Reader("Ольга Лебедева", "R011", "+7-999-111-22-33", "lebedeva@example.com", "г. Санкт-Петербург, ул. Морская, д. 50"));
-        addReader(new Reader("Татьяна Новикова", "R012", "+7-999-222-33-44", "novikova@example.com", "г. Москва, ул. Цветочная, д. 55"));
-        addReader(new Reader("Наталья Петрова", "R013", "+7-999-333-44-55", "petrova@example.com", "г. Москва, ул. Солнечная, д. 60"));
-        addReader(new Reader("Виктор Орлов", "R014", "+7-999-444-55-66", "orlov@example.com", "г. Санкт-Петербург, ул. Речная, д. 65"));
-        addReader(new Reader("Николай Соколов", "R015", "+7-999-555-66-77", "sokolov2@example.com", "г. Москва, ул. Лесная, д. 70"));
-        addReader(new Reader("Владимир Павлов", "R016", "+7-999-666-77-88", "pavlov@example.com", "г. Москва, ул. Горная, д. 75"));
-        addReader(new Reader("Алексей Семенов", "R017", "+7-999-777-88-99", "semenov@example.com", "г. Санкт-Петербург, ул. Парковая, д. 80"));
-        addReader(new Reader("Игорь Голубев", "R018", "+7-999-888-99-00", "golubev@example.com", "г. Москва, ул. Садовая, д. 85"));
-        addReader(new Reader("Роман Виноградов", "R019", "+7-999-999-00-11", "vinogradov@example.com", "г. Москва, ул. Вишневая, д. 90"));
-        addReader(new Reader("Екатерина Борисова", "R020", "+7-999-000-11-22", "borisova@example.com", "г. Санкт-Петербург, ул. Березовая, д. 95"));
+        importSamples(importer -> importer.importReaders(sampleReaders()));
+    }
+
+    static List<Reader> sampleReaders() {
+        // Читатели, соответствующие пользователям с ролью READER
+        return List.of(
+            new Reader("Иван Петров", "R001", "+7-999-111-22-33", "petrov@example.com", "г. Москва, ул. Ленина, д. 1"),
+            new Reader("Петр Сидоров", "R002", "+7-999-222-33-44", "sidorov@example.com", "г. Москва, ул. Пушкина, д. 5"),
+            new Reader("Сергей Козлов", "R003", "+7-999-333-44-55", "kozlov@example.com", "г. Санкт-Петербург, Невский пр., д. 10"),
+            new Reader("Александр Волков", "R004", "+7-999-444-55-66", "volkov@example.com", "г. Москва, ул. Тверская, д. 15"),
+            new Reader("Дмитрий Новиков", "R005", "+7-999-555-66-77", "novikov@example.com", "г. Санкт-Петербург, ул. Невская, д. 20"),
+            new Reader("Андрей Морозов", "R006", "+7-999-666-77-88", "morozov@example.com", "г. Москва, ул. Арбат, д. 25"),
+            new Reader("Михаил Соколов", "R007", "+7-999-777-88-99", "sokolov@example.com", "г. Москва, ул. Садовая, д. 30"),
+            new Reader("Елена Иванова", "R008", "+7-999-888-99-00", "ivanova@example.com", "г. Санкт-Петербург, ул. Литейная, д. 35"),
+            new Reader("Мария Смирнова", "R009", "+7-999-999-00-11", "smirnova@example.com", "г. Москва, ул. Красная, д. 40"),
+            new Reader("Анна Кузнецова", "R010", "+7-999-000-11-22", "kuznetsova@example.com", "г. Москва, ул. Зеленая, д. 45"),
+            new Reader("Ольга Лебедева", "R011", "+7-999-111-22-33", "lebedeva@example.com", "г. Санкт-Петербург, ул. Морская, д. 50"),
+            new Reader("Татьяна Новикова", "R012", "+7-999-222-33-44", "novikova@example.com", "г. Москва, ул. Цветочная, д. 55"),
+            new Reader("Наталья Петрова", "R013", "+7-999-333-44-55", "petrova@example.com", "г. Москва, ул. Солнечная, д. 60"),
+            new Reader("Виктор Орлов", "R014", "+7-999-444-55-66", "orlov@example.com", "г. Санкт-Петербург, ул. Речная, д. 65"),
+            new Reader("Николай Соколов", "R015", "+7-999-555-66-77", "sokolov2@example.com", "г. Москва, ул. Лесная, д. 70"),
+            new Reader("Владимир Павлов", "R016", "+7-999-666-77-88", "pavlov@example.com", "г. Москва, ул. Горная, д. 75"),
+            new Reader("Алексей Семенов", "R017", "+7-999-777-88-99", "semenov@example.com", "г. Санкт-Петербург, ул. Парковая, д. 80"),
+            new Reader("Игорь Голубев", "R018", "+7-999-888-99-00", "golubev@example.com", "г. Москва, ул. Садовая, д. 85"),
+            new Reader("Роман Виноградов", "R019", "+7-999-999-00-11", "vinogradov@example.com", "г. Москва, ул. Вишневая, д. 90"),
+            new Reader("Екатерина Борисова", "R020", "+7-999-000-11-22", "borisova@example.com", "г. Санкт-Петербург, ул. Березовая, д. 95")
+        );
+    }
+
+    // ========== IMPORT ==========
+
+    private interface ImportTask {
+        CatalogImporter.Report run(CatalogImporter importer) throws SQLException, IOException;
+    }
+
+    private void importSamples(ImportTask task) {
+        runImport(task, null);
+    }
+
+    private CatalogImporter.Report runImport(ImportTask task, CatalogImporter.ProgressListener listener) {
+        try (Connection conn = getConnection()) {
+            return task.run(new CatalogImporter(conn, CatalogImporter.DEFAULT_BATCH_SIZE, listener));
+        } catch (SQLException | IOException e) {
+            System.err.println("Ошибка импорта: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Импорт книг из CSV одной транзакцией (формат — в CatalogImporter).
+     *
+     * @return отчет об импорте или null, если файл не удалось прочитать или импорт откачен
+     */
+    public CatalogImporter.Report importBooks(java.io.Reader csv, CatalogImporter.ProgressListener listener) {
+        CatalogImporter.Report report = runImport(importer -> importer.importBooksCsv(csv), listener);
+        if (report != null && report.getImported() > 0) {
+            bookChanged(ChangeEvent.BookChanged.ALL);
+        }
+        return report;
+    }
+
+    /**
+     * Импорт читателей из CSV; номера билетов, уже имеющиеся в БД, пропускаются.
+     *
+     * @return отчет об импорте или null, если файл не удалось прочитать или импорт откачен
+     */
+    public CatalogImporter.Report importReaders(java.io.Reader csv, CatalogImporter.ProgressListener listener) {
+        CatalogImporter.Report report = runImport(importer -> importer.importReadersCsv(csv), listener);
+        if (report != null && report.getImported() > 0) {
+            eventBus.publish(ChangeEvent.ReaderChanged.ALL);
+        }
+        return report;
     }
 
     // ========== BOOKS ==========
 
     public void addBook(Book book) {
         String sql = "INSERT INTO books (title, author, year, copies_total, copies_available) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, book.getTitle());
             pstmt.setString(2, book.getAuthor());
@@ -245,6 +548,8 @@ public class DatabaseManager {
             pstmt.setInt(4, book.getCopiesTotal());
             pstmt.setInt(5, book.getCopiesAvailable());
             pstmt.executeUpdate();
+            book.setId(lastInsertId(conn));
+            bookChanged(new ChangeEvent.BookChanged(book.getId(), ChangeEvent.Kind.CREATED));
         } catch (SQLException e) {
             System.err.println("Ошибка добавления книги: " + e.getMessage());
             e.printStackTrace();
@@ -254,9 +559,9 @@ public class DatabaseManager {
     public List<Book> getAllBooks() {
         List<Book> books = new ArrayList<>();
         String sql = "SELECT * FROM books ORDER BY title";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 books.add(new Book(
                     rs.getInt("id"),
@@ -274,24 +579,234 @@ public class DatabaseManager {
         return books;
     }
 
+    /**
+     * Поиск по названию и автору через полнотекстовый индекс (см. {@link #searchCatalog}).
+     * Пустой запрос возвращает весь каталог.
+     */
     public List<Book> searchBooks(String query) {
+        if (query == null || query.isBlank()) {
+            return getAllBooks();
+        }
+        return searchRange(query, 0, -1);
+    }
+
+    // ========== BOOKS: постраничная выборка ==========
+
+    /**
+     * Страница каталога в порядке (title, id), начиная с позиции offset.
+     */
+    public List<Book> getBooksPage(int offset, int limit) {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books WHERE title LIKE ? OR author LIKE ? ORDER BY title";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        String sql = "SELECT * FROM books ORDER BY title, id LIMIT ? OFFSET ?";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            String searchPattern = "%" + query + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
+            pstmt.setInt(1, limit);
+            pstmt.setInt(2, offset);
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
-                books.add(new Book(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    rs.getString("author"),
-                    rs.getInt("year"),
-                    rs.getInt("copies_total"),
-                    rs.getInt("copies_available")
-                ));
+                books.add(mapBook(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения страницы книг: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return books;
+    }
+
+    /**
+     * Keyset-страница: книги, идущие в порядке (title, id) строго после указанного ключа.
+     * В отличие от OFFSET не пересчитывает пропущенные строки.
+     */
+    public List<Book> getBooksAfter(String afterTitle, int afterId, int limit) {
+        List<Book> books = new ArrayList<>();
+        String sql = "SELECT * FROM books WHERE (title, id) > (?, ?) ORDER BY title, id LIMIT ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, afterTitle);
+            pstmt.setInt(2, afterId);
+            pstmt.setInt(3, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                books.add(mapBook(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения страницы книг: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return books;
+    }
+
+    /**
+     * Сбрасывает кэш поиска и сообщает подписчикам об изменении книги.
+     */
+    private void bookChanged(ChangeEvent.BookChanged change) {
+        searchCache.invalidateAll();
+        catalogVersion.incrementAndGet();
+        eventBus.publish(change);
+    }
+
+    /**
+     * ID всех книг, найденных по запросу, в том же порядке, что и searchBooksPage.
+     * Повторный запрос (в том числе из другого окна) берется из кэша.
+     *
+     * @param cancelled проверяется между строками результата; если вернул true, чтение
+     *                  прекращается, а неполный результат не кэшируется
+     * @return ID найденных книг или null, если чтение прервано
+     */
+    public int[] searchBookIds(String query, BooleanSupplier cancelled) {
+        if (query == null || query.isBlank()) {
+            return new int[0];
+        }
+        String key = query.trim().toLowerCase(Locale.ROOT);
+        return searchCache.get(key, normalized -> loadSearchIds(normalized, cancelled));
+    }
+
+    private int[] loadSearchIds(String query, BooleanSupplier cancelled) {
+        String match = buildMatchExpression(query);
+        boolean fullText = ftsAvailable && match != null;
+        String sql = fullText
+                ? "SELECT rowid FROM books_fts WHERE books_fts MATCH ? ORDER BY rank, title, rowid"
+                : "SELECT id FROM books WHERE title LIKE ? OR author LIKE ? ORDER BY title, id";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (fullText) {
+                pstmt.setString(1, match);
+            } else {
+                String searchPattern = "%" + query + "%";
+                pstmt.setString(1, searchPattern);
+                pstmt.setString(2, searchPattern);
+            }
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            int[] ids = new int[64];
+            int count = 0;
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                if ((count & 0xFF) == 0 && cancelled.getAsBoolean()) {
+                    return null;
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = rs.getInt(1);
+            }
+            return Arrays.copyOf(ids, count);
+        } catch (SQLException e) {
+            System.err.println("Ошибка поиска книг: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Книги с ID ids[from..to) в порядке массива; удаленные к этому моменту пропускаются.
+     */
+    public List<Book> getBooksByIds(int[] ids, int from, int to) {
+        List<Book> books = new ArrayList<>();
+        if (from >= to) {
+            return books;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM books WHERE id IN (?");
+        for (int i = from + 1; i < to; i++) {
+            sql.append(", ?");
+        }
+        sql.append(')');
+        Map<Integer, Book> byId = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = from; i < to; i++) {
+                pstmt.setInt(i - from + 1, ids[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Book book = mapBook(rs);
+                byId.put(book.getId(), book);
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения книг: " + e.getMessage());
+            e.printStackTrace();
+        }
+        for (int i = from; i < to; i++) {
+            Book book = byId.get(ids[i]);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    public List<Book> searchBooksPage(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            return getBooksPage(offset, limit);
+        }
+        return searchRange(query, offset, limit);
+    }
+
+    public int countSearchBooks(String query) {
+        if (query == null || query.isBlank()) {
+            return getTotalBooks();
+        }
+        String match = buildMatchExpression(query);
+        boolean fullText = ftsAvailable && match != null;
+        String sql = fullText
+                ? "SELECT COUNT(*) FROM books_fts WHERE books_fts MATCH ?"
+                : "SELECT COUNT(*) FROM books WHERE title LIKE ? OR author LIKE ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (fullText) {
+                pstmt.setString(1, match);
+            } else {
+                String searchPattern = "%" + query + "%";
+                pstmt.setString(1, searchPattern);
+                pstmt.setString(2, searchPattern);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка поиска книг: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Полнотекстовый поиск по каталогу: каждое слово запроса ищется как префикс
+     * (без учета регистра, в том числе для кириллицы), результаты упорядочены по релевантности
+     * (bm25, совпадение в названии весит больше, чем в авторе).
+     */
+    public List<Book> searchCatalog(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        return searchRange(query, 0, limit);
+    }
+
+    private List<Book> searchRange(String query, int offset, int limit) {
+        List<Book> books = new ArrayList<>();
+        String match = buildMatchExpression(query);
+        boolean fullText = ftsAvailable && match != null;
+        String sql = fullText
+                ? "SELECT b.* FROM books_fts JOIN books b ON b.id = books_fts.rowid " +
+                  "WHERE books_fts MATCH ? ORDER BY books_fts.rank, b.title, b.id LIMIT ? OFFSET ?"
+                : "SELECT * FROM books WHERE title LIKE ? OR author LIKE ? ORDER BY title, id LIMIT ? OFFSET ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (fullText) {
+                pstmt.setString(index++, match);
+            } else {
+                String searchPattern = "%" + query + "%";
+                pstmt.setString(index++, searchPattern);
+                pstmt.setString(index++, searchPattern);
+            }
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, offset);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                books.add(mapBook(rs));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка поиска книг: " + e.getMessage());
@@ -300,9 +815,42 @@ public class DatabaseManager {
         return books;
     }
 
+    /**
+     * Превращает пользовательский запрос в выражение FTS5: слова в кавычках с «*» (префикс),
+     * объединенные по AND. Возвращает null, если в запросе нет ни одного слова.
+     */
+    static String buildMatchExpression(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(token).append("\"*");
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+
+    private Book mapBook(ResultSet rs) throws SQLException {
+        return new Book(
+            rs.getInt("id"),
+            rs.getString("title"),
+            rs.getString("author"),
+            rs.getInt("year"),
+            rs.getInt("copies_total"),
+            rs.getInt("copies_available")
+        );
+    }
+
     public Book getBookById(int id) {
+        return copyOf(bookCache.get(id, this::loadBook));
+    }
+
+    private Book loadBook(int id) {
         String sql = "SELECT * FROM books WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -325,7 +873,7 @@ public class DatabaseManager {
 
     public void updateBook(Book book) {
         String sql = "UPDATE books SET title = ?, author = ?, year = ?, copies_total = ?, copies_available = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, book.getTitle());
             pstmt.setString(2, book.getAuthor());
@@ -333,22 +881,30 @@ public class DatabaseManager {
             pstmt.setInt(4, book.getCopiesTotal());
             pstmt.setInt(5, book.getCopiesAvailable());
             pstmt.setInt(6, book.getId());
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                bookChanged(new ChangeEvent.BookChanged(book.getId(), ChangeEvent.Kind.UPDATED));
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка обновления книги: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            bookCache.invalidate(book.getId());
         }
     }
 
     public void deleteBook(int id) {
         String sql = "DELETE FROM books WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                bookChanged(new ChangeEvent.BookChanged(id, ChangeEvent.Kind.DELETED));
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка удаления книги: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            bookCache.invalidate(id);
         }
     }
 
@@ -356,7 +912,7 @@ public class DatabaseManager {
 
     public void addReader(Reader reader) {
         String sql = "INSERT INTO readers (full_name, card_number, registration_date, phone, email, address, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, reader.getFullName());
             pstmt.setString(2, reader.getCardNumber());
@@ -366,6 +922,8 @@ public class DatabaseManager {
             pstmt.setString(6, reader.getAddress());
             pstmt.setString(7, reader.getStatus());
             pstmt.executeUpdate();
+            reader.setId(lastInsertId(conn));
+            eventBus.publish(new ChangeEvent.ReaderChanged(reader.getId(), ChangeEvent.Kind.CREATED));
         } catch (SQLException e) {
             System.err.println("Ошибка добавления читателя: " + e.getMessage());
             e.printStackTrace();
@@ -375,9 +933,9 @@ public class DatabaseManager {
     public List<Reader> getAllReaders() {
         List<Reader> readers = new ArrayList<>();
         String sql = "SELECT * FROM readers ORDER BY full_name";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 readers.add(new Reader(
                     rs.getInt("id"),
@@ -398,8 +956,12 @@ public class DatabaseManager {
     }
 
     public Reader getReaderById(int id) {
+        return copyOf(readerCache.get(id, this::loadReader));
+    }
+
+    private Reader loadReader(int id) {
         String sql = "SELECT * FROM readers WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -424,7 +986,7 @@ public class DatabaseManager {
 
     public Reader getReaderByCardNumber(String cardNumber) {
         String sql = "SELECT * FROM readers WHERE card_number = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, cardNumber);
             ResultSet rs = pstmt.executeQuery();
@@ -447,9 +1009,60 @@ public class DatabaseManager {
         return null;
     }
 
+    /**
+     * Читатель, связанный с учетной записью (users.reader_id), или null, если связи нет.
+     * Один запрос по уникальному индексу логина и первичному ключу читателя.
+     */
+    public Reader getReaderByUsername(String username) {
+        String sql = "SELECT r.* FROM users u JOIN readers r ON r.id = u.reader_id WHERE u.username = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, username);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new Reader(
+                    rs.getInt("id"),
+                    rs.getString("full_name"),
+                    rs.getString("card_number"),
+                    LocalDate.parse(rs.getString("registration_date")),
+                    rs.getString("phone"),
+                    rs.getString("email"),
+                    rs.getString("address"),
+                    rs.getString("status")
+                );
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения читателя по логину: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Связывает учетную запись с читателем.
+     *
+     * @return false, если пользователя с таким логином нет или запись не удалась
+     */
+    public boolean linkUserToReader(String username, int readerId) {
+        String sql = "UPDATE users SET reader_id = ? WHERE username = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, readerId);
+            pstmt.setString(2, username);
+            if (pstmt.executeUpdate() > 0) {
+                eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.UPDATED));
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка связывания пользователя с читателем: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
     public void updateReader(Reader reader) {
         String sql = "UPDATE readers SET full_name = ?, card_number = ?, phone = ?, email = ?, address = ?, status = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, reader.getFullName());
             pstmt.setString(2, reader.getCardNumber());
@@ -458,42 +1071,113 @@ public class DatabaseManager {
             pstmt.setString(5, reader.getAddress());
             pstmt.setString(6, reader.getStatus());
             pstmt.setInt(7, reader.getId());
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                eventBus.publish(new ChangeEvent.ReaderChanged(reader.getId(), ChangeEvent.Kind.UPDATED));
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка обновления читателя: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            readerCache.invalidate(reader.getId());
         }
     }
 
-    // ========== LOANS ==========
+    private static Book copyOf(Book book) {
+        if (book == null) {
+            return null;
+        }
+        return new Book(book.getId(), book.getTitle(), book.getAuthor(), book.getYear(),
+                book.getCopiesTotal(), book.getCopiesAvailable());
+    }
 
-    public void addLoan(Loan loan) {
-        String sql = "INSERT INTO loans (book_id, reader_id, issue_date, due_date, status) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, loan.getBookId());
-            pstmt.setInt(2, loan.getReaderId());
-            pstmt.setString(3, loan.getIssueDate().toString());
-            pstmt.setString(4, loan.getDueDate().toString());
-            pstmt.setString(5, loan.getStatus());
-            pstmt.executeUpdate();
+    private static Reader copyOf(Reader reader) {
+        if (reader == null) {
+            return null;
+        }
+        return new Reader(reader.getId(), reader.getFullName(), reader.getCardNumber(), reader.getRegistrationDate(),
+                reader.getPhone(), reader.getEmail(), reader.getAddress(), reader.getStatus());
+    }
 
-            // Уменьшаем количество доступных экземпляров
-            Book book = getBookById(loan.getBookId());
-            if (book != null) {
-                book.setCopiesAvailable(book.getCopiesAvailable() - 1);
-                updateBook(book);
+    // ========== LOANS ==========
+
+    /**
+     * Выдает книгу одной транзакцией: резервирует экземпляр условным UPDATE
+     * (copies_available > 0) и добавляет запись о выдаче. При успехе loan получает ID.
+     * Одновременные выдачи с разных мест не уводят счетчик в минус.
+     */
+    public LoanResult addLoan(Loan loan) {
+        String reserveSql = "UPDATE books SET copies_available = copies_available - 1 WHERE id = ? AND copies_available > 0";
+        String insertSql = "INSERT INTO loans (book_id, reader_id, issue_date, due_date, status) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement reserve = conn.prepareStatement(reserveSql)) {
+                    reserve.setInt(1, loan.getBookId());
+                    if (reserve.executeUpdate() == 0) {
+                        conn.rollback();
+                        return bookExists(conn, loan.getBookId()) ? LoanResult.NO_COPIES_AVAILABLE : LoanResult.BOOK_NOT_FOUND;
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                    pstmt.setInt(1, loan.getBookId());
+                    pstmt.setInt(2, loan.getReaderId());
+                    pstmt.setString(3, loan.getIssueDate().toString());
+                    pstmt.setString(4, loan.getDueDate().toString());
+                    pstmt.setString(5, statusOnIssue(loan));
+                    pstmt.executeUpdate();
+                }
+                loan.setId(lastInsertId(conn));
+                conn.commit();
+                bookCache.invalidate(loan.getBookId());
+                catalogVersion.incrementAndGet();
+                eventBus.publish(new ChangeEvent.LoanIssued(loan.getId(), loan.getBookId(), loan.getReaderId()));
+                return LoanResult.SUCCESS;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Ошибка добавления выдачи: " + e.getMessage());
             e.printStackTrace();
         }
+        return LoanResult.FAILED;
+    }
+
+    /**
+     * Статус новой выдачи: выдача задним числом со сроком возврата в прошлом сразу просрочена
+     * (дальше статус ведет OverdueEngine).
+     */
+    static String statusOnIssue(Loan loan) {
+        if ("ACTIVE".equals(loan.getStatus()) && loan.getDueDate().isBefore(LocalDate.now())) {
+            loan.setStatus("OVERDUE");
+        }
+        return loan.getStatus();
+    }
+
+    /**
+     * ID только что вставленной строки. getGeneratedKeys не поддерживается драйвером,
+     * поэтому rowid берется на том же соединении.
+     */
+    private static int lastInsertId(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT last_insert_rowid()");
+             ResultSet keys = pstmt.executeQuery()) {
+            return keys.next() ? keys.getInt(1) : 0;
+        }
+    }
+
+    private boolean bookExists(Connection conn, int bookId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM books WHERE id = ?")) {
+            pstmt.setInt(1, bookId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
     }
 
     public List<Loan> getLoansByReaderId(int readerId) {
         List<Loan> loans = new ArrayList<>();
         String sql = "SELECT * FROM loans WHERE reader_id = ? ORDER BY issue_date DESC";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, readerId);
             ResultSet rs = pstmt.executeQuery();
@@ -519,9 +1203,9 @@ public class DatabaseManager {
     public List<Loan> getAllLoans() {
         List<Loan> loans = new ArrayList<>();
         String sql = "SELECT * FROM loans ORDER BY issue_date DESC";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 Loan loan = new Loan(
                     rs.getInt("id"),
@@ -543,7 +1227,7 @@ public class DatabaseManager {
 
     public Loan getLoanById(int id) {
         String sql = "SELECT * FROM loans WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -565,95 +1249,254 @@ public class DatabaseManager {
         return null;
     }
 
-    public void returnLoan(int loanId) {
-        Loan loan = getLoanById(loanId);
-        if (loan != null && loan.isActive()) {
-            String sql = "UPDATE loans SET return_date = ?, status = ? WHERE id = ?";
-            try (Connection conn = DriverManager.getConnection(DB_URL);
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, LocalDate.now().toString());
-                pstmt.setString(2, "RETURNED");
-                pstmt.setInt(3, loanId);
-                pstmt.executeUpdate();
-
-                // Увеличиваем количество доступных экземпляров
-                Book book = getBookById(loan.getBookId());
-                if (book != null) {
-                    book.setCopiesAvailable(book.getCopiesAvailable() + 1);
-                    updateBook(book);
+    /**
+     * Возврат одной транзакцией: закрывает активную выдачу и возвращает экземпляр книги.
+     */
+    public LoanResult returnLoan(int loanId) {
+        String closeSql = "UPDATE loans SET return_date = ?, status = 'RETURNED' WHERE id = ? AND status IN ('ACTIVE', 'OVERDUE')";
+        String releaseSql = "UPDATE books SET copies_available = copies_available + 1 WHERE id = ?";
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(closeSql)) {
+                    pstmt.setString(1, LocalDate.now().toString());
+                    pstmt.setInt(2, loanId);
+                    if (pstmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return LoanResult.LOAN_NOT_ACTIVE;
+                    }
+                }
+                int bookId;
+                int readerId;
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT book_id, reader_id FROM loans WHERE id = ?")) {
+                    pstmt.setInt(1, loanId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        rs.next();
+                        bookId = rs.getInt(1);
+                        readerId = rs.getInt(2);
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(releaseSql)) {
+                    pstmt.setInt(1, bookId);
+                    pstmt.executeUpdate();
                 }
+                conn.commit();
+                bookCache.invalidate(bookId);
+                catalogVersion.incrementAndGet();
+                eventBus.publish(new ChangeEvent.LoanReturned(loanId, bookId, readerId));
+                return LoanResult.SUCCESS;
             } catch (SQLException e) {
-                System.err.println("Ошибка возврата книги: " + e.getMessage());
-                e.printStackTrace();
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка возврата книги: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return LoanResult.FAILED;
+    }
+
+    // ========== LOAN VIEWS (выдачи с названием книги и ФИО читателя) ==========
+
+    private static final String LOAN_VIEW_SELECT = loanViewSelect("loans");
+    // Вместе с архивом: представление loans_history (миграция 5)
+    private static final String LOAN_HISTORY_SELECT = loanViewSelect("loans_history");
+
+    private static String loanViewSelect(String source) {
+        return "SELECT l.id, l.book_id, l.reader_id, l.issue_date, l.return_date, l.due_date, l.status, " +
+            "b.title AS book_title, r.full_name AS reader_name " +
+            "FROM " + source + " l " +
+            "LEFT JOIN books b ON b.id = l.book_id " +
+            "LEFT JOIN readers r ON r.id = l.reader_id ";
+    }
+
+    /**
+     * Одна выдача с названием книги и ФИО читателя — для обновления строки таблицы после выдачи или возврата.
+     */
+    public LoanView getLoanViewById(int id) {
+        String sql = LOAN_VIEW_SELECT + "WHERE l.id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return mapLoanView(rs);
             }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения выдачи: " + e.getMessage());
+            e.printStackTrace();
         }
+        return null;
+    }
+
+    /**
+     * Все выдачи с названиями книг и ФИО читателей за один запрос.
+     */
+    public List<LoanView> getAllLoanViews() {
+        return getAllLoanViews(false);
     }
 
+    /**
+     * Все выдачи; с includeArchived — вместе с перенесенными в архив.
+     */
+    public List<LoanView> getAllLoanViews(boolean includeArchived) {
+        List<LoanView> views = new ArrayList<>();
+        String sql = (includeArchived ? LOAN_HISTORY_SELECT : LOAN_VIEW_SELECT) + "ORDER BY l.issue_date DESC";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                views.add(mapLoanView(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения выдач: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return views;
+    }
+
+    /**
+     * История выдач читателя с названиями книг за один запрос.
+     */
+    public List<LoanView> getLoanViewsByReaderId(int readerId) {
+        return getLoanViewsByReaderId(readerId, false);
+    }
+
+    /**
+     * История выдач читателя; с includeArchived — вместе с перенесенными в архив.
+     */
+    public List<LoanView> getLoanViewsByReaderId(int readerId, boolean includeArchived) {
+        List<LoanView> views = new ArrayList<>();
+        String sql = (includeArchived ? LOAN_HISTORY_SELECT : LOAN_VIEW_SELECT)
+                + "WHERE l.reader_id = ? ORDER BY l.issue_date DESC";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, readerId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                views.add(mapLoanView(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка получения выдач: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return views;
+    }
+
+    private LoanView mapLoanView(ResultSet rs) throws SQLException {
+        String returnDate = rs.getString("return_date");
+        return new LoanView(
+            rs.getInt("id"),
+            rs.getInt("book_id"),
+            rs.getString("book_title"),
+            rs.getInt("reader_id"),
+            rs.getString("reader_name"),
+            LocalDate.parse(rs.getString("issue_date")),
+            returnDate != null ? LocalDate.parse(returnDate) : null,
+            LocalDate.parse(rs.getString("due_date")),
+            rs.getString("status")
+        );
+    }
+
+    /**
+     * Переносит срок возврата. Просроченная выдача с новым сроком не раньше сегодняшнего дня снова становится активной.
+     */
     public void extendLoan(int loanId, LocalDate newDueDate) {
-        String sql = "UPDATE loans SET due_date = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        String sql = "UPDATE loans SET due_date = ?, " +
+                "status = CASE WHEN status = 'OVERDUE' AND ? >= ? THEN 'ACTIVE' ELSE status END WHERE id = ?";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, newDueDate.toString());
-            pstmt.setInt(2, loanId);
-            pstmt.executeUpdate();
+            pstmt.setString(2, newDueDate.toString());
+            pstmt.setString(3, LocalDate.now().toString());
+            pstmt.setInt(4, loanId);
+            if (pstmt.executeUpdate() > 0) {
+                publishLoanExtended(conn, loanId);
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка продления выдачи: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    // ========== STATISTICS ==========
-
-    public int getTotalBooks() {
-        String sql = "SELECT COUNT(*) FROM books";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private void publishLoanExtended(Connection conn, int loanId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT book_id, reader_id FROM loans WHERE id = ?")) {
+            pstmt.setInt(1, loanId);
+            ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
-                return rs.getInt(1);
+                eventBus.publish(new ChangeEvent.LoanExtended(loanId, rs.getInt(1), rs.getInt(2)));
             }
+        }
+    }
+
+    public List<Loan> markOverdue(LocalDate today) {
+        try {
+            return overdueEngine.markOverdue(today);
         } catch (SQLException e) {
-            System.err.println("Ошибка получения статистики: " + e.getMessage());
+            System.err.println("Ошибка пометки просроченных выдач: " + e.getMessage());
             e.printStackTrace();
         }
-        return 0;
+        return Collections.emptyList();
     }
 
-    public int getTotalReaders() {
-        String sql = "SELECT COUNT(*) FROM readers";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+    /**
+     * Переносит в архив выдачи, возвращенные раньше before.
+     *
+     * @return сколько выдач перенесено
+     */
+    public int archiveReturnedLoans(LocalDate before) {
+        try {
+            return loanArchiver.archive(before);
         } catch (SQLException e) {
-            System.err.println("Ошибка получения статистики: " + e.getMessage());
+            System.err.println("Ошибка архивации выдач: " + e.getMessage());
             e.printStackTrace();
         }
         return 0;
     }
 
-    public int getActiveLoans() {
-        String sql = "SELECT COUNT(*) FROM loans WHERE status = 'ACTIVE'";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    // ========== STATISTICS ==========
+
+    // Счетчики ведутся триггерами в library_stats (миграции 2 и 4); просрочки —
+    // по сохраненному статусу OVERDUE, который ставит OverdueEngine
+
+    /**
+     * Все показатели панели статистики одним запросом по одному соединению.
+     */
+    public DashboardStats getDashboardStats() {
+        String sql = "SELECT total_books, total_readers, active_loans, overdue_loans FROM library_stats WHERE id = 1";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
-                return rs.getInt(1);
+                return new DashboardStats(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка получения статистики: " + e.getMessage());
             e.printStackTrace();
         }
-        return 0;
+        return new DashboardStats(0, 0, 0, 0);
+    }
+
+    public int getTotalBooks() {
+        return queryStat("SELECT total_books FROM library_stats WHERE id = 1");
+    }
+
+    public int getTotalReaders() {
+        return queryStat("SELECT total_readers FROM library_stats WHERE id = 1");
+    }
+
+    public int getActiveLoans() {
+        return queryStat("SELECT active_loans FROM library_stats WHERE id = 1");
     }
 
     public int getOverdueLoans() {
-        String sql = "SELECT COUNT(*) FROM loans WHERE status = 'ACTIVE' AND due_date < date('now')";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        return queryStat("SELECT overdue_loans FROM library_stats WHERE id = 1");
+    }
+
+    private int queryStat(String sql) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             if (rs.next()) {
                 return rs.getInt(1);
             }
@@ -671,12 +1514,13 @@ public class DatabaseManager {
             throw new IllegalArgumentException("Недопустимая роль: " + role + ". Разрешены: " + ALLOWED_ROLES);
         }
         String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, password);
             pstmt.setString(3, role);
             pstmt.executeUpdate();
+            eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.CREATED));
         } catch (SQLException e) {
             System.err.println("Ошибка добавления пользователя: " + e.getMessage());
             e.printStackTrace();
@@ -684,8 +1528,8 @@ public class DatabaseManager {
     }
 
     public boolean authenticateUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        String sql = "SELECT 1 FROM users WHERE username = ? AND password = ?";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, password);
@@ -698,9 +1542,36 @@ public class DatabaseManager {
         return false;
     }
 
+    /**
+     * Проверяет логин и пароль и возвращает учетную запись одним запросом по уникальному индексу username;
+     * null, если пара не подошла.
+     */
+    public SystemUser findUserByCredentials(String username, String password) {
+        String sql = "SELECT id, username, role, reader_id FROM users WHERE username = ? AND password = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, username);
+            pstmt.setString(2, password);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new SystemUser(
+                    rs.getInt("id"),
+                    rs.getString("username"),
+                    null,
+                    rs.getString("role"),
+                    rs.getInt("reader_id")
+                );
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка аутентификации пользователя: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     public String getUserRole(String username) {
         String sql = "SELECT role FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
@@ -717,9 +1588,9 @@ public class DatabaseManager {
     public List<SystemUser> getAllSystemUsers() {
         List<SystemUser> users = new ArrayList<>();
         String sql = "SELECT * FROM users ORDER BY username";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 users.add(new SystemUser(
                     rs.getInt("id"),
@@ -740,12 +1611,14 @@ public class DatabaseManager {
             throw new IllegalArgumentException("Недопустимая роль: " + newRole + ". Разрешены: " + ALLOWED_ROLES);
         }
         String sql = "UPDATE users SET password = ?, role = ? WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, newPassword);
             pstmt.setString(2, newRole);
             pstmt.setString(3, username);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.UPDATED));
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка обновления пользователя: " + e.getMessage());
             e.printStackTrace();
@@ -754,10 +1627,12 @@ public class DatabaseManager {
 
     public void deleteSystemUser(String username) {
         String sql = "DELETE FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.DELETED));
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка удаления пользователя: " + e.getMessage());
             e.printStackTrace();
@@ -766,7 +1641,7 @@ public class DatabaseManager {
 
     public boolean systemUserExists(String username) {
         String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
@@ -779,35 +1654,4 @@ public class DatabaseManager {
         }
         return false;
     }
-
-    public static class SystemUser {
-        private int id;
-        private String username;
-        private String password;
-        private String role;
-
-        public SystemUser(int id, String username, String password, String role) {
-            this.id = id;
-            this.username = username;
-            this.password = password;
-            this.role = role;
-        }
-
-        public int getId() {
-            return id;
-        }
-
-        public String getUsername() {
-            return username;
-        }
-
-        public String getPassword() {
-            return password;
-        }
-
-        public String getRole() {
-            return role;
-        }
-    }
 }
-
@@ -0,0 +1,811 @@
+package com.library.database;
+
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
+import com.library.model.Book;
+import com.library.model.DashboardStats;
+import com.library.model.Loan;
+import com.library.model.LoanView;
+import com.library.model.Reader;
+import com.library.model.SystemUser;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Хранилище библиотеки целиком в памяти процесса: для небольших филиалов без файла БД
+ * и для сравнения с SQLite в бенчмарках. Данные теряются при завершении процесса.
+ *
+ * Строки хранятся в ConcurrentHashMap по ID (хэш-индексы), порядок выборок дают
+ * упорядоченные индексы на ConcurrentSkipListSet/Map: каталог по (title, id), читатели
+ * по (full_name, id), выдачи по дате выдачи, активные выдачи по сроку возврата (для пометки
+ * просрочек), слова названий и авторов (поиск по префиксу), учетные записи по логину.
+ *
+ * Чтение идет без блокировок и видит каждую строку целиком: хранимые объекты не изменяются,
+ * запись заменяет их копиями и наружу отдаются копии. Записи выполняются под одной блокировкой,
+ * поэтому строка и ее индексы меняются согласованно, а выдача не уводит число экземпляров в минус.
+ *
+ * Поиск — по префиксам слов, как полнотекстовый в DatabaseManager, но без ранжирования:
+ * найденные книги идут в порядке каталога.
+ */
+public class InMemoryStorage implements LibraryStorage {
+    private final Object writeLock = new Object();
+    private final ChangeEventBus eventBus = new ChangeEventBus();
+    private final OverdueEngine overdueEngine;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    private final AtomicInteger bookIds = new AtomicInteger();
+    private final AtomicInteger readerIds = new AtomicInteger();
+    private final AtomicInteger loanIds = new AtomicInteger();
+    private final AtomicInteger userIds = new AtomicInteger();
+
+    private final Map<Integer, Book> books = new ConcurrentHashMap<>();
+    private final NavigableSet<Key> booksByTitle = new ConcurrentSkipListSet<>();
+    // Слово названия или автора в нижнем регистре -> ID книг
+    private final ConcurrentSkipListMap<String, Set<Integer>> bookWords = new ConcurrentSkipListMap<>();
+
+    private final Map<Integer, Reader> readers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> readersByCard = new ConcurrentHashMap<>();
+    private final NavigableSet<Key> readersByName = new ConcurrentSkipListSet<>();
+
+    private final Map<Integer, Loan> loans = new ConcurrentHashMap<>();
+    private final NavigableSet<Key> loansByIssueDate = new ConcurrentSkipListSet<>();
+    private final Map<Integer, NavigableSet<Key>> loansByReader = new ConcurrentHashMap<>();
+    // Только ACTIVE, по (due_date, id): просроченные к дате — headSet
+    private final NavigableSet<Key> activeByDueDate = new ConcurrentSkipListSet<>();
+    private final Set<Integer> overdueLoanIds = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentSkipListMap<String, SystemUser> users = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param sampleData заполнить ли хранилище демонстрационными данными (как новая БД SQLite);
+     *                   true также включает ежедневную пометку просрочек по расписанию
+     */
+    public InMemoryStorage(boolean sampleData) {
+        overdueEngine = new OverdueEngine(this::markOverdueInMemory, sampleData);
+        overdueEngine.addListener(overdue -> OverdueEngine.publish(eventBus, overdue));
+        if (sampleData) {
+            for (Book book : DatabaseManager.sampleBooks()) {
+                addBook(book);
+            }
+            DatabaseManager.insertDefaultUsers(this);
+            for (Reader reader : DatabaseManager.sampleReaders()) {
+                addReader(reader);
+            }
+            DatabaseManager.linkSampleUsers(this);
+        }
+    }
+
+    public OverdueEngine getOverdueEngine() {
+        return overdueEngine;
+    }
+
+    @Override
+    public ChangeEventBus getEventBus() {
+        return eventBus;
+    }
+
+    @Override
+    public void shutdown() {
+        overdueEngine.close();
+    }
+
+    // ========== BOOKS ==========
+
+    @Override
+    public void addBook(Book book) {
+        synchronized (writeLock) {
+            book.setId(bookIds.incrementAndGet());
+            putBook(null, copyOf(book));
+        }
+        bookChanged(new ChangeEvent.BookChanged(book.getId(), ChangeEvent.Kind.CREATED));
+    }
+
+    /**
+     * Заменяет строку книги и ее индексы. Вызывается под writeLock.
+     */
+    private void putBook(Book old, Book book) {
+        if (old != null) {
+            booksByTitle.remove(new Key(old.getTitle(), old.getId()));
+            for (String word : words(old)) {
+                Set<Integer> ids = bookWords.get(word);
+                if (ids != null) {
+                    ids.remove(old.getId());
+                    if (ids.isEmpty()) {
+                        bookWords.remove(word);
+                    }
+                }
+            }
+        }
+        if (book == null) {
+            books.remove(old.getId());
+            return;
+        }
+        books.put(book.getId(), book);
+        booksByTitle.add(new Key(book.getTitle(), book.getId()));
+        for (String word : words(book)) {
+            bookWords.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet()).add(book.getId());
+        }
+    }
+
+    private static Set<String> words(Book book) {
+        Set<String> words = new HashSet<>(tokens(book.getTitle()));
+        words.addAll(tokens(book.getAuthor()));
+        return words;
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void bookChanged(ChangeEvent.BookChanged change) {
+        catalogVersion.incrementAndGet();
+        eventBus.publish(change);
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        return copies(booksByTitle, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Book> searchBooks(String query) {
+        if (query == null || query.isBlank()) {
+            return getAllBooks();
+        }
+        return searchRange(query, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Book> getBooksPage(int offset, int limit) {
+        Iterator<Key> keys = booksByTitle.iterator();
+        for (int i = 0; i < offset && keys.hasNext(); i++) {
+            keys.next();
+        }
+        return copies(keys, limit);
+    }
+
+    @Override
+    public List<Book> getBooksAfter(String afterTitle, int afterId, int limit) {
+        return copies(booksByTitle.tailSet(new Key(afterTitle, afterId), false), limit);
+    }
+
+    private List<Book> copies(Iterable<Key> keys, int limit) {
+        return copies(keys.iterator(), limit);
+    }
+
+    private List<Book> copies(Iterator<Key> keys, int limit) {
+        List<Book> result = new ArrayList<>();
+        while (result.size() < limit && keys.hasNext()) {
+            Book book = books.get(keys.next().id);
+            if (book != null) {
+                result.add(copyOf(book));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] searchBookIds(String query, BooleanSupplier cancelled) {
+        if (query == null || query.isBlank()) {
+            return new int[0];
+        }
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty()) {
+            return new int[0];
+        }
+        Set<Integer> found = null;
+        for (String token : tokens) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            // Все слова с префиксом token — непрерывный диапазон упорядоченного индекса
+            Set<Integer> matches = new HashSet<>();
+            for (Set<Integer> ids : bookWords.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                matches.addAll(ids);
+            }
+            if (found == null) {
+                found = matches;
+            } else {
+                found.retainAll(matches);
+            }
+            if (found.isEmpty()) {
+                return new int[0];
+            }
+        }
+        List<Key> keys = new ArrayList<>(found.size());
+        for (int id : found) {
+            Book book = books.get(id);
+            if (book != null) {
+                keys.add(new Key(book.getTitle(), id));
+            }
+        }
+        Collections.sort(keys);
+        int[] ids = new int[keys.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = keys.get(i).id;
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Book> getBooksByIds(int[] ids, int from, int to) {
+        List<Book> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Book book = books.get(ids[i]);
+            if (book != null) {
+                result.add(copyOf(book));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Book> searchBooksPage(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            return getBooksPage(offset, limit);
+        }
+        return searchRange(query, offset, limit);
+    }
+
+    @Override
+    public int countSearchBooks(String query) {
+        if (query == null || query.isBlank()) {
+            return getTotalBooks();
+        }
+        return searchBookIds(query, () -> false).length;
+    }
+
+    @Override
+    public List<Book> searchCatalog(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        return searchRange(query, 0, limit);
+    }
+
+    private List<Book> searchRange(String query, int offset, int limit) {
+        int[] ids = searchBookIds(query, () -> false);
+        int from = Math.min(offset, ids.length);
+        int to = (int) Math.min((long) from + limit, ids.length);
+        return getBooksByIds(ids, from, to);
+    }
+
+    @Override
+    public Book getBookById(int id) {
+        return copyOf(books.get(id));
+    }
+
+    @Override
+    public void updateBook(Book book) {
+        synchronized (writeLock) {
+            Book old = books.get(book.getId());
+            if (old == null) {
+                return;
+            }
+            putBook(old, copyOf(book));
+        }
+        bookChanged(new ChangeEvent.BookChanged(book.getId(), ChangeEvent.Kind.UPDATED));
+    }
+
+    @Override
+    public void deleteBook(int id) {
+        synchronized (writeLock) {
+            Book old = books.get(id);
+            if (old == null) {
+                return;
+            }
+            putBook(old, null);
+        }
+        bookChanged(new ChangeEvent.BookChanged(id, ChangeEvent.Kind.DELETED));
+    }
+
+    @Override
+    public int getTotalBooks() {
+        return books.size();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    @Override
+    public CatalogImporter.Report importBooks(java.io.Reader csv, CatalogImporter.ProgressListener listener) {
+        try {
+            CatalogImporter.Report report = CatalogImporter.readBooksCsv(csv, book -> {
+                synchronized (writeLock) {
+                    book.setId(bookIds.incrementAndGet());
+                    putBook(null, book);
+                }
+                return true;
+            }, listener);
+            if (report.getImported() > 0) {
+                bookChanged(ChangeEvent.BookChanged.ALL);
+            }
+            return report;
+        } catch (IOException e) {
+            System.err.println("Ошибка импорта: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ========== READERS ==========
+
+    @Override
+    public void addReader(Reader reader) {
+        synchronized (writeLock) {
+            if (readersByCard.containsKey(reader.getCardNumber())) {
+                System.err.println("Ошибка добавления читателя: билет " + reader.getCardNumber() + " уже существует");
+                return;
+            }
+            reader.setId(readerIds.incrementAndGet());
+            putReader(null, copyOf(reader));
+        }
+        eventBus.publish(new ChangeEvent.ReaderChanged(reader.getId(), ChangeEvent.Kind.CREATED));
+    }
+
+    /**
+     * Заменяет строку читателя и ее индексы. Вызывается под writeLock.
+     */
+    private void putReader(Reader old, Reader reader) {
+        if (old != null) {
+            readersByCard.remove(old.getCardNumber());
+            readersByName.remove(new Key(old.getFullName(), old.getId()));
+        }
+        readers.put(reader.getId(), reader);
+        readersByCard.put(reader.getCardNumber(), reader.getId());
+        readersByName.add(new Key(reader.getFullName(), reader.getId()));
+    }
+
+    @Override
+    public List<Reader> getAllReaders() {
+        List<Reader> result = new ArrayList<>();
+        for (Key key : readersByName) {
+            Reader reader = readers.get(key.id);
+            if (reader != null) {
+                result.add(copyOf(reader));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Reader getReaderById(int id) {
+        return copyOf(readers.get(id));
+    }
+
+    @Override
+    public Reader getReaderByCardNumber(String cardNumber) {
+        Integer id = readersByCard.get(cardNumber);
+        return id == null ? null : getReaderById(id);
+    }
+
+    @Override
+    public Reader getReaderByUsername(String username) {
+        SystemUser user = users.get(username);
+        return user == null || user.getReaderId() == 0 ? null : getReaderById(user.getReaderId());
+    }
+
+    @Override
+    public void updateReader(Reader reader) {
+        synchronized (writeLock) {
+            Reader old = readers.get(reader.getId());
+            if (old == null) {
+                return;
+            }
+            Integer owner = readersByCard.get(reader.getCardNumber());
+            if (owner != null && owner != reader.getId()) {
+                System.err.println("Ошибка обновления читателя: билет " + reader.getCardNumber() + " уже существует");
+                return;
+            }
+            // Дата регистрации не меняется, как и в DatabaseManager
+            Reader updated = copyOf(reader);
+            updated.setRegistrationDate(old.getRegistrationDate());
+            putReader(old, updated);
+        }
+        eventBus.publish(new ChangeEvent.ReaderChanged(reader.getId(), ChangeEvent.Kind.UPDATED));
+    }
+
+    @Override
+    public int getTotalReaders() {
+        return readers.size();
+    }
+
+    @Override
+    public CatalogImporter.Report importReaders(java.io.Reader csv, CatalogImporter.ProgressListener listener) {
+        try {
+            CatalogImporter.Report report = CatalogImporter.readReadersCsv(csv, reader -> {
+                synchronized (writeLock) {
+                    if (readersByCard.containsKey(reader.getCardNumber())) {
+                        return false;
+                    }
+                    reader.setId(readerIds.incrementAndGet());
+                    putReader(null, reader);
+                    return true;
+                }
+            }, listener);
+            if (report.getImported() > 0) {
+                eventBus.publish(ChangeEvent.ReaderChanged.ALL);
+            }
+            return report;
+        } catch (IOException e) {
+            System.err.println("Ошибка импорта: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ========== LOANS ==========
+
+    @Override
+    public LoanResult addLoan(Loan loan) {
+        synchronized (writeLock) {
+            Book book = books.get(loan.getBookId());
+            if (book == null) {
+                return LoanResult.BOOK_NOT_FOUND;
+            }
+            if (book.getCopiesAvailable() <= 0) {
+                return LoanResult.NO_COPIES_AVAILABLE;
+            }
+            Book reserved = copyOf(book);
+            reserved.setCopiesAvailable(book.getCopiesAvailable() - 1);
+            books.put(reserved.getId(), reserved);
+            loan.setId(loanIds.incrementAndGet());
+            DatabaseManager.statusOnIssue(loan);
+            Loan stored = copyOf(loan);
+            loans.put(stored.getId(), stored);
+            Key byIssue = new Key(stored.getIssueDate().toString(), stored.getId());
+            loansByIssueDate.add(byIssue);
+            loansByReader.computeIfAbsent(stored.getReaderId(), id -> new ConcurrentSkipListSet<>()).add(byIssue);
+            indexStatus(stored);
+        }
+        catalogVersion.incrementAndGet();
+        eventBus.publish(new ChangeEvent.LoanIssued(loan.getId(), loan.getBookId(), loan.getReaderId()));
+        return LoanResult.SUCCESS;
+    }
+
+    /**
+     * Добавляет выдачу в индекс активных или просроченных. Вызывается под writeLock.
+     */
+    private void indexStatus(Loan loan) {
+        if ("ACTIVE".equals(loan.getStatus())) {
+            activeByDueDate.add(dueKey(loan));
+        } else if ("OVERDUE".equals(loan.getStatus())) {
+            overdueLoanIds.add(loan.getId());
+        }
+    }
+
+    private void unindexStatus(Loan loan) {
+        activeByDueDate.remove(dueKey(loan));
+        overdueLoanIds.remove(loan.getId());
+    }
+
+    private static Key dueKey(Loan loan) {
+        return new Key(loan.getDueDate().toString(), loan.getId());
+    }
+
+    @Override
+    public List<Loan> getLoansByReaderId(int readerId) {
+        NavigableSet<Key> keys = loansByReader.get(readerId);
+        return keys == null ? new ArrayList<>() : loanCopies(keys.descendingSet());
+    }
+
+    @Override
+    public List<Loan> getAllLoans() {
+        return loanCopies(loansByIssueDate.descendingSet());
+    }
+
+    private List<Loan> loanCopies(Iterable<Key> keys) {
+        List<Loan> result = new ArrayList<>();
+        for (Key key : keys) {
+            Loan loan = loans.get(key.id);
+            if (loan != null) {
+                result.add(copyOf(loan));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Loan getLoanById(int id) {
+        return copyOf(loans.get(id));
+    }
+
+    @Override
+    public LoanResult returnLoan(int loanId) {
+        Loan returned;
+        synchronized (writeLock) {
+            Loan loan = loans.get(loanId);
+            if (loan == null || !loan.isActive()) {
+                return LoanResult.LOAN_NOT_ACTIVE;
+            }
+            unindexStatus(loan);
+            returned = copyOf(loan);
+            returned.setReturnDate(LocalDate.now());
+            returned.setStatus("RETURNED");
+            loans.put(loanId, returned);
+            Book book = books.get(loan.getBookId());
+            if (book != null) {
+                Book released = copyOf(book);
+                released.setCopiesAvailable(book.getCopiesAvailable() + 1);
+                books.put(released.getId(), released);
+            }
+        }
+        catalogVersion.incrementAndGet();
+        eventBus.publish(new ChangeEvent.LoanReturned(loanId, returned.getBookId(), returned.getReaderId()));
+        return LoanResult.SUCCESS;
+    }
+
+    @Override
+    public LoanView getLoanViewById(int id) {
+        Loan loan = loans.get(id);
+        return loan == null ? null : viewOf(loan);
+    }
+
+    @Override
+    public List<LoanView> getAllLoanViews() {
+        return views(loansByIssueDate.descendingSet());
+    }
+
+    @Override
+    public List<LoanView> getLoanViewsByReaderId(int readerId) {
+        NavigableSet<Key> keys = loansByReader.get(readerId);
+        return keys == null ? new ArrayList<>() : views(keys.descendingSet());
+    }
+
+    // Архива в памяти нет: хранилище не переживает перезапуск, и многолетняя история в нем не копится
+    @Override
+    public List<LoanView> getAllLoanViews(boolean includeArchived) {
+        return getAllLoanViews();
+    }
+
+    @Override
+    public List<LoanView> getLoanViewsByReaderId(int readerId, boolean includeArchived) {
+        return getLoanViewsByReaderId(readerId);
+    }
+
+    private List<LoanView> views(Iterable<Key> keys) {
+        List<LoanView> result = new ArrayList<>();
+        for (Key key : keys) {
+            Loan loan = loans.get(key.id);
+            if (loan != null) {
+                result.add(viewOf(loan));
+            }
+        }
+        return result;
+    }
+
+    private LoanView viewOf(Loan loan) {
+        Book book = books.get(loan.getBookId());
+        Reader reader = readers.get(loan.getReaderId());
+        return new LoanView(loan.getId(), loan.getBookId(), book != null ? book.getTitle() : null,
+            loan.getReaderId(), reader != null ? reader.getFullName() : null,
+            loan.getIssueDate(), loan.getReturnDate(), loan.getDueDate(), loan.getStatus());
+    }
+
+    @Override
+    public void extendLoan(int loanId, LocalDate newDueDate) {
+        Loan extended;
+        synchronized (writeLock) {
+            Loan loan = loans.get(loanId);
+            if (loan == null) {
+                return;
+            }
+            unindexStatus(loan);
+            extended = copyOf(loan);
+            extended.setDueDate(newDueDate);
+            if ("OVERDUE".equals(loan.getStatus()) && !newDueDate.isBefore(LocalDate.now())) {
+                extended.setStatus("ACTIVE");
+            }
+            loans.put(loanId, extended);
+            indexStatus(extended);
+        }
+        eventBus.publish(new ChangeEvent.LoanExtended(loanId, extended.getBookId(), extended.getReaderId()));
+    }
+
+    @Override
+    public int getActiveLoans() {
+        return activeByDueDate.size() + overdueLoanIds.size();
+    }
+
+    @Override
+    public int getOverdueLoans() {
+        return overdueLoanIds.size();
+    }
+
+    @Override
+    public List<Loan> markOverdue(LocalDate today) {
+        try {
+            return overdueEngine.markOverdue(today);
+        } catch (SQLException e) {
+            // markOverdueInMemory не обращается к БД
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Loan> markOverdueInMemory(LocalDate today) {
+        List<Loan> marked = new ArrayList<>();
+        synchronized (writeLock) {
+            NavigableSet<Key> due = activeByDueDate.headSet(new Key(today.toString(), Integer.MIN_VALUE), false);
+            for (Key key : new ArrayList<>(due)) {
+                Loan overdue = copyOf(loans.get(key.id));
+                overdue.setStatus("OVERDUE");
+                loans.put(overdue.getId(), overdue);
+                activeByDueDate.remove(key);
+                overdueLoanIds.add(overdue.getId());
+                marked.add(copyOf(overdue));
+            }
+        }
+        return marked;
+    }
+
+    // ========== STATISTICS ==========
+
+    @Override
+    public DashboardStats getDashboardStats() {
+        return new DashboardStats(getTotalBooks(), getTotalReaders(), getActiveLoans(), getOverdueLoans());
+    }
+
+    // ========== USERS ==========
+
+    @Override
+    public void addSystemUser(String username, String password, String role) {
+        if (!DatabaseManager.ALLOWED_ROLES.contains(role)) {
+            throw new IllegalArgumentException("Недопустимая роль: " + role + ". Разрешены: " + DatabaseManager.ALLOWED_ROLES);
+        }
+        SystemUser user = new SystemUser(userIds.incrementAndGet(), username, password, role);
+        if (users.putIfAbsent(username, user) != null) {
+            System.err.println("Ошибка добавления пользователя: логин " + username + " уже существует");
+            return;
+        }
+        eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.CREATED));
+    }
+
+    @Override
+    public boolean authenticateUser(String username, String password) {
+        return findUserByCredentials(username, password) != null;
+    }
+
+    @Override
+    public SystemUser findUserByCredentials(String username, String password) {
+        SystemUser user = users.get(username);
+        if (user == null || !user.getPassword().equals(password)) {
+            return null;
+        }
+        return new SystemUser(user.getId(), user.getUsername(), null, user.getRole(), user.getReaderId());
+    }
+
+    @Override
+    public String getUserRole(String username) {
+        SystemUser user = users.get(username);
+        return user == null ? null : user.getRole();
+    }
+
+    @Override
+    public List<SystemUser> getAllSystemUsers() {
+        List<SystemUser> result = new ArrayList<>();
+        for (SystemUser user : users.values()) {
+            result.add(new SystemUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole()));
+        }
+        return result;
+    }
+
+    @Override
+    public void updateSystemUser(String username, String newPassword, String newRole) {
+        if (!DatabaseManager.ALLOWED_ROLES.contains(newRole)) {
+            throw new IllegalArgumentException("Недопустимая роль: " + newRole + ". Разрешены: " + DatabaseManager.ALLOWED_ROLES);
+        }
+        SystemUser updated = users.computeIfPresent(username,
+            (name, user) -> new SystemUser(user.getId(), name, newPassword, newRole, user.getReaderId()));
+        if (updated != null) {
+            eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.UPDATED));
+        }
+    }
+
+    @Override
+    public void deleteSystemUser(String username) {
+        if (users.remove(username) != null) {
+            eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.DELETED));
+        }
+    }
+
+    @Override
+    public boolean systemUserExists(String username) {
+        return users.containsKey(username);
+    }
+
+    @Override
+    public boolean linkUserToReader(String username, int readerId) {
+        SystemUser linked = users.computeIfPresent(username,
+            (name, user) -> new SystemUser(user.getId(), name, user.getPassword(), user.getRole(), readerId));
+        if (linked == null) {
+            return false;
+        }
+        eventBus.publish(new ChangeEvent.UserChanged(username, ChangeEvent.Kind.UPDATED));
+        return true;
+    }
+
+    private static Book copyOf(Book book) {
+        if (book == null) {
+            return null;
+        }
+        return new Book(book.getId(), book.getTitle(), book.getAuthor(), book.getYear(),
+                book.getCopiesTotal(), book.getCopiesAvailable());
+    }
+
+    private static Reader copyOf(Reader reader) {
+        if (reader == null) {
+            return null;
+        }
+        return new Reader(reader.getId(), reader.getFullName(), reader.getCardNumber(), reader.getRegistrationDate(),
+                reader.getPhone(), reader.getEmail(), reader.getAddress(), reader.getStatus());
+    }
+
+    private static Loan copyOf(Loan loan) {
+        if (loan == null) {
+            return null;
+        }
+        return new Loan(loan.getId(), loan.getBookId(), loan.getReaderId(), loan.getIssueDate(),
+                loan.getReturnDate(), loan.getDueDate(), loan.getStatus());
+    }
+
+    /**
+     * Ключ упорядоченного индекса: значение столбца, затем ID (как ORDER BY столбец, id).
+     */
+    private static final class Key implements Comparable<Key> {
+        private final String value;
+        private final int id;
+
+        Key(String value, int id) {
+            this.value = value == null ? "" : value;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byValue = value.compareTo(other.value);
+            return byValue != 0 ? byValue : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return id == other.id && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * value.hashCode() + id;
+        }
+    }
+}
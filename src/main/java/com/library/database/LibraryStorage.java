@@ -0,0 +1,27 @@
+package com.library.database;
+
+import com.library.event.ChangeEventBus;
+import com.library.model.DashboardStats;
+
+/**
+ * Хранилище данных библиотеки целиком: все репозитории, шина событий об изменениях и статистика.
+ * Реализации — DatabaseManager (SQLite) и InMemoryStorage (данные только в памяти процесса);
+ * какую использовать, решает Repositories.
+ */
+public interface LibraryStorage extends BookRepository, ReaderRepository, LoanRepository, UserRepository {
+
+    /**
+     * Шина событий об изменениях, сделанных через это хранилище.
+     */
+    ChangeEventBus getEventBus();
+
+    /**
+     * Все показатели панели статистики.
+     */
+    DashboardStats getDashboardStats();
+
+    /**
+     * Останавливает фоновые задачи и освобождает ресурсы. После вызова хранилище использовать нельзя.
+     */
+    void shutdown();
+}
@@ -0,0 +1,252 @@
+package com.library.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Перенос давно возвращенных выдач из loans в loans_archive (миграция 5).
+ *
+ * В горячей таблице остаются невозвращенные и недавно возвращенные выдачи, поэтому списки
+ * выдач не замедляются с годами истории; полная история читается через представление
+ * loans_history только по запросу. Перенос идет пакетами: каждый пакет — отдельная
+ * транзакция из INSERT ... SELECT и DELETE по одному и тому же диапазону индекса
+ * idx_loans_status_return, поэтому блокировка записи держится недолго и выдачи
+ * и возвраты между пакетами не ждут окончания всего переноса.
+ *
+ * Счетчики library_stats не меняются: триггеры учитывают только невозвращенные выдачи.
+ */
+public class LoanArchiver implements AutoCloseable {
+    private static final String BATCH_IDS =
+            "SELECT id FROM loans WHERE status = 'RETURNED' AND return_date < ? ORDER BY return_date, id LIMIT ?";
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO loans_archive (id, book_id, reader_id, issue_date, return_date, due_date, status, archived_at) " +
+            "SELECT id, book_id, reader_id, issue_date, return_date, due_date, status, ? FROM loans " +
+            "WHERE id IN (" + BATCH_IDS + ")";
+    private static final String DELETE_SQL = "DELETE FROM loans WHERE id IN (" + BATCH_IDS + ")";
+
+    private final ConnectionPool pool;
+    private final Config config;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final List<IntConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Запускает ежедневный (по config.getIntervalMs()) перенос в фоновом потоке,
+     * если интервал положительный. Первый перенос — через config.getInitialDelayMs()
+     * после запуска, чтобы он успел пройти и в коротком сеансе.
+     */
+    public LoanArchiver(ConnectionPool pool, Config config) {
+        this.pool = pool;
+        this.config = config;
+        if (config.getIntervalMs() > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "library-loan-archive");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::runScheduled,
+                config.getInitialDelayMs(), config.getIntervalMs(), TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Слушатель получает число выдач, перенесенных очередным пакетом, сразу после его commit
+     * (в потоке переноса). Пакеты без перенесенных строк не сообщаются.
+     */
+    public void addListener(IntConsumer listener) {
+        listeners.add(listener);
+    }
+
+    private void runScheduled() {
+        try {
+            archiveExpired();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Ошибка архивации выдач: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Переносит выдачи, возвращенные больше config.getAfterDays() дней назад.
+     *
+     * @return сколько выдач перенесено
+     */
+    public int archiveExpired() throws SQLException {
+        return archive(LocalDate.now().minusDays(config.getAfterDays()));
+    }
+
+    /**
+     * Переносит в архив все выдачи, возвращенные раньше before, пакетами по config.getBatchSize().
+     * При ошибке уже перенесенные пакеты остаются в архиве, текущий откатывается.
+     *
+     * @return сколько выдач перенесено
+     */
+    public synchronized int archive(LocalDate before) throws SQLException {
+        String archivedAt = LocalDateTime.now().toString();
+        int total = 0;
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                while (true) {
+                    int moved = archiveBatch(conn, before, archivedAt);
+                    conn.commit();
+                    if (moved == 0) {
+                        break;
+                    }
+                    total += moved;
+                    archivedCount.addAndGet(moved);
+                    batchCount.incrementAndGet();
+                    notifyListeners(moved);
+                    if (moved < config.getBatchSize()) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return total;
+    }
+
+    private void notifyListeners(int moved) {
+        for (IntConsumer listener : listeners) {
+            try {
+                listener.accept(moved);
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка обработки архивации выдач: " + e.getMessage());
+            }
+        }
+    }
+
+    private int archiveBatch(Connection conn, LocalDate before, String archivedAt) throws SQLException {
+        int copied;
+        try (PreparedStatement pstmt = conn.prepareStatement(ARCHIVE_SQL)) {
+            pstmt.setString(1, archivedAt);
+            pstmt.setString(2, before.toString());
+            pstmt.setInt(3, config.getBatchSize());
+            copied = pstmt.executeUpdate();
+        }
+        if (copied == 0) {
+            return 0;
+        }
+        // Тот же запрос пакета в той же транзакции выбирает ровно скопированные строки
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+            pstmt.setString(1, before.toString());
+            pstmt.setInt(2, config.getBatchSize());
+            int deleted = pstmt.executeUpdate();
+            if (deleted != copied) {
+                throw new SQLException("Пакет архивации не совпал: скопировано " + copied + ", удалено " + deleted);
+            }
+        }
+        return copied;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Сколько выдач перенесено этим экземпляром с момента запуска.
+     */
+    public long getArchivedCount() {
+        return archivedCount.get();
+    }
+
+    /**
+     * Сколько пакетов (транзакций) с переносом выполнено.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Останавливает расписание, дождавшись текущего переноса. Пул при этом не закрывается.
+     */
+    @Override
+    public void close() {
+        if (scheduler == null) {
+            return;
+        }
+        // Без прерывания потока: прерывание во время работы драйвера SQLite может закрыть соединение
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Параметры архивации (системные свойства library.archive.*).
+     */
+    public static class Config {
+        public static final long DEFAULT_INITIAL_DELAY_MS = 60_000L;
+
+        private final int afterDays;
+        private final int batchSize;
+        private final long intervalMs;
+        private final long initialDelayMs;
+
+        /**
+         * @param afterDays  через сколько дней после возврата выдача уходит в архив
+         * @param batchSize  строк в одной транзакции переноса
+         * @param intervalMs период фонового переноса; 0 — только по вызову archive/archiveExpired
+         */
+        public Config(int afterDays, int batchSize, long intervalMs) {
+            this(afterDays, batchSize, intervalMs, DEFAULT_INITIAL_DELAY_MS);
+        }
+
+        /**
+         * @param initialDelayMs задержка первого фонового переноса после запуска
+         */
+        public Config(int afterDays, int batchSize, long intervalMs, long initialDelayMs) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Размер пакета архивации должен быть положительным: " + batchSize);
+            }
+            this.afterDays = Math.max(0, afterDays);
+            this.batchSize = batchSize;
+            this.intervalMs = Math.max(0, intervalMs);
+            this.initialDelayMs = Math.max(0, initialDelayMs);
+        }
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                Integer.getInteger("library.archive.afterDays", 365),
+                Integer.getInteger("library.archive.batchSize", 500),
+                Long.getLong("library.archive.intervalMs", 86_400_000L),
+                Long.getLong("library.archive.initialDelayMs", DEFAULT_INITIAL_DELAY_MS)
+            );
+        }
+
+        public int getAfterDays() {
+            return afterDays;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public long getInitialDelayMs() {
+            return initialDelayMs;
+        }
+    }
+}
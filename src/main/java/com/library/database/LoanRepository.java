@@ -0,0 +1,70 @@
+package com.library.database;
+
+import com.library.model.Loan;
+import com.library.model.LoanView;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Выдачи книг. Выдача и возврат атомарно меняют число доступных экземпляров книги.
+ * Списки выдач упорядочены по дате выдачи, новые первыми. Хранилище может переносить
+ * давно возвращенные выдачи в архив: обычные списки их не содержат, история с архивом
+ * читается только по явному запросу (includeArchived).
+ */
+public interface LoanRepository {
+
+    /**
+     * Выдает книгу; при успехе loan получает ID.
+     */
+    LoanResult addLoan(Loan loan);
+
+    List<Loan> getLoansByReaderId(int readerId);
+
+    List<Loan> getAllLoans();
+
+    Loan getLoanById(int id);
+
+    /**
+     * Закрывает активную (в том числе просроченную) выдачу и возвращает экземпляр книги.
+     */
+    LoanResult returnLoan(int loanId);
+
+    /**
+     * Выдача с названием книги и ФИО читателя.
+     */
+    LoanView getLoanViewById(int id);
+
+    List<LoanView> getAllLoanViews();
+
+    /**
+     * Все выдачи; с includeArchived — вместе с давно возвращенными, перенесенными в архив.
+     */
+    List<LoanView> getAllLoanViews(boolean includeArchived);
+
+    List<LoanView> getLoanViewsByReaderId(int readerId);
+
+    /**
+     * История выдач читателя; с includeArchived — вместе с перенесенными в архив.
+     */
+    List<LoanView> getLoanViewsByReaderId(int readerId, boolean includeArchived);
+
+    /**
+     * Переносит срок возврата; просроченная выдача с новым сроком не раньше сегодняшнего дня снова активна.
+     */
+    void extendLoan(int loanId, LocalDate newDueDate);
+
+    /**
+     * Число невозвращенных выдач (ACTIVE и OVERDUE).
+     */
+    int getActiveLoans();
+
+    int getOverdueLoans();
+
+    /**
+     * Помечает OVERDUE активные выдачи со сроком возврата раньше today.
+     *
+     * @return выдачи, ставшие просроченными при этом вызове
+     */
+    List<Loan> markOverdue(LocalDate today);
+}
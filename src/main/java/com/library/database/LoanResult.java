@@ -0,0 +1,21 @@
+package com.library.database;
+
+/**
+ * Результат выдачи или возврата книги.
+ */
+public enum LoanResult {
+    /** Операция выполнена. */
+    SUCCESS,
+    /** Все экземпляры книги уже выданы. */
+    NO_COPIES_AVAILABLE,
+    /** Книги с таким ID нет в каталоге. */
+    BOOK_NOT_FOUND,
+    /** Выдача не найдена или уже закрыта (книга возвращена). */
+    LOAN_NOT_ACTIVE,
+    /** Ошибка БД; изменения откачены. */
+    FAILED;
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,149 @@
+package com.library.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Потокобезопасный LRU-кэш ограниченного размера со статистикой попаданий.
+ *
+ * Значение загружается вне блокировки; если за время загрузки кэш инвалидировали,
+ * результат возвращается вызывающему, но не кэшируется — иначе медленное чтение
+ * могло бы положить в кэш данные, уже перезаписанные параллельным обновлением.
+ * Отсутствующие значения (null) не кэшируются.
+ */
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize должен быть положительным");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Значение из кэша или, при промахе, из loader (с сохранением в кэш).
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Значение из кэша или null без загрузки; учитывается как попадание или промах.
+     */
+    public synchronized V getIfPresent(K key) {
+        V cached = entries.get(key);
+        if (cached != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return cached;
+    }
+
+    /**
+     * Кладет или заменяет значение. В отличие от invalidate, не мешает идущим загрузкам
+     * других ключей попасть в кэш.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(maxSize, entries.size(), hits, misses, evictions);
+    }
+
+    /**
+     * Снимок счетчиков кэша.
+     */
+    public static class Stats {
+        private final int maxSize;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public Stats(int maxSize, int size, long hits, long misses, long evictions) {
+            this.maxSize = maxSize;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("размер=%d/%d, попаданий=%d, промахов=%d (%.1f%%), вытеснено=%d",
+                size, maxSize, hits, misses, getHitRate() * 100, evictions);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Шаг миграции схемы. Выполняется один раз, внутри транзакции, в порядке возрастания версии.
+ */
+public interface Migration {
+
+    int getVersion();
+
+    String getDescription();
+
+    void apply(Connection conn) throws SQLException;
+
+    /**
+     * Миграция из набора SQL-инструкций.
+     */
+    static Migration of(int version, String description, String... statements) {
+        List<String> sql = List.of(statements);
+        return new Migration() {
+            @Override
+            public int getVersion() {
+                return version;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public void apply(Connection conn) throws SQLException {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String statement : sql) {
+                        stmt.execute(statement);
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,206 @@
+package com.library.database;
+
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
+import com.library.model.Loan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Перевод просроченных выдач в статус OVERDUE.
+ *
+ * Один UPDATE на все выдачи сразу (диапазон по индексу idx_loans_status_due(status, due_date)),
+ * а не проверка каждой строки при отрисовке. Выполняется при запуске (DatabaseManager
+ * вызывает markOverdue) и затем по расписанию вскоре после каждой полуночи, поэтому
+ * сохраненный статус совпадает с датой возврата. Выдачи, ставшие просроченными за прогон,
+ * передаются слушателям (например, для уведомлений читателям).
+ *
+ * Хранилище в памяти передает собственную пометку (Marker) и получает то же расписание и слушателей.
+ */
+public class OverdueEngine implements AutoCloseable {
+    /**
+     * Сколько выдач за прогон еще сообщается событиями по каждой выдаче; больше — одно событие LoansChanged.
+     */
+    public static final int BULK_EVENT_THRESHOLD = 50;
+
+    // Запас после полуночи, чтобы LocalDate.now() в прогоне гарантированно был новым днем
+    private static final LocalTime RUN_TIME = LocalTime.of(0, 0, 5);
+
+    private static final String MARK_OVERDUE_SQL =
+            "UPDATE loans SET status = 'OVERDUE' WHERE status = 'ACTIVE' AND due_date < ? " +
+            "RETURNING id, book_id, reader_id, issue_date, due_date";
+
+    /**
+     * Пометка просроченных выдач в конкретном хранилище.
+     */
+    public interface Marker {
+        /**
+         * @return выдачи, ставшие просроченными (уже со статусом OVERDUE)
+         */
+        List<Loan> markOverdue(LocalDate today) throws SQLException;
+    }
+
+    private final Marker marker;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<List<Loan>>> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<Loan> lastNewlyOverdue = Collections.emptyList();
+    private volatile LocalDate lastRunDate;
+
+    /**
+     * @param scheduled запускать ли ежедневные прогоны в фоновом потоке
+     */
+    public OverdueEngine(ConnectionPool pool, boolean scheduled) {
+        this(today -> markInDatabase(pool, today), scheduled);
+    }
+
+    /**
+     * @param marker    пометка просроченных выдач в хранилище
+     * @param scheduled запускать ли ежедневные прогоны в фоновом потоке
+     */
+    public OverdueEngine(Marker marker, boolean scheduled) {
+        this.marker = marker;
+        if (scheduled) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "library-overdue");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Иначе close() ждал бы отложенного до завтра прогона
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            scheduler = executor;
+            scheduleNext();
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Слушатель получает непустой список выдач, ставших просроченными за прогон
+     * (в потоке прогона, после commit).
+     */
+    public void addListener(Consumer<List<Loan>> listener) {
+        listeners.add(listener);
+    }
+
+    private void scheduleNext() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = LocalDate.now().plusDays(1).atTime(RUN_TIME);
+        scheduler.schedule(this::runScheduled, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduled() {
+        try {
+            markOverdue(LocalDate.now());
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Ошибка пометки просроченных выдач: " + e.getMessage());
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduleNext();
+            }
+        }
+    }
+
+    /**
+     * Публикует выдачи, ставшие просроченными: немного — событием LoanOverdue на каждую,
+     * а прогон после простоя или ночной прогон с тысячами выдач — одним LoansChanged,
+     * чтобы окна перечитали списки один раз, а не по запросу на выдачу.
+     */
+    public static void publish(ChangeEventBus eventBus, List<Loan> overdue) {
+        if (overdue.size() > BULK_EVENT_THRESHOLD) {
+            eventBus.publish(ChangeEvent.LoansChanged.ALL);
+            return;
+        }
+        for (Loan loan : overdue) {
+            eventBus.publish(new ChangeEvent.LoanOverdue(loan.getId(), loan.getBookId(), loan.getReaderId()));
+        }
+    }
+
+    /**
+     * Помечает OVERDUE все активные выдачи со сроком возврата раньше today.
+     *
+     * @return выдачи, ставшие просроченными в этом прогоне (уже просроченные ранее не входят)
+     */
+    public List<Loan> markOverdue(LocalDate today) throws SQLException {
+        List<Loan> result = Collections.unmodifiableList(marker.markOverdue(today));
+        lastNewlyOverdue = result;
+        lastRunDate = today;
+        if (!result.isEmpty()) {
+            for (Consumer<List<Loan>> listener : listeners) {
+                try {
+                    listener.accept(result);
+                } catch (RuntimeException e) {
+                    System.err.println("Ошибка обработки просроченных выдач: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Loan> markInDatabase(ConnectionPool pool, LocalDate today) throws SQLException {
+        List<Loan> marked = new ArrayList<>();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(MARK_OVERDUE_SQL)) {
+            pstmt.setString(1, today.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    marked.add(new Loan(
+                        rs.getInt("id"),
+                        rs.getInt("book_id"),
+                        rs.getInt("reader_id"),
+                        LocalDate.parse(rs.getString("issue_date")),
+                        null,
+                        LocalDate.parse(rs.getString("due_date")),
+                        "OVERDUE"
+                    ));
+                }
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * Выдачи, ставшие просроченными в последнем прогоне.
+     */
+    public List<Loan> getLastNewlyOverdue() {
+        return lastNewlyOverdue;
+    }
+
+    /**
+     * Дата последнего прогона или null, если прогонов еще не было.
+     */
+    public LocalDate getLastRunDate() {
+        return lastRunDate;
+    }
+
+    /**
+     * Останавливает расписание, дождавшись текущего прогона. Хранилище (пул) при этом не закрывается.
+     */
+    @Override
+    public void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.library.database;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики операций хранилища и журнал медленных запросов.
+ *
+ * Операция — это вызов публичного метода хранилища через обертку instrument(): замеряется
+ * весь вызов целиком, включая чтение ResultSet и ответы из кэшей, поэтому число вызовов
+ * совпадает с числом обращений к фасаду, а не с числом выполненных SQL. По каждой операции
+ * ведутся число вызовов, число ошибок и гистограмма задержек; все доступно через JMX
+ * (com.library:type=QueryMetrics и com.library:type=DatabaseOperation,name=...).
+ *
+ * Пул соединений сообщает о каждом выполнении выражения (execute*) только для журнала
+ * медленных запросов: выражения дольше порога записываются вместе с текстом SQL, типами
+ * параметров (сами значения не сохраняются) и текущей операцией. Если метрики выключены
+ * (library.db.metrics=false), хранилище не оборачивается, а пул не оборачивает выражения.
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+    /**
+     * Верхние границы корзин гистограммы в микросекундах; последняя корзина — все, что дольше.
+     */
+    static final long[] BUCKET_BOUNDS_MICROS = {100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private static final String DOMAIN = "com.library";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String NO_OPERATION = "unknown";
+
+    private final int slowLogSize;
+    private volatile long slowThresholdNanos;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Deque<String> slowQueries = new ArrayDeque<>();
+    // Операция, выполняемая текущим потоком, — для подписи медленных запросов
+    private final ThreadLocal<String> currentOperation = new ThreadLocal<>();
+    private volatile MBeanServer server;
+
+    /**
+     * @param slowQueryMs порог журнала медленных запросов; отрицательный — журнал выключен
+     * @param slowLogSize сколько последних медленных запросов хранить
+     */
+    public QueryMetrics(long slowQueryMs, int slowLogSize) {
+        this.slowLogSize = Math.max(1, slowLogSize);
+        setSlowQueryThresholdMs(slowQueryMs);
+    }
+
+    /**
+     * Метрики по системным свойствам или null, если library.db.metrics=false.
+     */
+    public static QueryMetrics fromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty("library.db.metrics", "true"))) {
+            return null;
+        }
+        return new QueryMetrics(
+            Long.getLong("library.db.slowQueryMs", 100L),
+            Integer.getInteger("library.db.slowQueryLogSize", 50));
+    }
+
+    /**
+     * Обертка над хранилищем, замеряющая каждый вызов методов интерфейса type как операцию
+     * «ПростоеИмяКласса.метод». Вложенные вызовы внутри target не замеряются отдельно.
+     */
+    public <T> T instrument(Class<T> type, T target) {
+        String prefix = target.getClass().getSimpleName() + ".";
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return "Instrumented[" + target + "]";
+                    }
+                }
+                return time(prefix + method.getName(), () -> invoke(method, target, args));
+            }));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Действие, замеряемое как операция.
+     */
+    @FunctionalInterface
+    public interface Timed<T> {
+        T call() throws Throwable;
+    }
+
+    /**
+     * Выполняет action и учитывает его как один вызов операции name; исключение считается ошибкой
+     * и пробрасывается дальше.
+     */
+    public <T> T time(String name, Timed<T> action) throws Throwable {
+        String outer = currentOperation.get();
+        currentOperation.set(name);
+        boolean failed = true;
+        long start = System.nanoTime();
+        try {
+            T result = action.call();
+            failed = false;
+            return result;
+        } finally {
+            operation(name).record(System.nanoTime() - start, failed);
+            if (outer == null) {
+                currentOperation.remove();
+            } else {
+                currentOperation.set(outer);
+            }
+        }
+    }
+
+    private Operation operation(String name) {
+        Operation operation = operations.get(name);
+        if (operation == null) {
+            operation = operations.computeIfAbsent(name, this::newOperation);
+        }
+        return operation;
+    }
+
+    /**
+     * Учитывает одно выполнение выражения в журнале медленных запросов. Вызывается пулом
+     * в потоке, выполнявшем запрос; в счетчики операций не попадает.
+     *
+     * @param paramTypes типы установленных параметров по порядку
+     */
+    void recordStatement(String sql, List<String> paramTypes, long nanos, boolean failed) {
+        long threshold = slowThresholdNanos;
+        if (threshold >= 0 && nanos >= threshold) {
+            String name = currentOperation.get();
+            logSlowQuery(name != null ? name : NO_OPERATION, sql, paramTypes, nanos, failed);
+        }
+    }
+
+    private Operation newOperation(String name) {
+        Operation operation = new Operation(name);
+        MBeanServer target = server;
+        if (target != null) {
+            register(target, operation, operationName(name));
+        }
+        return operation;
+    }
+
+    private void logSlowQuery(String operation, String sql, List<String> paramTypes, long nanos, boolean failed) {
+        String entry = LocalDateTime.now().format(TIME_FORMAT) + " " + (nanos / 1_000_000) + " мс "
+                + operation + (failed ? " (ошибка)" : "") + " параметры " + paramTypes + ": " + sql;
+        synchronized (slowQueries) {
+            if (slowQueries.size() == slowLogSize) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(entry);
+        }
+        System.err.println("Медленный запрос: " + entry);
+    }
+
+    /**
+     * Метрики одной операции или null, если она еще не выполнялась.
+     */
+    public Operation getOperation(String name) {
+        return operations.get(name);
+    }
+
+    @Override
+    public String[] getOperationNames() {
+        return operations.keySet().stream().sorted().toArray(String[]::new);
+    }
+
+    @Override
+    public long getSlowQueryThresholdMs() {
+        long threshold = slowThresholdNanos;
+        return threshold < 0 ? -1 : threshold / 1_000_000;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMs(long thresholdMs) {
+        slowThresholdNanos = thresholdMs < 0 ? -1 : thresholdMs * 1_000_000;
+    }
+
+    @Override
+    public List<String> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    @Override
+    public long[] getHistogramBoundsMicros() {
+        return BUCKET_BOUNDS_MICROS.clone();
+    }
+
+    @Override
+    public void reset() {
+        for (Operation operation : operations.values()) {
+            operation.reset();
+        }
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    /**
+     * Регистрирует MBean метрик и уже известных операций в платформенном MBeanServer.
+     */
+    public void registerMBeans() {
+        MBeanServer target = ManagementFactory.getPlatformMBeanServer();
+        register(target, this, summaryName());
+        server = target;
+        for (Operation operation : operations.values()) {
+            register(target, operation, operationName(operation.name));
+        }
+    }
+
+    public void unregisterMBeans() {
+        MBeanServer target = server;
+        if (target == null) {
+            return;
+        }
+        server = null;
+        unregister(target, summaryName());
+        for (String name : operations.keySet()) {
+            unregister(target, operationName(name));
+        }
+    }
+
+    private static void register(MBeanServer target, Object bean, ObjectName name) {
+        try {
+            if (target.isRegistered(name)) {
+                target.unregisterMBean(name);
+            }
+            target.registerMBean(bean, name);
+        } catch (JMException e) {
+            System.err.println("Ошибка регистрации MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static void unregister(MBeanServer target, ObjectName name) {
+        try {
+            if (target.isRegistered(name)) {
+                target.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.err.println("Ошибка снятия MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static ObjectName summaryName() {
+        return objectName(DOMAIN + ":type=QueryMetrics");
+    }
+
+    static ObjectName operationName(String operation) {
+        return objectName(DOMAIN + ":type=DatabaseOperation,name=" + ObjectName.quote(operation));
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Показатели одной операции (JMX).
+     */
+    public interface OperationMXBean {
+        long getCount();
+
+        long getErrorCount();
+
+        long getTotalTimeMicros();
+
+        long getMeanTimeMicros();
+
+        long getMaxTimeMicros();
+
+        /**
+         * Число вызовов по корзинам задержки (границы — QueryMetricsMXBean.getHistogramBoundsMicros).
+         */
+        long[] getLatencyHistogram();
+    }
+
+    /**
+     * Счетчики одной операции. Обновляются без блокировок из разных потоков.
+     */
+    public static final class Operation implements OperationMXBean {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+
+        private Operation(String name) {
+            this.name = name;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos, boolean failed) {
+            count.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            long micros = nanos / 1_000;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+        }
+
+        private void reset() {
+            count.reset();
+            errors.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getTotalTimeMicros() {
+            return totalNanos.sum() / 1_000;
+        }
+
+        @Override
+        public long getMeanTimeMicros() {
+            long executions = count.sum();
+            return executions == 0 ? 0 : totalNanos.sum() / executions / 1_000;
+        }
+
+        @Override
+        public long getMaxTimeMicros() {
+            return maxNanos.get() / 1_000;
+        }
+
+        @Override
+        public long[] getLatencyHistogram() {
+            long[] result = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                result[i] = buckets[i].sum();
+            }
+            return result;
+        }
+    }
+}
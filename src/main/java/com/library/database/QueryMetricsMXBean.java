@@ -0,0 +1,26 @@
+package com.library.database;
+
+import java.util.List;
+
+/**
+ * Общие показатели метрик SQL и журнал медленных запросов (JMX: com.library:type=QueryMetrics).
+ */
+public interface QueryMetricsMXBean {
+    String[] getOperationNames();
+
+    long getSlowQueryThresholdMs();
+
+    /**
+     * Порог журнала медленных запросов; отрицательное значение выключает журнал.
+     */
+    void setSlowQueryThresholdMs(long thresholdMs);
+
+    /**
+     * Последние медленные запросы: время, длительность, операция, типы параметров и SQL.
+     */
+    List<String> getSlowQueries();
+
+    long[] getHistogramBoundsMicros();
+
+    void reset();
+}
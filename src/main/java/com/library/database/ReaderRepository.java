@@ -0,0 +1,41 @@
+package com.library.database;
+
+import com.library.model.Reader;
+
+import java.util.List;
+
+/**
+ * Читатели. Номер читательского билета уникален.
+ */
+public interface ReaderRepository {
+
+    /**
+     * Добавляет читателя; при успехе reader получает ID.
+     */
+    void addReader(Reader reader);
+
+    /**
+     * Все читатели по ФИО.
+     */
+    List<Reader> getAllReaders();
+
+    Reader getReaderById(int id);
+
+    Reader getReaderByCardNumber(String cardNumber);
+
+    /**
+     * Читатель, связанный с учетной записью, или null, если связи нет.
+     */
+    Reader getReaderByUsername(String username);
+
+    void updateReader(Reader reader);
+
+    int getTotalReaders();
+
+    /**
+     * Импорт читателей из CSV; читатели с уже существующим номером билета пропускаются.
+     *
+     * @return отчет об импорте или null, если импорт не удался
+     */
+    CatalogImporter.Report importReaders(java.io.Reader csv, CatalogImporter.ProgressListener listener);
+}
@@ -0,0 +1,63 @@
+package com.library.database;
+
+import java.util.Locale;
+
+/**
+ * Выбор хранилища по системному свойству library.storage:
+ * sqlite (по умолчанию) — DatabaseManager, memory — InMemoryStorage с демонстрационными данными.
+ */
+public final class Repositories {
+    public static final String SQLITE = "sqlite";
+    public static final String MEMORY = "memory";
+
+    private static InMemoryStorage memoryStorage;
+    private static DatabaseManager instrumentedDatabase;
+    private static LibraryStorage instrumentedStorage;
+
+    private Repositories() {
+    }
+
+    /**
+     * Хранилище приложения. Для SQLite — текущий синглтон DatabaseManager; при включенных метриках
+     * он оборачивается QueryMetrics.instrument, чтобы замерялся каждый вызов.
+     *
+     * @throws IllegalArgumentException если library.storage содержит неизвестное имя
+     */
+    public static synchronized LibraryStorage getInstance() {
+        String engine = System.getProperty("library.storage", SQLITE).trim().toLowerCase(Locale.ROOT);
+        switch (engine) {
+            case SQLITE:
+                return sqlite();
+            case MEMORY:
+                if (memoryStorage == null) {
+                    memoryStorage = new InMemoryStorage(true);
+                }
+                return memoryStorage;
+            default:
+                throw new IllegalArgumentException("Неизвестное хранилище: " + engine + ". Допустимо: sqlite, memory");
+        }
+    }
+
+    private static LibraryStorage sqlite() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        QueryMetrics metrics = database.getQueryMetrics();
+        if (metrics == null) {
+            return database;
+        }
+        if (instrumentedDatabase != database) {
+            instrumentedStorage = metrics.instrument(LibraryStorage.class, database);
+            instrumentedDatabase = database;
+        }
+        return instrumentedStorage;
+    }
+
+    /**
+     * Сброс хранилища в памяти для тестов; следующий getInstance() создаст новое.
+     */
+    public static synchronized void resetForTests() {
+        if (memoryStorage != null) {
+            memoryStorage.shutdown();
+            memoryStorage = null;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.library.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Версионные миграции схемы. Примененные версии хранятся в таблице schema_version;
+ * при запуске выполняются только шаги с версией больше текущей.
+ */
+public class SchemaMigrator {
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Повторяющаяся версия миграции: " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = sorted;
+    }
+
+    /**
+     * Миграции библиотечной БД в порядке применения.
+     */
+    public static List<Migration> libraryMigrations() {
+        return List.of(
+            Migration.of(1, "Индексы для горячих запросов по выдачам, книгам и читателям",
+                "CREATE INDEX IF NOT EXISTS idx_loans_reader_issue ON loans(reader_id, issue_date)",
+                "CREATE INDEX IF NOT EXISTS idx_loans_book ON loans(book_id)",
+                "CREATE INDEX IF NOT EXISTS idx_loans_status_due ON loans(status, due_date)",
+                "CREATE INDEX IF NOT EXISTS idx_loans_issue_date ON loans(issue_date)",
+                "CREATE INDEX IF NOT EXISTS idx_books_title ON books(title, id)",
+                "CREATE INDEX IF NOT EXISTS idx_readers_full_name ON readers(full_name)"),
+            // Счетчики для панели статистики: одна строка, поддерживаемая триггерами,
+            // вместо COUNT(*) по таблицам при каждом открытии отчетов
+            Migration.of(2, "Таблица library_stats со счетчиками книг, читателей и активных выдач",
+                "CREATE TABLE IF NOT EXISTS library_stats (" +
+                    "id INTEGER PRIMARY KEY CHECK (id = 1), " +
+                    "total_books INTEGER NOT NULL, " +
+                    "total_readers INTEGER NOT NULL, " +
+                    "active_loans INTEGER NOT NULL)",
+                "INSERT OR REPLACE INTO library_stats (id, total_books, total_readers, active_loans) VALUES (1, " +
+                    "(SELECT COUNT(*) FROM books), " +
+                    "(SELECT COUNT(*) FROM readers), " +
+                    "(SELECT COUNT(*) FROM loans WHERE status = 'ACTIVE'))",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_books_ai AFTER INSERT ON books BEGIN " +
+                    "UPDATE library_stats SET total_books = total_books + 1 WHERE id = 1; END",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_books_ad AFTER DELETE ON books BEGIN " +
+                    "UPDATE library_stats SET total_books = total_books - 1 WHERE id = 1; END",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_readers_ai AFTER INSERT ON readers BEGIN " +
+                    "UPDATE library_stats SET total_readers = total_readers + 1 WHERE id = 1; END",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_readers_ad AFTER DELETE ON readers BEGIN " +
+                    "UPDATE library_stats SET total_readers = total_readers - 1 WHERE id = 1; END",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_loans_ai AFTER INSERT ON loans " +
+                    "WHEN new.status = 'ACTIVE' BEGIN " +
+                    "UPDATE library_stats SET active_loans = active_loans + 1 WHERE id = 1; END",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_loans_ad AFTER DELETE ON loans " +
+                    "WHEN old.status = 'ACTIVE' BEGIN " +
+                    "UPDATE library_stats SET active_loans = active_loans - 1 WHERE id = 1; END",
+                "CREATE TRIGGER IF NOT EXISTS library_stats_loans_au AFTER UPDATE OF status ON loans " +
+                    "WHEN (old.status = 'ACTIVE') <> (new.status = 'ACTIVE') BEGIN " +
+                    "UPDATE library_stats SET active_loans = active_loans + " +
+                    "(CASE WHEN new.status = 'ACTIVE' THEN 1 ELSE -1 END) WHERE id = 1; END"),
+            // Явная связь учетной записи читателя с карточкой читателя. Существующие записи
+            // связываются по номеру билета (логин = номер билета), а если такого нет —
+            // по однозначному совпадению логина с именем почтового ящика читателя
+            Migration.of(3, "Связь users.reader_id с читателем и ее заполнение",
+                "ALTER TABLE users ADD COLUMN reader_id INTEGER REFERENCES readers(id)",
+                "CREATE INDEX IF NOT EXISTS idx_users_reader ON users(reader_id)",
+                "UPDATE users SET reader_id = " +
+                    "(SELECT r.id FROM readers r WHERE r.card_number = users.username COLLATE NOCASE) " +
+                    "WHERE role = 'READER' AND reader_id IS NULL",
+                "UPDATE users SET reader_id = " +
+                    "(SELECT MIN(r.id) FROM readers r " +
+                    "WHERE lower(substr(r.email, 1, instr(r.email, '@') - 1)) = lower(users.username) " +
+                    "HAVING COUNT(*) = 1) " +
+                    "WHERE role = 'READER' AND reader_id IS NULL"),
+            // Статус OVERDUE сохраняется в loans (OverdueEngine): просроченная выдача по-прежнему
+            // активна, а число просрочек ведется отдельным счетчиком вместо подсчета по due_date
+            Migration.of(4, "Счетчик просроченных выдач в library_stats; OVERDUE считается активной выдачей",
+                "ALTER TABLE library_stats ADD COLUMN overdue_loans INTEGER NOT NULL DEFAULT 0",
+                "DROP TRIGGER IF EXISTS library_stats_loans_ai",
+                "DROP TRIGGER IF EXISTS library_stats_loans_ad",
+                "DROP TRIGGER IF EXISTS library_stats_loans_au",
+                "CREATE TRIGGER library_stats_loans_ai AFTER INSERT ON loans " +
+                    "WHEN new.status IN ('ACTIVE', 'OVERDUE') BEGIN " +
+                    "UPDATE library_stats SET active_loans = active_loans + 1, " +
+                    "overdue_loans = overdue_loans + (new.status = 'OVERDUE') WHERE id = 1; END",
+                "CREATE TRIGGER library_stats_loans_ad AFTER DELETE ON loans " +
+                    "WHEN old.status IN ('ACTIVE', 'OVERDUE') BEGIN " +
+                    "UPDATE library_stats SET active_loans = active_loans - 1, " +
+                    "overdue_loans = overdue_loans - (old.status = 'OVERDUE') WHERE id = 1; END",
+                "CREATE TRIGGER library_stats_loans_au AFTER UPDATE OF status ON loans " +
+                    "WHEN old.status IS NOT new.status BEGIN " +
+                    "UPDATE library_stats SET " +
+                    "active_loans = active_loans + (new.status IN ('ACTIVE', 'OVERDUE')) - (old.status IN ('ACTIVE', 'OVERDUE')), " +
+                    "overdue_loans = overdue_loans + (new.status = 'OVERDUE') - (old.status = 'OVERDUE') WHERE id = 1; END",
+                "UPDATE library_stats SET " +
+                    "active_loans = (SELECT COUNT(*) FROM loans WHERE status IN ('ACTIVE', 'OVERDUE')), " +
+                    "overdue_loans = (SELECT COUNT(*) FROM loans WHERE status = 'OVERDUE') WHERE id = 1"),
+            // Давно возвращенные выдачи переносятся в архив (LoanArchiver), чтобы горячая таблица
+            // loans не росла годами. ID сохраняются (AUTOINCREMENT в loans их не переиспользует),
+            // полная история читается через представление loans_history
+            Migration.of(5, "Архив возвращенных выдач loans_archive и представление loans_history",
+                "CREATE TABLE IF NOT EXISTS loans_archive (" +
+                    "id INTEGER PRIMARY KEY, " +
+                    "book_id INTEGER NOT NULL, " +
+                    "reader_id INTEGER NOT NULL, " +
+                    "issue_date TEXT NOT NULL, " +
+                    "return_date TEXT NOT NULL, " +
+                    "due_date TEXT NOT NULL, " +
+                    "status TEXT NOT NULL, " +
+                    "archived_at TEXT NOT NULL)",
+                "CREATE INDEX IF NOT EXISTS idx_loans_archive_reader_issue ON loans_archive(reader_id, issue_date)",
+                "CREATE INDEX IF NOT EXISTS idx_loans_archive_issue_date ON loans_archive(issue_date)",
+                // Пакеты архивации выбираются диапазоном этого индекса в порядке (return_date, id)
+                "CREATE INDEX IF NOT EXISTS idx_loans_status_return ON loans(status, return_date)",
+                "CREATE VIEW IF NOT EXISTS loans_history AS " +
+                    "SELECT id, book_id, reader_id, issue_date, return_date, due_date, status FROM loans " +
+                    "UNION ALL " +
+                    "SELECT id, book_id, reader_id, issue_date, return_date, due_date, status FROM loans_archive")
+        );
+    }
+
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    /**
+     * Текущая версия схемы (0, если миграции еще не применялись).
+     */
+    public int getCurrentVersion(Connection conn) throws SQLException {
+        ensureVersionTable(conn);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Применяет недостающие миграции, каждую в своей транзакции.
+     * При ошибке шаг откатывается, а более поздние шаги не выполняются.
+     *
+     * @return количество примененных миграций
+     */
+    public int migrate(Connection conn) throws SQLException {
+        int current = getCurrentVersion(conn);
+        int applied = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Migration migration : migrations) {
+                if (migration.getVersion() <= current) {
+                    continue;
+                }
+                conn.setAutoCommit(false);
+                try {
+                    migration.apply(conn);
+                    recordVersion(conn, migration);
+                    conn.commit();
+                    applied++;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Миграция " + migration.getVersion() + " («"
+                            + migration.getDescription() + "») не применена: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    private void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY, " +
+                    "description TEXT NOT NULL, " +
+                    "applied_at TEXT NOT NULL)");
+        }
+    }
+
+    private void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.getVersion());
+            pstmt.setString(2, migration.getDescription());
+            pstmt.setString(3, LocalDateTime.now().toString());
+            pstmt.executeUpdate();
+        }
+    }
+}
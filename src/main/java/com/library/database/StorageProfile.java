@@ -0,0 +1,142 @@
+package com.library.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Профиль хранения SQLite: набор PRAGMA, применяемых к каждому новому соединению пула.
+ *
+ * В режиме WAL запись дописывается в журнал и не блокирует читателей, а при
+ * synchronous=NORMAL fsync выполняется только при checkpoint, а не при каждом commit.
+ * Журнал переносится в основной файл фоновым {@link WalCheckpointer}; встроенный
+ * автоматический checkpoint при этом отключен (wal_autocheckpoint = 0), чтобы commit
+ * не выполнял его сам.
+ *
+ * Профиль выбирается системным свойством library.db.profile:
+ * balanced (по умолчанию) — WAL + synchronous=NORMAL;
+ * durable — WAL + synchronous=FULL (commit переживает отключение питания);
+ * legacy — прежний режим: журнал отката и synchronous=FULL.
+ */
+public final class StorageProfile {
+    public static final StorageProfile BALANCED =
+        new StorageProfile("balanced", "WAL", "NORMAL", 64L << 20, 16 * 1024, "MEMORY", 5_000, 30_000L, 64L << 20);
+    public static final StorageProfile DURABLE =
+        new StorageProfile("durable", "WAL", "FULL", 64L << 20, 16 * 1024, "MEMORY", 5_000, 30_000L, 64L << 20);
+    public static final StorageProfile LEGACY =
+        new StorageProfile("legacy", "DELETE", "FULL", 0L, 2 * 1024, "DEFAULT", 5_000, 0L, -1L);
+
+    private final String name;
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSizeBytes;
+    private final int cacheSizeKb;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+    private final long checkpointIntervalMs;
+    private final long journalSizeLimitBytes;
+
+    public StorageProfile(String name, String journalMode, String synchronous, long mmapSizeBytes,
+                          int cacheSizeKb, String tempStore, int busyTimeoutMs,
+                          long checkpointIntervalMs, long journalSizeLimitBytes) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.cacheSizeKb = cacheSizeKb;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        this.journalSizeLimitBytes = journalSizeLimitBytes;
+    }
+
+    public static StorageProfile forName(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "balanced":
+                return BALANCED;
+            case "durable":
+                return DURABLE;
+            case "legacy":
+                return LEGACY;
+            default:
+                throw new IllegalArgumentException("Неизвестный профиль хранения: " + name
+                    + ". Доступны: balanced, durable, legacy");
+        }
+    }
+
+    public static StorageProfile fromSystemProperties() {
+        return forName(System.getProperty("library.db.profile", BALANCED.name));
+    }
+
+    /**
+     * Применяет PRAGMA профиля к соединению. Вызывается пулом один раз при создании соединения.
+     */
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // busy_timeout первым: смена journal_mode сама может ждать блокировку
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            // Отрицательное значение cache_size задается в КиБ, а не в страницах
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKb);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            stmt.execute("PRAGMA journal_size_limit = " + journalSizeLimitBytes);
+            if (isWal() && checkpointIntervalMs > 0) {
+                // Размер журнала ограничивает расписание WalCheckpointer (PASSIVE, при росте — TRUNCATE)
+                stmt.execute("PRAGMA wal_autocheckpoint = 0");
+            }
+        }
+    }
+
+    public boolean isWal() {
+        return "WAL".equalsIgnoreCase(journalMode);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public long getMmapSizeBytes() {
+        return mmapSizeBytes;
+    }
+
+    public int getCacheSizeKb() {
+        return cacheSizeKb;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getBusyTimeoutMs() {
+        return busyTimeoutMs;
+    }
+
+    /**
+     * Период фонового checkpoint; 0 — фоновый checkpoint не нужен (не WAL).
+     */
+    public long getCheckpointIntervalMs() {
+        return checkpointIntervalMs;
+    }
+
+    public long getJournalSizeLimitBytes() {
+        return journalSizeLimitBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageProfile{" + name + ": journal_mode=" + journalMode + ", synchronous=" + synchronous
+                + ", mmap_size=" + mmapSizeBytes + ", cache_size=" + cacheSizeKb + "KiB"
+                + ", temp_store=" + tempStore + ", busy_timeout=" + busyTimeoutMs + "ms}";
+    }
+}
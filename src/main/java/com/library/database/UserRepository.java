@@ -0,0 +1,46 @@
+package com.library.database;
+
+import com.library.model.SystemUser;
+
+import java.util.List;
+
+/**
+ * Учетные записи пользователей системы. Логин уникален, роль — ADMIN или READER.
+ */
+public interface UserRepository {
+
+    /**
+     * @throws IllegalArgumentException если роль недопустима
+     */
+    void addSystemUser(String username, String password, String role);
+
+    boolean authenticateUser(String username, String password);
+
+    /**
+     * Учетная запись (без пароля) по логину и паролю или null, если пара не подошла.
+     */
+    SystemUser findUserByCredentials(String username, String password);
+
+    String getUserRole(String username);
+
+    /**
+     * Все учетные записи по логину.
+     */
+    List<SystemUser> getAllSystemUsers();
+
+    /**
+     * @throws IllegalArgumentException если роль недопустима
+     */
+    void updateSystemUser(String username, String newPassword, String newRole);
+
+    void deleteSystemUser(String username);
+
+    boolean systemUserExists(String username);
+
+    /**
+     * Связывает учетную запись с читателем.
+     *
+     * @return false, если пользователя с таким логином нет или запись не удалась
+     */
+    boolean linkUserToReader(String username, int readerId);
+}
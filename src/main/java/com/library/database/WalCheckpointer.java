@@ -0,0 +1,118 @@
+package com.library.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновый checkpoint WAL-журнала.
+ *
+ * Встроенный автоматический checkpoint SQLite выполняется в потоке, сделавшем commit,
+ * и не может завершиться, пока журнал читают другие соединения, — при постоянной
+ * нагрузке WAL растет. Поэтому профиль хранения отключает его (wal_autocheckpoint = 0),
+ * а checkpoint выполняется здесь по расписанию в отдельном потоке: обычно PASSIVE
+ * (не ждет читателей и писателей), а если журнал перерос порог — TRUNCATE, который
+ * дожидается читателей (в пределах busy_timeout) и обнуляет файл журнала.
+ */
+public class WalCheckpointer implements AutoCloseable {
+    /**
+     * Порог размера журнала в страницах, после которого выполняется TRUNCATE (~16 МБ при странице 4 КБ).
+     */
+    public static final int DEFAULT_TRUNCATE_PAGES = 4_096;
+
+    private final ConnectionPool pool;
+    private final int truncatePages;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong checkpointCount = new AtomicLong();
+    private final AtomicLong truncateCount = new AtomicLong();
+    private final AtomicLong busyCount = new AtomicLong();
+    private volatile int lastWalPages = -1;
+
+    public WalCheckpointer(ConnectionPool pool, long intervalMs, int truncatePages) {
+        this.pool = pool;
+        this.truncatePages = truncatePages;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "library-db-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runScheduled, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduled() {
+        try {
+            checkpoint();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Ошибка фонового checkpoint WAL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Выполняет checkpoint сейчас и возвращает размер журнала (в страницах) до него.
+     */
+    public int checkpoint() throws SQLException {
+        int walPages = run("PASSIVE");
+        if (walPages >= truncatePages) {
+            run("TRUNCATE");
+            truncateCount.incrementAndGet();
+        }
+        return walPages;
+    }
+
+    private int run(String mode) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            // Столбцы: busy (1 — не удалось завершить), страниц в журнале, перенесено в файл БД
+            if (!rs.next()) {
+                throw new SQLException("PRAGMA wal_checkpoint(" + mode + ") не вернула результат");
+            }
+            checkpointCount.incrementAndGet();
+            if (rs.getInt(1) != 0) {
+                busyCount.incrementAndGet();
+            }
+            lastWalPages = rs.getInt(2);
+            return lastWalPages;
+        }
+    }
+
+    public long getCheckpointCount() {
+        return checkpointCount.get();
+    }
+
+    public long getTruncateCount() {
+        return truncateCount.get();
+    }
+
+    public long getBusyCount() {
+        return busyCount.get();
+    }
+
+    /**
+     * Размер журнала в страницах по последнему checkpoint (-1, если checkpoint еще не выполнялся
+     * или БД не в режиме WAL).
+     */
+    public int getLastWalPages() {
+        return lastWalPages;
+    }
+
+    /**
+     * Останавливает расписание, дождавшись текущего checkpoint. Пул при этом не закрывается.
+     */
+    @Override
+    public void close() {
+        // Без прерывания потока: прерывание во время работы драйвера SQLite может закрыть соединение
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.library.event;
+
+/**
+ * Изменение данных библиотеки, публикуемое DatabaseManager после успешной записи.
+ *
+ * События с одинаковым ключом, пришедшие до доставки пакета, схлопываются в одно
+ * (см. {@link #mergeWith(ChangeEvent)}), поэтому подписчик получает не больше одного
+ * события на сущность за кадр EDT.
+ */
+public abstract class ChangeEvent {
+
+    /**
+     * Что произошло с книгой, читателем или пользователем.
+     */
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+
+    ChangeEvent() {
+    }
+
+    /**
+     * Ключ схлопывания: события с равными ключами описывают одну сущность.
+     */
+    abstract String key();
+
+    /**
+     * Результат схлопывания с более ранним событием того же ключа.
+     * По умолчанию побеждает более позднее событие.
+     */
+    ChangeEvent mergeWith(ChangeEvent earlier) {
+        return this;
+    }
+
+    /**
+     * Изменение книги. ID 0 — массовое изменение каталога (импорт): перечитать все.
+     */
+    public static final class BookChanged extends ChangeEvent {
+        public static final BookChanged ALL = new BookChanged(0, Kind.UPDATED);
+
+        private final int bookId;
+        private final Kind kind;
+
+        public BookChanged(int bookId, Kind kind) {
+            this.bookId = bookId;
+            this.kind = kind;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public boolean isAll() {
+            return bookId == 0;
+        }
+
+        @Override
+        String key() {
+            return "book:" + bookId;
+        }
+
+        @Override
+        ChangeEvent mergeWith(ChangeEvent earlier) {
+            // Созданная и тут же измененная книга для подписчика все еще новая
+            if (kind == Kind.UPDATED && ((BookChanged) earlier).kind == Kind.CREATED) {
+                return earlier;
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "BookChanged{" + bookId + ", " + kind + '}';
+        }
+    }
+
+    /**
+     * Изменение читателя. ID 0 — массовое изменение (импорт): перечитать всех.
+     */
+    public static final class ReaderChanged extends ChangeEvent {
+        public static final ReaderChanged ALL = new ReaderChanged(0, Kind.UPDATED);
+
+        private final int readerId;
+        private final Kind kind;
+
+        public ReaderChanged(int readerId, Kind kind) {
+            this.readerId = readerId;
+            this.kind = kind;
+        }
+
+        public int getReaderId() {
+            return readerId;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public boolean isAll() {
+            return readerId == 0;
+        }
+
+        @Override
+        String key() {
+            return "reader:" + readerId;
+        }
+
+        @Override
+        public String toString() {
+            return "ReaderChanged{" + readerId + ", " + kind + '}';
+        }
+    }
+
+    /**
+     * Изменение учетной записи пользователя.
+     */
+    public static final class UserChanged extends ChangeEvent {
+        private final String username;
+        private final Kind kind;
+
+        public UserChanged(String username, Kind kind) {
+            this.username = username;
+            this.kind = kind;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        String key() {
+            return "user:" + username;
+        }
+
+        @Override
+        public String toString() {
+            return "UserChanged{" + username + ", " + kind + '}';
+        }
+    }
+
+    /**
+     * Массовое изменение выдач (перенос в архив, пометка просрочки сразу у многих выдач):
+     * списки выдач нужно перечитать целиком, отдельные события выдач в том же пакете
+     * можно не обрабатывать.
+     */
+    public static final class LoansChanged extends ChangeEvent {
+        public static final LoansChanged ALL = new LoansChanged();
+
+        private LoansChanged() {
+        }
+
+        @Override
+        String key() {
+            return "loans:all";
+        }
+
+        @Override
+        public String toString() {
+            return "LoansChanged";
+        }
+    }
+
+    /**
+     * Общая часть событий выдачи: какая выдача, книга и читатель затронуты.
+     */
+    public abstract static class LoanEvent extends ChangeEvent {
+        private final int loanId;
+        private final int bookId;
+        private final int readerId;
+
+        LoanEvent(int loanId, int bookId, int readerId) {
+            this.loanId = loanId;
+            this.bookId = bookId;
+            this.readerId = readerId;
+        }
+
+        public int getLoanId() {
+            return loanId;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public int getReaderId() {
+            return readerId;
+        }
+
+        @Override
+        String key() {
+            return "loan:" + loanId;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{loan=" + loanId + ", book=" + bookId + ", reader=" + readerId + '}';
+        }
+    }
+
+    public static final class LoanIssued extends LoanEvent {
+        public LoanIssued(int loanId, int bookId, int readerId) {
+            super(loanId, bookId, readerId);
+        }
+    }
+
+    public static final class LoanReturned extends LoanEvent {
+        public LoanReturned(int loanId, int bookId, int readerId) {
+            super(loanId, bookId, readerId);
+        }
+    }
+
+    /**
+     * Выдача стала просроченной (OverdueEngine).
+     */
+    public static final class LoanOverdue extends LoanEvent {
+        public LoanOverdue(int loanId, int bookId, int readerId) {
+            super(loanId, bookId, readerId);
+        }
+    }
+
+    public static final class LoanExtended extends LoanEvent {
+        public LoanExtended(int loanId, int bookId, int readerId) {
+            super(loanId, bookId, readerId);
+        }
+
+        @Override
+        ChangeEvent mergeWith(ChangeEvent earlier) {
+            // Продление только что оформленной выдачи — для подписчика это все еще новая выдача
+            return earlier instanceof LoanIssued ? earlier : this;
+        }
+    }
+}
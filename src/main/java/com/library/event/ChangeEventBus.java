@@ -0,0 +1,87 @@
+package com.library.event;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Асинхронная шина событий изменения данных.
+ *
+ * publish() из любого потока только кладет событие в очередь и сразу возвращается.
+ * Все события, накопившиеся до ближайшей доставки, доставляются подписчикам одним пакетом
+ * в EDT (один invokeLater на пакет), причем события одной сущности схлопываются.
+ * Так серия изменений за один кадр приводит к одному обновлению каждой затронутой строки.
+ */
+public class ChangeEventBus {
+    /**
+     * Подписка на события; close() отменяет ее (например, при закрытии окна).
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Executor dispatcher;
+    private final List<Consumer<List<ChangeEvent>>> subscribers = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private Map<String, ChangeEvent> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    public ChangeEventBus() {
+        this(SwingUtilities::invokeLater);
+    }
+
+    /**
+     * @param dispatcher исполнитель доставки пакетов (в приложении — EDT)
+     */
+    public ChangeEventBus(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Подписывает обработчик пакетов событий. close() у результата отменяет подписку.
+     */
+    public Subscription subscribe(Consumer<List<ChangeEvent>> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    public void publish(ChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        boolean schedule;
+        synchronized (lock) {
+            ChangeEvent earlier = pending.remove(event.key());
+            pending.put(event.key(), earlier == null ? event : event.mergeWith(earlier));
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            dispatcher.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        List<ChangeEvent> batch;
+        synchronized (lock) {
+            batch = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+            flushScheduled = false;
+        }
+        List<ChangeEvent> events = List.copyOf(batch);
+        for (Consumer<List<ChangeEvent>> subscriber : subscribers) {
+            try {
+                subscriber.accept(events);
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка обработки событий изменения данных: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
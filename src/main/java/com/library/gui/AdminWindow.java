@@ -1,44 +1,157 @@
 package com.library.gui;
 
 import com.library.auth.UserManager;
-import com.library.database.DatabaseManager;
+import com.library.database.CatalogImporter;
+import com.library.database.LibraryStorage;
+import com.library.database.LoanResult;
+import com.library.database.Repositories;
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
 import com.library.model.Book;
 import com.library.model.Loan;
+import com.library.model.LoanView;
 import com.library.model.Reader;
 import com.library.util.UITheme;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class AdminWindow extends JFrame {
     private String username;
-    private DatabaseManager dbManager;
+    private LibraryStorage dbManager;
     private UserManager userManager;
     
     private JTable booksTable;
-    private DefaultTableModel booksTableModel;
+    private PagedBookTableModel booksTableModel;
     private JTable readersTable;
-    private DefaultTableModel readersTableModel;
+    private ReaderTableModel readersTableModel;
     private JTable loansTable;
-    private DefaultTableModel loansTableModel;
+    private LoanTableModel loansTableModel;
+    private JCheckBox showArchivedLoans;
     private JTable usersTable;
-    private DefaultTableModel usersTableModel;
+    private ColumnarTableModel<UserManager.User> usersTableModel;
     private JTextField searchField;
+    private SearchDebouncer liveSearch;
+    private JPanel statsPanel;
+    private LazyTabs.Tab readersTab;
+    private LazyTabs.Tab loansTab;
+    private LazyTabs.Tab usersTab;
+    private LazyTabs.Tab reportsTab;
+    private ChangeEventBus.Subscription changes;
+    private final AsyncLoader loader = new AsyncLoader();
+
+    // Время от начала входа до первого кадра окна и до первой страницы каталога (мс; -1 — еще нет)
+    private final long loginStartedNanos;
+    private volatile long firstFrameMillis = -1;
+    private volatile long firstDataMillis = -1;
 
     public AdminWindow(String username) {
+        this(username, System.nanoTime());
+    }
+
+    /**
+     * @param loginStartedNanos System.nanoTime() в начале входа: от него отсчитывается время до первого кадра
+     */
+    public AdminWindow(String username, long loginStartedNanos) {
         this.username = username;
-        this.dbManager = DatabaseManager.getInstance();
+        this.loginStartedNanos = loginStartedNanos;
+        this.dbManager = Repositories.getInstance();
         this.userManager = UserManager.getInstance();
         initializeComponents();
+        // Данные вкладок загружаются при первом выборе; каталог выбран сразу
         setupLayout();
-        loadBooks();
-        loadReaders();
-        loadLoans();
-        loadUsers();
+        changes = dbManager.getEventBus().subscribe(this::onDataChanged);
+    }
+
+    /**
+     * Время от начала входа до первой отрисовки окна в миллисекундах или -1, если окно еще не отрисовано.
+     */
+    public long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /**
+     * Время от начала входа до показа первой страницы каталога в миллисекундах или -1, если ее еще нет.
+     */
+    public long getFirstDataMillis() {
+        return firstDataMillis;
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - loginStartedNanos) / 1_000_000;
+    }
+
+    private void recordFirstFrame() {
+        if (firstFrameMillis < 0) {
+            firstFrameMillis = elapsedMillis();
+        }
+    }
+
+    private void recordFirstData() {
+        if (firstDataMillis < 0 && booksTableModel.getCachedPageCount() > 0) {
+            firstDataMillis = elapsedMillis();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        changes.close();
+        super.dispose();
+    }
+
+    /**
+     * Обновляет только затронутые строки по пакету событий изменения данных (в EDT).
+     * Изменения из этого же окна приходят тем же путем. Еще не открывавшиеся вкладки
+     * не обновляются — они загрузятся при первом выборе; массовые изменения помечают
+     * вкладку устаревшей.
+     */
+    private void onDataChanged(List<ChangeEvent> events) {
+        boolean usersChanged = false;
+        boolean countersChanged = false;
+        boolean loansReloaded = events.contains(ChangeEvent.LoansChanged.ALL);
+        if (loansReloaded) {
+            loansTab.invalidate();
+            countersChanged = true;
+        }
+        for (ChangeEvent event : events) {
+            if (event instanceof ChangeEvent.BookChanged) {
+                ChangeEvent.BookChanged change = (ChangeEvent.BookChanged) event;
+                booksTableModel.applyChange(change);
+                countersChanged |= change.isAll() || change.getKind() != ChangeEvent.Kind.UPDATED;
+            } else if (event instanceof ChangeEvent.LoanEvent) {
+                ChangeEvent.LoanEvent loanEvent = (ChangeEvent.LoanEvent) event;
+                if (loansReloaded) {
+                    booksTableModel.refreshBook(loanEvent.getBookId());
+                } else {
+                    refreshLoanRows(loanEvent.getLoanId(), loanEvent.getBookId());
+                }
+                countersChanged = true;
+            } else if (event instanceof ChangeEvent.ReaderChanged) {
+                ChangeEvent.ReaderChanged change = (ChangeEvent.ReaderChanged) event;
+                if (change.isAll()) {
+                    readersTab.invalidate();
+                } else if (readersTab.isLoaded()) {
+                    int readerId = change.getReaderId();
+                    loader.load("reader:" + readerId, () -> dbManager.getReaderById(readerId), readersTableModel::upsert);
+                }
+                countersChanged |= change.isAll() || change.getKind() == ChangeEvent.Kind.CREATED;
+            } else if (event instanceof ChangeEvent.UserChanged) {
+                usersChanged = true;
+            }
+        }
+        if (usersChanged) {
+            usersTab.invalidate();
+        }
+        if (countersChanged) {
+            reportsTab.invalidate();
+        }
     }
 
     private void initializeComponents() {
@@ -49,55 +162,43 @@ public class AdminWindow extends JFrame {
         UITheme.applySberTheme(this);
 
         // Таблица книг
-        String[] bookColumns = {"ID", "Название", "Автор", "Год", "Доступно", "Всего"};
-        booksTableModel = new DefaultTableModel(bookColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        booksTableModel = new PagedBookTableModel(dbManager, loader);
+        booksTableModel.addTableModelListener(e -> recordFirstData());
         booksTable = new JTable(booksTableModel);
         UITheme.styleTable(booksTable);
 
         // Таблица читателей
-        String[] readerColumns = {"ID", "ФИО", "Номер билета", "Телефон", "Email", "Статус"};
-        readersTableModel = new DefaultTableModel(readerColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        readersTableModel = new ReaderTableModel();
         readersTable = new JTable(readersTableModel);
         UITheme.styleTable(readersTable);
 
         // Таблица выдач
-        String[] loanColumns = {"ID", "Книга", "Читатель", "Дата выдачи", "Срок возврата", "Статус"};
-        loansTableModel = new DefaultTableModel(loanColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        loansTableModel = new LoanTableModel(true);
         loansTable = new JTable(loansTableModel);
         UITheme.styleTable(loansTable);
 
         // Таблица пользователей
-        String[] userColumns = {"Логин", "Пароль", "Роль"};
-        usersTableModel = new DefaultTableModel(userColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        usersTableModel = new ColumnarTableModel<>(List.of(
+            ColumnarTableModel.Column.ofString("Логин", UserManager.User::getUsername),
+            ColumnarTableModel.Column.ofCodedString("Пароль", user -> "****"), // Не показываем пароль
+            ColumnarTableModel.Column.ofCodedString("Роль", UserManager.User::getRole)
+        ), false);
         usersTable = new JTable(usersTableModel);
         UITheme.styleTable(usersTable);
 
         searchField = new JTextField(20);
         UITheme.styleTextField(searchField);
+        liveSearch = SearchDebouncer.install(searchField, booksTableModel::search);
     }
 
     private void setupLayout() {
-        JPanel mainPanel = new JPanel(new BorderLayout());
+        JPanel mainPanel = new JPanel(new BorderLayout()) {
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                recordFirstFrame();
+            }
+        };
         mainPanel.setBackground(UITheme.BACKGROUND_LIGHT);
         mainPanel.setBorder(new javax.swing.border.EmptyBorder(20, 20, 20, 20));
 
@@ -111,25 +212,13 @@ public class AdminWindow extends JFrame {
         tabbedPane.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         tabbedPane.setBackground(UITheme.BACKGROUND_LIGHT);
 
-        // Вкладка "Каталог книг"
-        JPanel catalogPanel = createCatalogPanel();
-        tabbedPane.addTab("Каталог книг", catalogPanel);
-
-        // Вкладка "Читатели"
-        JPanel readersPanel = createReadersPanel();
-        tabbedPane.addTab("Читатели", readersPanel);
-
-        // Вкладка "Выдачи"
-        JPanel loansPanel = createLoansPanel();
-        tabbedPane.addTab("Выдачи", loansPanel);
-
-        // Вкладка "Пользователи"
-        JPanel usersPanel = createUsersPanel();
-        tabbedPane.addTab("Пользователи", usersPanel);
-
-        // Вкладка "Отчеты"
-        JPanel reportsPanel = createReportsPanel();
-        tabbedPane.addTab("Отчеты", reportsPanel);
+        // Содержимое и данные вкладок — при первом выборе
+        LazyTabs tabs = new LazyTabs(tabbedPane);
+        tabs.add("Каталог книг", this::createCatalogPanel, this::loadBooks);
+        readersTab = tabs.add("Читатели", this::createReadersPanel, this::loadReaders);
+        loansTab = tabs.add("Выдачи", this::createLoansPanel, this::loadLoans);
+        usersTab = tabs.add("Пользователи", this::createUsersPanel, this::loadUsers);
+        reportsTab = tabs.add("Отчеты", this::createReportsPanel, this::loadStatistics);
 
         // Панель с кнопкой выхода
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -140,11 +229,18 @@ public class AdminWindow extends JFrame {
         UITheme.styleButton(logoutButton);
         logoutButton.setBackground(UITheme.ERROR_COLOR);
         logoutButton.addActionListener(e -> {
+            userManager.logout(username);
             dispose();
             new LoginWindow().setVisible(true);
         });
         topPanel.add(logoutButton, BorderLayout.EAST);
 
+        // Индикатор фоновой загрузки данных
+        JPanel indicatorPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 20, 0));
+        indicatorPanel.setOpaque(false);
+        indicatorPanel.add(loader.createLoadingIndicator());
+        topPanel.add(indicatorPanel, BorderLayout.CENTER);
+
         mainPanel.add(topPanel, BorderLayout.NORTH);
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
 
@@ -180,6 +276,13 @@ public class AdminWindow extends JFrame {
         deleteBookButton.addActionListener(e -> deleteBook());
         buttonPanel.add(deleteBookButton);
 
+        JButton importBooksButton = new JButton("Импорт CSV");
+        UITheme.styleButton(importBooksButton);
+        importBooksButton.setBackground(UITheme.TEXT_SECONDARY);
+        importBooksButton.setOpaque(true);
+        importBooksButton.addActionListener(e -> importCsv(true));
+        buttonPanel.add(importBooksButton);
+
         // Панель поиска
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
         searchPanel.setBackground(UITheme.BACKGROUND_LIGHT);
@@ -244,6 +347,13 @@ public class AdminWindow extends JFrame {
         refreshButton.addActionListener(e -> loadReaders());
         buttonPanel.add(refreshButton);
 
+        JButton importReadersButton = new JButton("Импорт CSV");
+        UITheme.styleButton(importReadersButton);
+        importReadersButton.setBackground(UITheme.TEXT_SECONDARY);
+        importReadersButton.setOpaque(true);
+        importReadersButton.addActionListener(e -> importCsv(false));
+        buttonPanel.add(importReadersButton);
+
         // Таблица читателей
         JScrollPane scrollPane = new JScrollPane(readersTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(UITheme.BORDER_COLOR));
@@ -283,6 +393,14 @@ public class AdminWindow extends JFrame {
         refreshButton.addActionListener(e -> loadLoans());
         buttonPanel.add(refreshButton);
 
+        // Давно возвращенные выдачи лежат в архиве и читаются только по запросу
+        showArchivedLoans = new JCheckBox("Показать архив");
+        showArchivedLoans.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        showArchivedLoans.setForeground(UITheme.TEXT_PRIMARY);
+        showArchivedLoans.setBackground(UITheme.BACKGROUND_LIGHT);
+        showArchivedLoans.addActionListener(e -> loadLoans());
+        buttonPanel.add(showArchivedLoans);
+
         // Таблица выдач
         JScrollPane scrollPane = new JScrollPane(loansTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(UITheme.BORDER_COLOR));
@@ -344,21 +462,10 @@ public class AdminWindow extends JFrame {
         panel.setBackground(UITheme.BACKGROUND_LIGHT);
         panel.setBorder(new javax.swing.border.EmptyBorder(20, 20, 20, 20));
 
-        // Панель со статистикой
-        JPanel statsPanel = new JPanel(new GridLayout(2, 2, 20, 20));
+        // Панель со статистикой: карточки заполняются после загрузки
+        statsPanel = new JPanel(new GridLayout(2, 2, 20, 20));
         statsPanel.setBackground(UITheme.BACKGROUND_LIGHT);
 
-        // Карточки статистики
-        JPanel totalBooksCard = createStatCard("Всего книг", String.valueOf(dbManager.getTotalBooks()), UITheme.PRIMARY_GREEN);
-        JPanel totalReadersCard = createStatCard("Всего читателей", String.valueOf(dbManager.getTotalReaders()), UITheme.PRIMARY_GREEN_LIGHT);
-        JPanel activeLoansCard = createStatCard("Активных выдач", String.valueOf(dbManager.getActiveLoans()), UITheme.SUCCESS_COLOR);
-        JPanel overdueLoansCard = createStatCard("Просроченных выдач", String.valueOf(dbManager.getOverdueLoans()), UITheme.ERROR_COLOR);
-
-        statsPanel.add(totalBooksCard);
-        statsPanel.add(totalReadersCard);
-        statsPanel.add(activeLoansCard);
-        statsPanel.add(overdueLoansCard);
-
         // Кнопка обновления
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         buttonPanel.setBackground(UITheme.BACKGROUND_LIGHT);
@@ -366,15 +473,7 @@ public class AdminWindow extends JFrame {
         JButton refreshButton = new JButton("Обновить статистику");
         UITheme.styleButton(refreshButton);
         refreshButton.setOpaque(true);
-        refreshButton.addActionListener(e -> {
-            statsPanel.removeAll();
-            statsPanel.add(createStatCard("Всего книг", String.valueOf(dbManager.getTotalBooks()), UITheme.PRIMARY_GREEN));
-            statsPanel.add(createStatCard("Всего читателей", String.valueOf(dbManager.getTotalReaders()), UITheme.PRIMARY_GREEN_LIGHT));
-            statsPanel.add(createStatCard("Активных выдач", String.valueOf(dbManager.getActiveLoans()), UITheme.SUCCESS_COLOR));
-            statsPanel.add(createStatCard("Просроченных выдач", String.valueOf(dbManager.getOverdueLoans()), UITheme.ERROR_COLOR));
-            statsPanel.revalidate();
-            statsPanel.repaint();
-        });
+        refreshButton.addActionListener(e -> loadStatistics());
         buttonPanel.add(refreshButton);
 
         panel.add(statsPanel, BorderLayout.CENTER);
@@ -383,6 +482,18 @@ public class AdminWindow extends JFrame {
         return panel;
     }
 
+    private void loadStatistics() {
+        loader.load("statistics", dbManager::getDashboardStats, stats -> {
+            statsPanel.removeAll();
+            statsPanel.add(createStatCard("Всего книг", String.valueOf(stats.getTotalBooks()), UITheme.PRIMARY_GREEN));
+            statsPanel.add(createStatCard("Всего читателей", String.valueOf(stats.getTotalReaders()), UITheme.PRIMARY_GREEN_LIGHT));
+            statsPanel.add(createStatCard("Активных выдач", String.valueOf(stats.getActiveLoans()), UITheme.SUCCESS_COLOR));
+            statsPanel.add(createStatCard("Просроченных выдач", String.valueOf(stats.getOverdueLoans()), UITheme.ERROR_COLOR));
+            statsPanel.revalidate();
+            statsPanel.repaint();
+        });
+    }
+
     private JPanel createStatCard(String title, String value, Color color) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBackground(UITheme.BACKGROUND_WHITE);
@@ -406,34 +517,12 @@ public class AdminWindow extends JFrame {
     }
 
     private void loadBooks() {
-        booksTableModel.setRowCount(0);
-        List<Book> books = dbManager.getAllBooks();
-        for (Book book : books) {
-            booksTableModel.addRow(new Object[]{
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getYear(),
-                book.getCopiesAvailable(),
-                book.getCopiesTotal()
-            });
-        }
+        liveSearch.cancel();
+        booksTableModel.showAll();
     }
 
     private void performSearch() {
-        String query = searchField.getText().trim();
-        booksTableModel.setRowCount(0);
-        List<Book> books = dbManager.searchBooks(query);
-        for (Book book : books) {
-            booksTableModel.addRow(new Object[]{
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getYear(),
-                book.getCopiesAvailable(),
-                book.getCopiesTotal()
-            });
-        }
+        liveSearch.submitNow();
     }
 
     private void showAddBookDialog() {
@@ -508,7 +597,6 @@ public class AdminWindow extends JFrame {
                 Book book = new Book(title, author, year, copies);
                 dbManager.addBook(book);
                 UITheme.showSuccessMessage(dialog, "Книга добавлена");
-                loadBooks();
                 dialog.dispose();
             } catch (NumberFormatException ex) {
                 UITheme.showErrorMessage(dialog, "Неверный формат числа");
@@ -527,8 +615,9 @@ public class AdminWindow extends JFrame {
             return;
         }
 
-        int bookId = (Integer) booksTableModel.getValueAt(selectedRow, 0);
-        Book book = dbManager.getBookById(bookId);
+        Book selected = booksTableModel.getBookAt(selectedRow);
+        if (selected == null) return;
+        Book book = dbManager.getBookById(selected.getId());
         if (book == null) return;
 
         JDialog dialog = new JDialog(this, "Редактировать книгу", true);
@@ -606,7 +695,6 @@ public class AdminWindow extends JFrame {
 
                 dbManager.updateBook(book);
                 UITheme.showSuccessMessage(dialog, "Книга обновлена");
-                loadBooks();
                 dialog.dispose();
             } catch (NumberFormatException ex) {
                 UITheme.showErrorMessage(dialog, "Неверный формат числа");
@@ -625,28 +713,88 @@ public class AdminWindow extends JFrame {
             return;
         }
 
+        Book selected = booksTableModel.getBookAt(selectedRow);
+        if (selected == null) return;
+
         int result = UITheme.showConfirmDialog(this, "Вы уверены, что хотите удалить эту книгу?");
         if (result == JOptionPane.YES_OPTION) {
-            int bookId = (Integer) booksTableModel.getValueAt(selectedRow, 0);
-            dbManager.deleteBook(bookId);
+            dbManager.deleteBook(selected.getId());
             UITheme.showSuccessMessage(this, "Книга удалена");
-            loadBooks();
         }
     }
 
-    private void loadReaders() {
-        readersTableModel.setRowCount(0);
-        List<Reader> readers = dbManager.getAllReaders();
-        for (Reader reader : readers) {
-            readersTableModel.addRow(new Object[]{
-                reader.getId(),
-                reader.getFullName(),
-                reader.getCardNumber(),
-                reader.getPhone(),
-                reader.getEmail(),
-                reader.getStatus()
-            });
+    /**
+     * Импорт книг или читателей из CSV в фоновом потоке с отображением прогресса.
+     */
+    private void importCsv(boolean books) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path file = chooser.getSelectedFile().toPath();
+
+        JDialog progressDialog = new JDialog(this, "Импорт", false);
+        JLabel progressLabel = new JLabel("Импорт " + file.getFileName() + "...");
+        UITheme.styleLabel(progressLabel);
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        JPanel progressPanel = new JPanel(new BorderLayout(10, 10));
+        progressPanel.setBackground(UITheme.BACKGROUND_LIGHT);
+        progressPanel.setBorder(new javax.swing.border.EmptyBorder(20, 20, 20, 20));
+        progressPanel.add(progressLabel, BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressDialog.add(progressPanel);
+        progressDialog.setSize(400, 130);
+        progressDialog.setLocationRelativeTo(this);
+        progressDialog.setVisible(true);
+
+        new SwingWorker<CatalogImporter.Report, Long>() {
+            @Override
+            protected CatalogImporter.Report doInBackground() throws Exception {
+                CatalogImporter.ProgressListener listener = (processed, imported) -> publish(processed);
+                try (BufferedReader csv = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    return books ? dbManager.importBooks(csv, listener) : dbManager.importReaders(csv, listener);
+                }
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                progressLabel.setText("Обработано строк: " + chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                CatalogImporter.Report report = null;
+                try {
+                    report = get();
+                } catch (Exception ex) {
+                    System.err.println("Ошибка импорта: " + ex.getMessage());
+                }
+                if (report == null) {
+                    UITheme.showErrorMessage(AdminWindow.this, "Не удалось импортировать файл");
+                    return;
+                }
+                StringBuilder message = new StringBuilder(report.toString());
+                for (String error : report.getErrors()) {
+                    if (message.length() > 2000) {
+                        break;
+                    }
+                    message.append('\n').append(error);
+                }
+                // Таблицы обновит событие импорта в onDataChanged
+                UITheme.showSuccessMessage(AdminWindow.this, message.toString());
+            }
+        }.execute();
+    }
+
+    private void loadReaders() {
+        loader.load("readers", dbManager::getAllReaders, this::showReaders);
+    }
+
+    private void showReaders(List<Reader> readers) {
+        readersTableModel.setRows(readers);
     }
 
     private void showAddReaderDialog() {
@@ -738,7 +886,6 @@ public class AdminWindow extends JFrame {
             );
             dbManager.addReader(reader);
             UITheme.showSuccessMessage(dialog, "Читатель зарегистрирован");
-            loadReaders();
             dialog.dispose();
         });
         panel.add(saveButton, gbc);
@@ -754,7 +901,7 @@ public class AdminWindow extends JFrame {
             return;
         }
 
-        int readerId = (Integer) readersTableModel.getValueAt(selectedRow, 0);
+        int readerId = readersTableModel.getInt(selectedRow, 0);
         Reader reader = dbManager.getReaderById(readerId);
         if (reader == null) return;
 
@@ -843,7 +990,6 @@ public class AdminWindow extends JFrame {
 
             dbManager.updateReader(reader);
             UITheme.showSuccessMessage(dialog, "Читатель обновлен");
-            loadReaders();
             dialog.dispose();
         });
         panel.add(saveButton, gbc);
@@ -853,30 +999,22 @@ public class AdminWindow extends JFrame {
     }
 
     private void loadLoans() {
-        loansTableModel.setRowCount(0);
-        List<Loan> loans = dbManager.getAllLoans();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-        
-        for (Loan loan : loans) {
-            Book book = dbManager.getBookById(loan.getBookId());
-            Reader reader = dbManager.getReaderById(loan.getReaderId());
-            
-            String bookTitle = book != null ? book.getTitle() : "Неизвестно";
-            String readerName = reader != null ? reader.getFullName() : "Неизвестно";
-            String status = loan.getStatus();
-            if (loan.isOverdue()) {
-                status = "ПРОСРОЧЕНО";
-            }
-            
-            loansTableModel.addRow(new Object[]{
-                loan.getId(),
-                bookTitle,
-                readerName,
-                loan.getIssueDate().format(formatter),
-                loan.getDueDate().format(formatter),
-                status
-            });
+        boolean includeArchived = showArchivedLoans.isSelected();
+        loader.load("loans", () -> dbManager.getAllLoanViews(includeArchived), this::showLoans);
+    }
+
+    private void showLoans(List<LoanView> loans) {
+        loansTableModel.setRows(loans);
+    }
+
+    /**
+     * После выдачи, возврата или продления перечитывает только эту выдачу и ее книгу.
+     */
+    private void refreshLoanRows(int loanId, int bookId) {
+        if (loansTab.isLoaded()) {
+            loader.load("loan:" + loanId, () -> dbManager.getLoanViewById(loanId), loansTableModel::upsert);
         }
+        booksTableModel.refreshBook(bookId);
     }
 
     private void showIssueBookDialog() {
@@ -933,17 +1071,6 @@ public class AdminWindow extends JFrame {
                 String cardNumber = readerCardField.getText().trim();
                 int days = Integer.parseInt(daysField.getText().trim());
 
-                Book book = dbManager.getBookById(bookId);
-                if (book == null) {
-                    UITheme.showErrorMessage(dialog, "Книга не найдена");
-                    return;
-                }
-
-                if (!book.isAvailable()) {
-                    UITheme.showErrorMessage(dialog, "Нет доступных экземпляров этой книги");
-                    return;
-                }
-
                 Reader reader = dbManager.getReaderByCardNumber(cardNumber);
                 if (reader == null) {
                     UITheme.showErrorMessage(dialog, "Читатель не найден");
@@ -955,11 +1082,22 @@ public class AdminWindow extends JFrame {
                     return;
                 }
 
+                // Наличие экземпляра проверяется атомарно в той же транзакции, что и выдача
                 Loan loan = new Loan(bookId, reader.getId(), LocalDate.now().plusDays(days));
-                dbManager.addLoan(loan);
+                switch (dbManager.addLoan(loan)) {
+                    case SUCCESS:
+                        break;
+                    case BOOK_NOT_FOUND:
+                        UITheme.showErrorMessage(dialog, "Книга не найдена");
+                        return;
+                    case NO_COPIES_AVAILABLE:
+                        UITheme.showErrorMessage(dialog, "Нет доступных экземпляров этой книги");
+                        return;
+                    default:
+                        UITheme.showErrorMessage(dialog, "Не удалось оформить выдачу");
+                        return;
+                }
                 UITheme.showSuccessMessage(dialog, "Книга выдана");
-                loadLoans();
-                loadBooks();
                 dialog.dispose();
             } catch (NumberFormatException ex) {
                 UITheme.showErrorMessage(dialog, "Неверный формат числа");
@@ -978,35 +1116,31 @@ public class AdminWindow extends JFrame {
             return;
         }
 
-        int loanId = (Integer) loansTableModel.getValueAt(selectedRow, 0);
-        Loan loan = dbManager.getLoanById(loanId);
+        LoanResult result = dbManager.returnLoan(loansTableModel.getInt(selectedRow, 0));
 
-        if (loan == null || !loan.isActive()) {
+        if (result == LoanResult.LOAN_NOT_ACTIVE) {
             UITheme.showErrorMessage(this, "Эта книга уже возвращена");
             return;
         }
+        if (!result.isSuccess()) {
+            UITheme.showErrorMessage(this, "Не удалось оформить возврат");
+            return;
+        }
 
-        dbManager.returnLoan(loanId);
         UITheme.showSuccessMessage(this, "Книга возвращена");
-        loadLoans();
-        loadBooks();
     }
 
     private void loadUsers() {
-        usersTableModel.setRowCount(0);
-        List<UserManager.User> users = userManager.getAllUsers();
-        for (UserManager.User user : users) {
-            usersTableModel.addRow(new Object[]{
-                user.getUsername(),
-                "****", // Не показываем пароль
-                user.getRole()
-            });
-        }
+        loader.load("users", userManager::getAllUsers, this::showUsers);
+    }
+
+    private void showUsers(List<UserManager.User> users) {
+        usersTableModel.setRows(users);
     }
 
     private void showAddUserDialog() {
         JDialog dialog = new JDialog(this, "Добавить пользователя", true);
-        dialog.setSize(550, 350);
+        dialog.setSize(550, 400);
         dialog.setLocationRelativeTo(this);
         dialog.getContentPane().setBackground(UITheme.BACKGROUND_LIGHT);
 
@@ -1021,10 +1155,12 @@ public class AdminWindow extends JFrame {
         JTextField usernameField = new JTextField(20);
         JPasswordField passwordField = new JPasswordField(20);
         JComboBox<String> roleCombo = new JComboBox<>(new String[]{"ADMIN", "READER"});
+        JTextField cardField = new JTextField(20);
 
         UITheme.styleTextField(usernameField);
         UITheme.stylePasswordField(passwordField);
         UITheme.styleComboBox(roleCombo);
+        UITheme.styleTextField(cardField);
 
         gbc.gridx = 0; gbc.gridy = 0;
         panel.add(new JLabel("Логин:") {{
@@ -1048,6 +1184,13 @@ public class AdminWindow extends JFrame {
         panel.add(roleCombo, gbc);
 
         gbc.gridx = 0; gbc.gridy = 3;
+        panel.add(new JLabel("Номер билета (для READER):") {{
+            UITheme.styleLabel(this);
+        }}, gbc);
+        gbc.gridx = 1;
+        panel.add(cardField, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 4;
         gbc.gridwidth = 2;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         JButton saveButton = new JButton("Добавить");
@@ -1067,9 +1210,21 @@ public class AdminWindow extends JFrame {
                 return;
             }
 
+            String cardNumber = cardField.getText().trim();
+            Reader linkedReader = null;
+            if ("READER".equals(role) && !cardNumber.isEmpty()) {
+                linkedReader = dbManager.getReaderByCardNumber(cardNumber);
+                if (linkedReader == null) {
+                    UITheme.showErrorMessage(dialog, "Читатель с таким номером билета не найден");
+                    return;
+                }
+            }
+
             userManager.addUser(username, password, role);
+            if (linkedReader != null) {
+                userManager.linkReader(username, linkedReader.getId());
+            }
             UITheme.showSuccessMessage(dialog, "Пользователь добавлен");
-            loadUsers();
             dialog.dispose();
         });
         panel.add(saveButton, gbc);
@@ -1085,8 +1240,8 @@ public class AdminWindow extends JFrame {
             return;
         }
 
-        String username = (String) usersTableModel.getValueAt(selectedRow, 0);
-        String role = (String) usersTableModel.getValueAt(selectedRow, 2);
+        String username = usersTableModel.getString(selectedRow, 0);
+        String role = usersTableModel.getString(selectedRow, 2);
 
         JDialog dialog = new JDialog(this, "Редактировать пользователя", true);
         dialog.setSize(550, 350);
@@ -1145,7 +1300,6 @@ public class AdminWindow extends JFrame {
 
             userManager.updateUser(username, newPassword, newRole);
             UITheme.showSuccessMessage(dialog, "Пользователь обновлен");
-            loadUsers();
             dialog.dispose();
         });
         panel.add(saveButton, gbc);
@@ -1161,7 +1315,7 @@ public class AdminWindow extends JFrame {
             return;
         }
 
-        String username = (String) usersTableModel.getValueAt(selectedRow, 0);
+        String username = usersTableModel.getString(selectedRow, 0);
         
         if (username.equals(this.username)) {
             UITheme.showErrorMessage(this, "Нельзя удалить текущего пользователя");
@@ -1172,7 +1326,6 @@ public class AdminWindow extends JFrame {
         if (result == JOptionPane.YES_OPTION) {
             userManager.deleteUser(username);
             UITheme.showSuccessMessage(this, "Пользователь удален");
-            loadUsers();
         }
     }
 }
@@ -0,0 +1,166 @@
+package com.library.gui;
+
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import java.awt.Dimension;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Загрузка данных для окон вне потока EDT.
+ *
+ * Запрос выполняется в фоновом пуле, результат передается в EDT. Запросы идентифицируются
+ * ключом: новый запрос с тем же ключом вытесняет предыдущий — если тот еще не начался,
+ * он не выполняется вовсе, а если уже выполняется, его результат отбрасывается.
+ * JDBC-запрос при этом не прерывается: прерывание потока во время работы драйвера SQLite
+ * может закрыть соединение. Долгий запрос может сам проверять, не вытеснен ли он, и
+ * прекратить чтение (см. {@link #loadCancellable}). Ключ помнится только до завершения
+ * последнего запроса с ним, поэтому ключи вида "loan:" + id не накапливаются.
+ */
+public class AsyncLoader {
+    /**
+     * Запрос, получающий признак «вытеснен более новым запросом с тем же ключом».
+     */
+    public interface CancellableQuery<T> {
+        T call(BooleanSupplier superseded) throws Exception;
+    }
+
+    private static final ExecutorService SHARED_POOL = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "library-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Executor background;
+    private final Executor ui;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> latest = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final List<Consumer<Boolean>> busyListeners = new CopyOnWriteArrayList<>();
+
+    public AsyncLoader() {
+        this(SHARED_POOL, SwingUtilities::invokeLater);
+    }
+
+    AsyncLoader(Executor background, Executor ui) {
+        this.background = background;
+        this.ui = ui;
+    }
+
+    /**
+     * Загрузчик, выполняющий запрос и обработку результата сразу в вызывающем потоке (для тестов).
+     */
+    static AsyncLoader direct() {
+        return new AsyncLoader(Runnable::run, Runnable::run);
+    }
+
+    /**
+     * Выполняет query в фоне и передает результат в onLoaded (в EDT), если за это время
+     * не пришел более новый запрос с тем же ключом.
+     */
+    public <T> void load(String key, Callable<T> query, Consumer<T> onLoaded) {
+        loadCancellable(key, superseded -> query.call(), onLoaded);
+    }
+
+    /**
+     * То же, что load, но запрос может досрочно завершиться, когда superseded вернет true;
+     * результат вытесненного запроса в любом случае не передается в onLoaded.
+     */
+    public <T> void loadCancellable(String key, CancellableQuery<T> query, Consumer<T> onLoaded) {
+        long id = sequence.incrementAndGet();
+        latest.put(key, id);
+        if (pending.getAndIncrement() == 0) {
+            notifyBusy(true);
+        }
+        background.execute(() -> {
+            T result = null;
+            Exception failure = null;
+            if (isCurrent(key, id)) {
+                try {
+                    result = query.call(() -> !isCurrent(key, id));
+                } catch (Exception e) {
+                    failure = e;
+                }
+            }
+            T loaded = result;
+            Exception error = failure;
+            ui.execute(() -> {
+                try {
+                    if (error != null) {
+                        System.err.println("Ошибка загрузки данных (" + key + "): " + error.getMessage());
+                        error.printStackTrace();
+                    } else if (isCurrent(key, id)) {
+                        onLoaded.accept(loaded);
+                    }
+                } finally {
+                    // Завершился последний запрос с этим ключом — ключ больше не нужен
+                    latest.remove(key, id);
+                    if (pending.decrementAndGet() == 0) {
+                        notifyBusy(false);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Есть ли незавершенные запросы.
+     */
+    public boolean isBusy() {
+        return pending.get() > 0;
+    }
+
+    /**
+     * Слушатель вызывается в EDT при переходе между состояниями «есть загрузки» / «нет загрузок».
+     */
+    public void addBusyListener(Consumer<Boolean> listener) {
+        busyListeners.add(listener);
+    }
+
+    /**
+     * Индикатор загрузки, видимый, пока у этого загрузчика есть незавершенные запросы.
+     */
+    public JProgressBar createLoadingIndicator() {
+        JProgressBar indicator = new JProgressBar();
+        indicator.setName("loadingIndicator");
+        indicator.setIndeterminate(true);
+        indicator.setPreferredSize(new Dimension(120, 12));
+        indicator.setVisible(isBusy());
+        addBusyListener(indicator::setVisible);
+        return indicator;
+    }
+
+    private boolean isCurrent(String key, long id) {
+        Long current = latest.get(key);
+        return current != null && current == id;
+    }
+
+    /**
+     * Сколько ключей с незавершенными запросами сейчас отслеживается.
+     */
+    int getTrackedKeyCount() {
+        return latest.size();
+    }
+
+    private void notifyBusy(boolean busy) {
+        ui.execute(() -> {
+            // Состояние могло смениться, пока уведомление ждало очереди EDT
+            if (busy == isBusy()) {
+                for (Consumer<Boolean> listener : busyListeners) {
+                    listener.accept(busy);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,465 @@
+package com.library.gui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Модель таблицы с хранением по столбцам: объекты строк не хранятся, каждый столбец — свой массив.
+ * Числовой столбец — массив int. Строковый столбец с немногими различными значениями (статус,
+ * дата), объявленный через {@link Column#ofCodedString}, — массив int с номерами в словаре столбца:
+ * каждое значение хранится один раз, а ячейка всегда отдает один и тот же экземпляр String.
+ * Остальные строковые столбцы (ФИО, телефон, название) почти уникальны, и словарь для них
+ * стоил бы дороже самих строк, поэтому они хранятся в обычном массиве String.
+ * Словарь считает ссылки на значения: значение, которое больше не встречается ни в одной строке
+ * после замены или удаления, освобождается, и его номер переиспользуется.
+ *
+ * Кроме полной загрузки поддерживает добавление, замену строки и точечные изменения по ключу
+ * (вставка, обновление, удаление) с событиями только для этой строки. Ключ — числовой столбец 0
+ * (ID); номер строки по ключу берется из индекса ключ -> позиция, который обновляется при вставке
+ * и удалении. Массивы хранят строки в порядке добавления; для списков «сначала новые» строка
+ * таблицы row лежит в позиции size - 1 - row, поэтому новая строка сверху — это запись в конец
+ * массивов и одна запись в индекс, без сдвига и переиндексации остальных строк.
+ *
+ * Работает в EDT, как и JTable.
+ */
+public class ColumnarTableModel<T> extends AbstractTableModel {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NULL_STRING = -1;
+
+    /**
+     * Столбец таблицы: имя и значение ячейки для объекта строки.
+     */
+    public static final class Column<T> {
+        private final String name;
+        private final ToIntFunction<? super T> intValue;
+        private final Function<? super T, String> stringValue;
+        private final boolean coded;
+
+        private Column(String name, ToIntFunction<? super T> intValue, Function<? super T, String> stringValue,
+                       boolean coded) {
+            this.name = name;
+            this.intValue = intValue;
+            this.stringValue = stringValue;
+            this.coded = coded;
+        }
+
+        public static <T> Column<T> ofInt(String name, ToIntFunction<? super T> value) {
+            return new Column<>(name, value, null, false);
+        }
+
+        /**
+         * Строковый столбец с почти уникальными значениями: хранится как массив String.
+         */
+        public static <T> Column<T> ofString(String name, Function<? super T, String> value) {
+            return new Column<>(name, null, value, false);
+        }
+
+        /**
+         * Строковый столбец с немногими различными значениями: хранится номерами в словаре.
+         */
+        public static <T> Column<T> ofCodedString(String name, Function<? super T, String> value) {
+            return new Column<>(name, null, value, true);
+        }
+
+        boolean isInt() {
+            return intValue != null;
+        }
+    }
+
+    /**
+     * Словарь строкового столбца: номер -> значение и значение -> номер, со счетчиком ссылок.
+     */
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private int[] references = new int[INITIAL_CAPACITY];
+        private final List<Integer> freeCodes = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (freeCodes.isEmpty()) {
+                    code = values.size();
+                    values.add(value);
+                    if (code == references.length) {
+                        references = Arrays.copyOf(references, code + (code >> 1));
+                    }
+                } else {
+                    code = freeCodes.remove(freeCodes.size() - 1);
+                    values.set(code, value);
+                }
+                codes.put(value, code);
+            }
+            references[code]++;
+            return code;
+        }
+
+        /**
+         * Строка с этим номером больше не ссылается на значение.
+         */
+        void release(int code) {
+            if (code == NULL_STRING) {
+                return;
+            }
+            if (--references[code] == 0) {
+                codes.remove(values.get(code));
+                values.set(code, null);
+                freeCodes.add(code);
+            }
+        }
+
+        String decode(int code) {
+            return code == NULL_STRING ? null : values.get(code);
+        }
+
+        void clear() {
+            values.clear();
+            codes.clear();
+            freeCodes.clear();
+            references = new int[INITIAL_CAPACITY];
+        }
+    }
+
+    private final List<Column<T>> columns;
+    private final boolean newRowsFirst;
+    // Для каждого столбца заполнен ровно один массив: ints (числа и номера в словаре) или strings
+    private final int[][] ints;
+    private final String[][] strings;
+    private final Dictionary[] dictionaries;
+    // Ключ -> позиция в массивах (не номер строки таблицы, см. rowOf)
+    private final Map<Integer, Integer> slotByKey = new HashMap<>();
+    private int size;
+
+    /**
+     * @param newRowsFirst новые строки upsert добавляются в начало (для списков «сначала новые»), иначе в конец
+     */
+    public ColumnarTableModel(List<Column<T>> columns, boolean newRowsFirst) {
+        this.columns = List.copyOf(columns);
+        this.newRowsFirst = newRowsFirst;
+        this.ints = new int[this.columns.size()][];
+        this.strings = new String[this.columns.size()][];
+        this.dictionaries = new Dictionary[this.columns.size()];
+        for (int c = 0; c < this.columns.size(); c++) {
+            Column<T> column = this.columns.get(c);
+            if (column.isInt() || column.coded) {
+                ints[c] = new int[INITIAL_CAPACITY];
+            } else {
+                strings[c] = new String[INITIAL_CAPACITY];
+            }
+            if (column.coded) {
+                dictionaries[c] = new Dictionary();
+            }
+        }
+    }
+
+    /**
+     * Полная загрузка: заменяет все строки.
+     */
+    public void setRows(List<? extends T> rows) {
+        for (Dictionary dictionary : dictionaries) {
+            if (dictionary != null) {
+                dictionary.clear();
+            }
+        }
+        for (String[] column : strings) {
+            if (column != null) {
+                Arrays.fill(column, 0, size, null);
+            }
+        }
+        slotByKey.clear();
+        ensureCapacity(rows.size());
+        size = rows.size();
+        for (int row = 0; row < size; row++) {
+            int slot = slotOf(row);
+            write(slot, rows.get(row));
+            indexSlot(slot, true);
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Добавляет строку в конец.
+     */
+    public void append(T row) {
+        ensureCapacity(size + 1);
+        if (newRowsFirst) {
+            // Низ таблицы «сначала новые» — начало массивов: единственный случай сдвига при вставке
+            shift(0, 1);
+            size++;
+            write(0, row);
+            reindexFrom(0);
+        } else {
+            write(size, row);
+            indexSlot(size, true);
+            size++;
+        }
+        fireTableRowsInserted(size - 1, size - 1);
+    }
+
+    /**
+     * Заменяет значения строки с номером index.
+     */
+    public void replaceRow(int index, T row) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Строка " + index + " при " + size + " строках");
+        }
+        int slot = slotOf(index);
+        unindexSlot(slot);
+        // Сначала кодируются новые значения: неизменившееся значение не освобождается и не заводится заново
+        int[] previous = codesAt(slot);
+        write(slot, row);
+        release(previous);
+        indexSlot(slot, false);
+        fireTableRowsUpdated(index, index);
+    }
+
+    /**
+     * Обновляет строку с тем же ключом или добавляет новую. null игнорируется
+     * (например, если запись успели удалить до загрузки).
+     */
+    public void upsert(T row) {
+        if (row == null) {
+            return;
+        }
+        int existing = indexOf(keyColumn().intValue.applyAsInt(row));
+        if (existing >= 0) {
+            replaceRow(existing, row);
+        } else if (newRowsFirst) {
+            ensureCapacity(size + 1);
+            write(size, row);
+            indexSlot(size, false);
+            size++;
+            fireTableRowsInserted(0, 0);
+        } else {
+            append(row);
+        }
+    }
+
+    public void remove(int key) {
+        int existing = indexOf(key);
+        if (existing >= 0) {
+            int slot = slotOf(existing);
+            release(codesAt(slot));
+            slotByKey.remove(key);
+            shift(slot + 1, -1);
+            size--;
+            clearSlot(size);
+            reindexFrom(slot);
+            fireTableRowsDeleted(existing, existing);
+        }
+    }
+
+    /**
+     * Номер строки с ключом key или -1.
+     */
+    public int indexOf(int key) {
+        keyColumn();
+        Integer slot = slotByKey.get(key);
+        return slot != null ? rowOf(slot) : -1;
+    }
+
+    /**
+     * Значение числового столбца без упаковки в Integer.
+     */
+    public int getInt(int row, int column) {
+        if (!columns.get(column).isInt()) {
+            throw new IllegalArgumentException("Столбец «" + columns.get(column).name + "» не числовой");
+        }
+        return ints[column][slotOf(checkRow(row))];
+    }
+
+    public String getString(int row, int column) {
+        if (columns.get(column).isInt()) {
+            throw new IllegalArgumentException("Столбец «" + columns.get(column).name + "» не строковый");
+        }
+        return stringAt(slotOf(checkRow(row)), column);
+    }
+
+    /**
+     * Сколько различных значений сейчас в словаре столбца (для столбцов без словаря — 0).
+     */
+    int distinctValues(int column) {
+        return dictionaries[column] != null ? dictionaries[column].codes.size() : 0;
+    }
+
+    private String stringAt(int slot, int column) {
+        return strings[column] != null ? strings[column][slot] : dictionaries[column].decode(ints[column][slot]);
+    }
+
+    /**
+     * Позиция в массивах для строки таблицы row (и обратно — преобразование симметрично).
+     */
+    private int slotOf(int row) {
+        return newRowsFirst ? size - 1 - row : row;
+    }
+
+    private int rowOf(int slot) {
+        return slotOf(slot);
+    }
+
+    private Column<T> keyColumn() {
+        Column<T> key = columns.get(0);
+        if (!key.isInt()) {
+            throw new IllegalStateException("Ключ таблицы (столбец «" + key.name + "») не числовой");
+        }
+        return key;
+    }
+
+    private boolean hasIntKey() {
+        return columns.get(0).isInt();
+    }
+
+    /**
+     * Заносит ключ позиции в индекс. При полной загрузке повторный ключ указывает на первую строку.
+     */
+    private void indexSlot(int slot, boolean keepFirst) {
+        if (!hasIntKey()) {
+            return;
+        }
+        if (keepFirst) {
+            slotByKey.putIfAbsent(ints[0][slot], slot);
+        } else {
+            slotByKey.put(ints[0][slot], slot);
+        }
+    }
+
+    private void unindexSlot(int slot) {
+        if (hasIntKey()) {
+            slotByKey.remove(ints[0][slot], slot);
+        }
+    }
+
+    /**
+     * Позиции начиная с from сдвинулись: обновляет их в индексе.
+     */
+    private void reindexFrom(int from) {
+        if (!hasIntKey()) {
+            return;
+        }
+        int[] keys = ints[0];
+        for (int i = from; i < size; i++) {
+            slotByKey.put(keys[i], i);
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " при " + size + " строках");
+        }
+        return row;
+    }
+
+    private void write(int slot, T item) {
+        for (int c = 0; c < columns.size(); c++) {
+            Column<T> column = columns.get(c);
+            if (column.isInt()) {
+                ints[c][slot] = column.intValue.applyAsInt(item);
+            } else if (column.coded) {
+                ints[c][slot] = dictionaries[c].encode(column.stringValue.apply(item));
+            } else {
+                strings[c][slot] = column.stringValue.apply(item);
+            }
+        }
+    }
+
+    /**
+     * Номера значений строки в словарях (для столбцов без словаря — не используются).
+     */
+    private int[] codesAt(int slot) {
+        int[] codes = new int[dictionaries.length];
+        for (int c = 0; c < dictionaries.length; c++) {
+            if (dictionaries[c] != null) {
+                codes[c] = ints[c][slot];
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Снимает ссылки замененной или удаленной строки на значения словарей.
+     */
+    private void release(int[] codes) {
+        for (int c = 0; c < dictionaries.length; c++) {
+            if (dictionaries[c] != null) {
+                dictionaries[c].release(codes[c]);
+            }
+        }
+    }
+
+    /**
+     * Сдвигает строки с from до конца на delta позиций (1 — вставка перед from, -1 — удаление строки from - 1).
+     */
+    private void shift(int from, int delta) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (ints[c] != null) {
+                System.arraycopy(ints[c], from, ints[c], from + delta, size - from);
+            } else {
+                System.arraycopy(strings[c], from, strings[c], from + delta, size - from);
+            }
+        }
+    }
+
+    private void clearSlot(int slot) {
+        for (String[] column : strings) {
+            if (column != null) {
+                column[slot] = null;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        int current = ints[0] != null ? ints[0].length : strings[0].length;
+        if (capacity <= current) {
+            return;
+        }
+        int grown = Math.max(capacity, current + (current >> 1));
+        for (int c = 0; c < columns.size(); c++) {
+            if (ints[c] != null) {
+                ints[c] = Arrays.copyOf(ints[c], grown);
+            } else {
+                strings[c] = Arrays.copyOf(strings[c], grown);
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column).isInt() ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        // Упаковка только для видимых ячеек при отрисовке; небольшие числа берутся из кэша Integer
+        int slot = slotOf(row);
+        return columns.get(column).isInt() ? Integer.valueOf(ints[column][slot]) : stringAt(slot, column);
+    }
+}
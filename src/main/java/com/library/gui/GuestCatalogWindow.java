@@ -1,11 +1,12 @@
 package com.library.gui;
 
-import com.library.database.DatabaseManager;
-import com.library.model.Book;
+import com.library.database.LibraryStorage;
+import com.library.database.Repositories;
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
 import com.library.util.UITheme;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -13,15 +14,25 @@ import java.util.List;
 
 public class GuestCatalogWindow extends JFrame {
     private JTable booksTable;
-    private DefaultTableModel tableModel;
+    private PagedBookTableModel tableModel;
     private JTextField searchField;
-    private DatabaseManager dbManager;
+    private SearchDebouncer liveSearch;
+    private LibraryStorage dbManager;
+    private final AsyncLoader loader = new AsyncLoader();
+    private final ChangeEventBus.Subscription changes;
 
     public GuestCatalogWindow() {
-        dbManager = DatabaseManager.getInstance();
+        dbManager = Repositories.getInstance();
         initializeComponents();
         setupLayout();
         loadBooks();
+        changes = dbManager.getEventBus().subscribe(this::onDataChanged);
+    }
+
+    @Override
+    public void dispose() {
+        changes.close();
+        super.dispose();
     }
 
     private void initializeComponents() {
@@ -31,13 +42,7 @@ public class GuestCatalogWindow extends JFrame {
         setLocationRelativeTo(null);
         UITheme.applySberTheme(this);
 
-        String[] columnNames = {"ID", "Название", "Автор", "Год", "Доступно", "Всего"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedBookTableModel(dbManager, loader);
         booksTable = new JTable(tableModel);
         booksTable.setName("booksTable");
         UITheme.styleTable(booksTable);
@@ -45,6 +50,7 @@ public class GuestCatalogWindow extends JFrame {
         searchField = new JTextField(20);
         searchField.setName("searchField");
         UITheme.styleTextField(searchField);
+        liveSearch = SearchDebouncer.install(searchField, tableModel::search);
 
         JButton searchButton = new JButton("Поиск");
         UITheme.styleButton(searchButton);
@@ -92,6 +98,7 @@ public class GuestCatalogWindow extends JFrame {
         showAllBtn.setOpaque(true);
         showAllBtn.addActionListener(e -> loadBooks());
         searchPanel.add(showAllBtn);
+        searchPanel.add(loader.createLoadingIndicator());
         searchPanel.add(Box.createHorizontalGlue());
         JButton loginBtn = new JButton("Войти в систему");
         loginBtn.setName("loginNavButton");
@@ -115,34 +122,28 @@ public class GuestCatalogWindow extends JFrame {
     }
 
     private void loadBooks() {
-        tableModel.setRowCount(0);
-        List<Book> books = dbManager.getAllBooks();
-        for (Book book : books) {
-            tableModel.addRow(new Object[]{
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getYear(),
-                book.getCopiesAvailable(),
-                book.getCopiesTotal()
-            });
-        }
+        liveSearch.cancel();
+        tableModel.showAll();
     }
 
     private void performSearch() {
-        String query = searchField.getText().trim();
-        tableModel.setRowCount(0);
-        List<Book> books = dbManager.searchBooks(query);
-        for (Book book : books) {
-            tableModel.addRow(new Object[]{
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getYear(),
-                book.getCopiesAvailable(),
-                book.getCopiesTotal()
-            });
+        liveSearch.submitNow();
+    }
+
+    private void onDataChanged(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            if (event instanceof ChangeEvent.BookChanged) {
+                tableModel.applyChange((ChangeEvent.BookChanged) event);
+            } else if (event instanceof ChangeEvent.LoanEvent) {
+                tableModel.refreshBook(((ChangeEvent.LoanEvent) event).getBookId());
+            }
         }
     }
-}
 
+    /**
+     * Идут ли фоновые загрузки (для тестов).
+     */
+    boolean isLoading() {
+        return loader.isBusy();
+    }
+}
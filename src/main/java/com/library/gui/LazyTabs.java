@@ -0,0 +1,115 @@
+package com.library.gui;
+
+import com.library.util.UITheme;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JTabbedPane;
+import java.awt.BorderLayout;
+import java.util.function.Supplier;
+
+/**
+ * Вкладки, содержимое которых строится и загружается при первом выборе.
+ *
+ * До первого выбора во вкладке лежит пустая панель: окно показывается, не дожидаясь
+ * построения и данных остальных вкладок. Загруженные данные остаются в моделях таблиц
+ * и при повторном выборе не перечитываются, пока вкладку не пометят устаревшей
+ * ({@link Tab#invalidate()}). Загрузка сама решает, где выполнять запрос (обычно AsyncLoader).
+ *
+ * Работает в EDT.
+ */
+final class LazyTabs {
+    private final JTabbedPane pane;
+
+    LazyTabs(JTabbedPane pane) {
+        this.pane = pane;
+        pane.addChangeListener(e -> showSelected());
+    }
+
+    /**
+     * Добавляет вкладку. Если она выбрана сразу (первая вкладка), строится и загружается тут же.
+     *
+     * @param content строит содержимое вкладки (один раз)
+     * @param load    запускает загрузку данных вкладки
+     */
+    Tab add(String title, Supplier<? extends JComponent> content, Runnable load) {
+        Tab tab = new Tab(content, load);
+        pane.addTab(title, tab.holder);
+        showSelected();
+        return tab;
+    }
+
+    private void showSelected() {
+        Object selected = pane.getSelectedComponent();
+        if (selected instanceof JPanel) {
+            Object tab = ((JPanel) selected).getClientProperty(Tab.class);
+            if (tab != null) {
+                ((Tab) tab).show();
+            }
+        }
+    }
+
+    /**
+     * Одна ленивая вкладка.
+     */
+    final class Tab {
+        private final JPanel holder = new JPanel(new BorderLayout());
+        private final Runnable load;
+        private Supplier<? extends JComponent> content;
+        private boolean loaded;
+        private boolean stale;
+
+        private Tab(Supplier<? extends JComponent> content, Runnable load) {
+            this.content = content;
+            this.load = load;
+            holder.setBackground(UITheme.BACKGROUND_LIGHT);
+            holder.putClientProperty(Tab.class, this);
+        }
+
+        private void show() {
+            if (content != null) {
+                holder.add(content.get(), BorderLayout.CENTER);
+                content = null;
+                holder.revalidate();
+            }
+            if (!loaded || stale) {
+                reload();
+            }
+        }
+
+        /**
+         * Перечитывает данные вкладки сейчас.
+         */
+        void reload() {
+            loaded = true;
+            stale = false;
+            load.run();
+        }
+
+        /**
+         * Данные вкладки устарели: открытая вкладка перечитывается сразу, остальные — при следующем выборе.
+         * Еще не открывавшейся вкладки это не касается: она и так загрузится при первом выборе.
+         */
+        void invalidate() {
+            if (!loaded) {
+                return;
+            }
+            if (isSelected()) {
+                reload();
+            } else {
+                stale = true;
+            }
+        }
+
+        /**
+         * Загружались ли данные вкладки (после этого ее модели нужно поддерживать в актуальном виде).
+         */
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        boolean isSelected() {
+            return pane.getSelectedComponent() == holder;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.library.gui;
+
+import com.library.model.LoanView;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Таблица выдач (сначала новые). Для кабинета читателя столбец «Читатель» не показывается.
+ */
+public class LoanTableModel extends ColumnarTableModel<LoanView> {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    // Даты в списке выдач повторяются: каждая форматируется один раз до следующей полной загрузки
+    private final Map<LocalDate, String> labels;
+
+    public LoanTableModel(boolean showReader) {
+        this(showReader, new HashMap<>());
+    }
+
+    private LoanTableModel(boolean showReader, Map<LocalDate, String> labels) {
+        super(columns(showReader, labels), true);
+        this.labels = labels;
+    }
+
+    /**
+     * Полная загрузка сбрасывает словари столбцов, а вместе с ними и кэш подписей дат.
+     */
+    @Override
+    public void setRows(List<? extends LoanView> rows) {
+        labels.clear();
+        super.setRows(rows);
+    }
+
+    private static List<Column<LoanView>> columns(boolean showReader, Map<LocalDate, String> labels) {
+        Function<LocalDate, String> date = day -> labels.computeIfAbsent(day, DATE_FORMAT::format);
+        List<Column<LoanView>> columns = new ArrayList<>();
+        columns.add(Column.ofInt("ID", LoanView::getId));
+        columns.add(Column.ofString("Книга", loan -> loan.getBookTitle() != null ? loan.getBookTitle() : "Неизвестно"));
+        if (showReader) {
+            columns.add(Column.ofString("Читатель", loan -> loan.getReaderName() != null ? loan.getReaderName() : "Неизвестно"));
+        }
+        columns.add(Column.ofCodedString("Дата выдачи", loan -> date.apply(loan.getIssueDate())));
+        columns.add(Column.ofCodedString("Срок возврата", loan -> date.apply(loan.getDueDate())));
+        columns.add(Column.ofCodedString("Статус", loan -> "OVERDUE".equals(loan.getStatus()) ? "ПРОСРОЧЕНО" : loan.getStatus()));
+        return columns;
+    }
+}
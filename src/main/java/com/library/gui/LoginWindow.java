@@ -1,5 +1,6 @@
 package com.library.gui;
 
+import com.library.auth.Session;
 import com.library.auth.UserManager;
 import com.library.util.UITheme;
 
@@ -151,6 +152,7 @@ public class LoginWindow extends JFrame {
     }
 
     private void performLogin() {
+        long startedNanos = System.nanoTime();
         String username = usernameField.getText().trim();
         String password = new String(passwordField.getPassword());
 
@@ -159,16 +161,16 @@ public class LoginWindow extends JFrame {
             return;
         }
 
-        if (userManager.authenticate(username, password)) {
-            String role = userManager.getUserRole(username);
+        Session session = userManager.login(username, password);
+        if (session != null) {
             dispose();
 
-            switch (role) {
+            switch (session.getRole()) {
                 case "ADMIN":
-                    new AdminWindow(username).setVisible(true);
+                    new AdminWindow(username, startedNanos).setVisible(true);
                     break;
                 case "READER":
-                    new ReaderWindow(username).setVisible(true);
+                    new ReaderWindow(session).setVisible(true);
                     break;
                 default:
                     UITheme.showErrorMessage(this, "Неизвестная роль пользователя");
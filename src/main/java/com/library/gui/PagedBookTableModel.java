@@ -0,0 +1,344 @@
+package com.library.gui;
+
+import com.library.database.BookRepository;
+import com.library.event.ChangeEvent;
+import com.library.model.Book;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ленивая модель таблицы книг: хранит только число строк и несколько страниц,
+ * а строки подгружает окнами по мере прокрутки JTable.
+ * Последовательные страницы каталога читаются по ключу (title, id), а не через OFFSET.
+ *
+ * Счетчик строк и страницы читаются через AsyncLoader вне EDT: пока страница не пришла,
+ * ее строки пустые, по приходе модель сообщает об обновлении этих строк. Состояние модели
+ * меняется только в потоке обработки результатов (EDT).
+ *
+ * После правки или удаления одной книги модель меняет только ее строку (updateBook/removeBook)
+ * вместо перечитывания выборки.
+ *
+ * Результат поиска — список ID найденных книг (DatabaseManager кэширует его), страницы
+ * поиска читаются по этим ID. Поиск, вытесненный более новым, прекращает чтение ID.
+ */
+public class PagedBookTableModel extends AbstractTableModel {
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 16;
+
+    private static final String[] COLUMNS = {"ID", "Название", "Автор", "Год", "Доступно", "Всего"};
+
+    private final BookRepository dbManager;
+    private final AsyncLoader loader;
+    private final int pageSize;
+    private final Map<Integer, List<Book>> pages;
+    // Ключ последней строки каждой прочитанной страницы — для keyset-перехода к следующей
+    private final Map<Integer, Book> pageTails = new HashMap<>();
+    private final Set<Integer> requestedPages = new HashSet<>();
+    // ID книги -> номер строки по страницам в кэше (вытесненная страница убирает свои ID);
+    // сверяется со страницей перед использованием
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+
+    private String query;
+    // ID книг выборки поиска по порядку строк; null, если показан весь каталог
+    private int[] searchIds;
+    private int rowCount;
+    // Меняется при каждой смене выборки; страницы от прежней выборки отбрасываются
+    private int generation;
+
+    public PagedBookTableModel(BookRepository dbManager, AsyncLoader loader) {
+        this(dbManager, loader, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    public PagedBookTableModel(BookRepository dbManager, AsyncLoader loader, int pageSize, int maxCachedPages) {
+        this.dbManager = dbManager;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(maxCachedPages + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Book>> eldest) {
+                if (size() > maxCachedPages) {
+                    forgetRows(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Показывает весь каталог.
+     */
+    public void showAll() {
+        reset(null);
+    }
+
+    /**
+     * Показывает результаты поиска; пустой запрос равносилен showAll().
+     */
+    public void search(String query) {
+        reset(query == null || query.isBlank() ? null : query);
+    }
+
+    /**
+     * Прежняя выборка остается на экране, пока не придет счетчик новой.
+     */
+    private void reset(String newQuery) {
+        if (newQuery == null) {
+            loader.load("books:count", dbManager::getTotalBooks, count -> showRows(null, null, count));
+        } else {
+            loader.loadCancellable("books:count", superseded -> dbManager.searchBookIds(newQuery, superseded), ids -> {
+                int[] found = ids != null ? ids : new int[0];
+                showRows(newQuery, found, found.length);
+            });
+        }
+    }
+
+    private void showRows(String newQuery, int[] ids, int count) {
+        query = newQuery;
+        searchIds = ids;
+        generation++;
+        pages.clear();
+        pageTails.clear();
+        requestedPages.clear();
+        rowById.clear();
+        rowCount = count;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Перечитывает текущую выборку (каталог или результаты поиска).
+     */
+    public void refresh() {
+        reset(query);
+    }
+
+    /**
+     * Применяет событие об изменении книги: новая книга или массовый импорт меняют
+     * число строк и порядок — выборка перечитывается; удаление убирает строку;
+     * изменение перечитывает только эту книгу.
+     */
+    public void applyChange(ChangeEvent.BookChanged change) {
+        if (change.isAll() || change.getKind() == ChangeEvent.Kind.CREATED) {
+            refresh();
+        } else if (change.getKind() == ChangeEvent.Kind.DELETED) {
+            removeBook(change.getBookId());
+        } else {
+            refreshBook(change.getBookId());
+        }
+    }
+
+    /**
+     * Перечитывает одну книгу, если ее строка загружена (например, после выдачи изменилось число экземпляров).
+     */
+    public void refreshBook(int bookId) {
+        if (loadedRowOf(bookId) >= 0) {
+            loader.load("books:row:" + bookId, () -> dbManager.getBookById(bookId), this::updateBook);
+        }
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Книга в строке row или null, если строка не существует или ее страница еще загружается.
+     */
+    public Book getBookAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        int pageIndex = row / pageSize;
+        List<Book> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            page = pages.get(pageIndex);
+            if (page == null) {
+                return null;
+            }
+        }
+        int index = row % pageSize;
+        return index < page.size() ? page.get(index) : null;
+    }
+
+    /**
+     * Заменяет строку книги новыми данными, если ее страница загружена; иначе книга
+     * и так будет прочитана заново, когда страница понадобится. Позиция строки не меняется
+     * до следующей полной перезагрузки, даже если изменилось название.
+     */
+    public void updateBook(Book book) {
+        if (book == null) {
+            return;
+        }
+        int row = loadedRowOf(book.getId());
+        if (row >= 0) {
+            pages.get(row / pageSize).set(row % pageSize, book);
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    /**
+     * Убирает строку удаленной книги. Строки ниже сдвигаются, поэтому страницы с этой
+     * и далее отбрасываются и при прокрутке читаются заново; страницы выше остаются.
+     * Если страница книги не загружена, номер строки неизвестен — выборка перечитывается.
+     */
+    public void removeBook(int bookId) {
+        int row = loadedRowOf(bookId);
+        if (row < 0) {
+            reset(query);
+            return;
+        }
+        int pageIndex = row / pageSize;
+        pages.entrySet().removeIf(entry -> {
+            if (entry.getKey() < pageIndex) {
+                return false;
+            }
+            forgetRows(entry.getKey(), entry.getValue());
+            return true;
+        });
+        pageTails.keySet().removeIf(index -> index >= pageIndex);
+        // Страницы, запрошенные до удаления, пришли бы со сдвигом
+        generation++;
+        requestedPages.clear();
+        rowById.remove(bookId);
+        if (searchIds != null) {
+            int[] ids = new int[searchIds.length - 1];
+            System.arraycopy(searchIds, 0, ids, 0, row);
+            System.arraycopy(searchIds, row + 1, ids, row, ids.length - row);
+            searchIds = ids;
+        }
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+
+    private int loadedRowOf(int bookId) {
+        Integer row = rowById.get(bookId);
+        if (row == null || row >= rowCount) {
+            return -1;
+        }
+        List<Book> page = pages.get(row / pageSize);
+        int index = row % pageSize;
+        if (page == null || index >= page.size() || page.get(index).getId() != bookId) {
+            return -1;
+        }
+        return row;
+    }
+
+    /**
+     * Убирает из rowById строки страницы, уходящей из кэша. ID, уже указывающий на другую строку, не трогается.
+     */
+    private void forgetRows(int pageIndex, List<Book> page) {
+        int firstRow = pageIndex * pageSize;
+        for (int i = 0; i < page.size(); i++) {
+            rowById.remove(page.get(i).getId(), firstRow + i);
+        }
+    }
+
+    /**
+     * Сколько книг сейчас в индексе строк (не больше строк на страницах в кэше).
+     */
+    int getIndexedRowCount() {
+        return rowById.size();
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private void requestPage(int pageIndex) {
+        if (!requestedPages.add(pageIndex)) {
+            return;
+        }
+        int[] pageIds = searchIds;
+        int pageGeneration = generation;
+        Book previousTail = pageTails.get(pageIndex - 1);
+        loader.load("books:page:" + pageIndex, () -> {
+            if (pageIds != null) {
+                int from = pageIndex * pageSize;
+                return dbManager.getBooksByIds(pageIds, from, Math.min(pageIds.length, from + pageSize));
+            } else if (previousTail != null) {
+                return dbManager.getBooksAfter(previousTail.getTitle(), previousTail.getId(), pageSize);
+            }
+            return dbManager.getBooksPage(pageIndex * pageSize, pageSize);
+        }, page -> {
+            if (pageGeneration != generation) {
+                return;
+            }
+            requestedPages.remove(pageIndex);
+            int firstRow = pageIndex * pageSize;
+            int lastRow = Math.min(rowCount, firstRow + pageSize) - 1;
+            if (page.size() < lastRow - firstRow + 1) {
+                // Сбой чтения (пустой список) или неполная страница: не кэшируем, следующая
+                // отрисовка запросит ее снова
+                return;
+            }
+            List<Book> previous = pages.put(pageIndex, page);
+            if (previous != null) {
+                forgetRows(pageIndex, previous);
+            }
+            for (int i = 0; i < page.size(); i++) {
+                rowById.put(page.get(i).getId(), pageIndex * pageSize + i);
+            }
+            if (!page.isEmpty()) {
+                pageTails.put(pageIndex, page.get(page.size() - 1));
+            }
+            if (lastRow >= firstRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 1 || column == 2 ? String.class : Integer.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Book book = getBookAt(row);
+        if (book == null) {
+            return null;
+        }
+        switch (column) {
+            case 0:
+                return book.getId();
+            case 1:
+                return book.getTitle();
+            case 2:
+                return book.getAuthor();
+            case 3:
+                return book.getYear();
+            case 4:
+                return book.getCopiesAvailable();
+            case 5:
+                return book.getCopiesTotal();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.library.gui;
+
+import com.library.model.Reader;
+
+import java.util.List;
+
+/**
+ * Таблица читателей администратора.
+ */
+public class ReaderTableModel extends ColumnarTableModel<Reader> {
+
+    public ReaderTableModel() {
+        super(List.of(
+            Column.ofInt("ID", Reader::getId),
+            Column.ofString("ФИО", Reader::getFullName),
+            Column.ofString("Номер билета", Reader::getCardNumber),
+            Column.ofString("Телефон", Reader::getPhone),
+            Column.ofString("Email", Reader::getEmail),
+            Column.ofCodedString("Статус", Reader::getStatus)
+        ), false);
+    }
+}
@@ -1,13 +1,17 @@
 package com.library.gui;
 
-import com.library.database.DatabaseManager;
-import com.library.model.Book;
+import com.library.auth.Session;
+import com.library.auth.UserManager;
+import com.library.database.LibraryStorage;
+import com.library.database.Repositories;
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
 import com.library.model.Loan;
+import com.library.model.LoanView;
 import com.library.model.Reader;
 import com.library.util.UITheme;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -15,38 +19,67 @@ import java.util.List;
 
 public class ReaderWindow extends JFrame {
     private String username;
-    private DatabaseManager dbManager;
+    private LibraryStorage dbManager;
     private Reader currentReader;
+    private final AsyncLoader loader = new AsyncLoader();
+    private ChangeEventBus.Subscription changes;
     
     private JTable booksTable;
-    private DefaultTableModel booksTableModel;
+    private PagedBookTableModel booksTableModel;
     private JTable historyTable;
-    private DefaultTableModel historyTableModel;
+    private LoanTableModel historyTableModel;
+    private JCheckBox showArchivedHistory;
     private JTextField searchField;
+    private SearchDebouncer liveSearch;
 
     public ReaderWindow(String username) {
+        this(username, Repositories.getInstance().getReaderByUsername(username));
+    }
+
+    public ReaderWindow(Session session) {
+        // ID читателя уже известен из сессии: карточка берется из кэша читателей по первичному ключу
+        this(session.getUsername(),
+            session.hasReader() ? Repositories.getInstance().getReaderById(session.getReaderId()) : null);
+    }
+
+    private ReaderWindow(String username, Reader reader) {
         this.username = username;
-        this.dbManager = DatabaseManager.getInstance();
-        findReaderByUsername();
+        this.dbManager = Repositories.getInstance();
+        // Учетная запись не связана с читателем — создаем временного читателя без истории
+        this.currentReader = reader != null ? reader : new Reader(username, username, "", "", "");
         initializeComponents();
         setupLayout();
         loadBooks();
         loadHistory();
+        changes = dbManager.getEventBus().subscribe(this::onDataChanged);
+    }
+
+    @Override
+    public void dispose() {
+        changes.close();
+        super.dispose();
     }
 
-    private void findReaderByUsername() {
-        // Ищем читателя по имени пользователя (упрощенно - можно улучшить)
-        List<Reader> readers = dbManager.getAllReaders();
-        for (Reader reader : readers) {
-            // Предполагаем, что имя пользователя может совпадать с ФИО или номером билета
-            if (reader.getCardNumber().equalsIgnoreCase(username) || 
-                reader.getFullName().toLowerCase().contains(username.toLowerCase())) {
-                currentReader = reader;
-                return;
+    /**
+     * Обновляет только затронутые строки по пакету событий изменения данных (в EDT).
+     */
+    private void onDataChanged(List<ChangeEvent> events) {
+        boolean historyReloaded = events.contains(ChangeEvent.LoansChanged.ALL);
+        if (historyReloaded) {
+            loadHistory();
+        }
+        for (ChangeEvent event : events) {
+            if (event instanceof ChangeEvent.BookChanged) {
+                booksTableModel.applyChange((ChangeEvent.BookChanged) event);
+            } else if (event instanceof ChangeEvent.LoanEvent) {
+                ChangeEvent.LoanEvent loanEvent = (ChangeEvent.LoanEvent) event;
+                booksTableModel.refreshBook(loanEvent.getBookId());
+                if (!historyReloaded && loanEvent.getReaderId() == currentReader.getId()) {
+                    int loanId = loanEvent.getLoanId();
+                    loader.load("loan:" + loanId, () -> dbManager.getLoanViewById(loanId), historyTableModel::upsert);
+                }
             }
         }
-        // Если не нашли, создаем временного читателя
-        currentReader = new Reader(username, username, "", "", "");
     }
 
     private void initializeComponents() {
@@ -57,29 +90,18 @@ public class ReaderWindow extends JFrame {
         UITheme.applySberTheme(this);
 
         // Таблица книг
-        String[] bookColumns = {"ID", "Название", "Автор", "Год", "Доступно", "Всего"};
-        booksTableModel = new DefaultTableModel(bookColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        booksTableModel = new PagedBookTableModel(dbManager, loader);
         booksTable = new JTable(booksTableModel);
         UITheme.styleTable(booksTable);
 
         // Таблица истории
-        String[] historyColumns = {"ID", "Книга", "Дата выдачи", "Срок возврата", "Статус"};
-        historyTableModel = new DefaultTableModel(historyColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        historyTableModel = new LoanTableModel(false);
         historyTable = new JTable(historyTableModel);
         UITheme.styleTable(historyTable);
 
         searchField = new JTextField(20);
         UITheme.styleTextField(searchField);
+        liveSearch = SearchDebouncer.install(searchField, booksTableModel::search);
     }
 
     private void setupLayout() {
@@ -114,11 +136,18 @@ public class ReaderWindow extends JFrame {
         UITheme.styleButton(logoutButton);
         logoutButton.setBackground(UITheme.ERROR_COLOR);
         logoutButton.addActionListener(e -> {
+            UserManager.getInstance().logout(username);
             dispose();
             new LoginWindow().setVisible(true);
         });
         topPanel.add(logoutButton, BorderLayout.EAST);
 
+        // Индикатор фоновой загрузки данных
+        JPanel indicatorPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 20, 0));
+        indicatorPanel.setOpaque(false);
+        indicatorPanel.add(loader.createLoadingIndicator());
+        topPanel.add(indicatorPanel, BorderLayout.CENTER);
+
         mainPanel.add(topPanel, BorderLayout.NORTH);
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
 
@@ -183,6 +212,14 @@ public class ReaderWindow extends JFrame {
         refreshButton.addActionListener(e -> loadHistory());
         buttonPanel.add(refreshButton);
 
+        // Давно возвращенные книги лежат в архиве и читаются только по запросу
+        showArchivedHistory = new JCheckBox("Показать архив");
+        showArchivedHistory.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        showArchivedHistory.setForeground(UITheme.TEXT_PRIMARY);
+        showArchivedHistory.setBackground(UITheme.BACKGROUND_LIGHT);
+        showArchivedHistory.addActionListener(e -> loadHistory());
+        buttonPanel.add(showArchivedHistory);
+
         // Таблица истории
         JScrollPane scrollPane = new JScrollPane(historyTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(UITheme.BORDER_COLOR));
@@ -194,59 +231,26 @@ public class ReaderWindow extends JFrame {
     }
 
     private void loadBooks() {
-        booksTableModel.setRowCount(0);
-        List<Book> books = dbManager.getAllBooks();
-        for (Book book : books) {
-            booksTableModel.addRow(new Object[]{
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getYear(),
-                book.getCopiesAvailable(),
-                book.getCopiesTotal()
-            });
-        }
+        liveSearch.cancel();
+        booksTableModel.showAll();
     }
 
     private void performSearch() {
-        String query = searchField.getText().trim();
-        booksTableModel.setRowCount(0);
-        List<Book> books = dbManager.searchBooks(query);
-        for (Book book : books) {
-            booksTableModel.addRow(new Object[]{
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getYear(),
-                book.getCopiesAvailable(),
-                book.getCopiesTotal()
-            });
-        }
+        liveSearch.submitNow();
     }
 
     private void loadHistory() {
-        historyTableModel.setRowCount(0);
-        if (currentReader != null && currentReader.getId() > 0) {
-            List<Loan> loans = dbManager.getLoansByReaderId(currentReader.getId());
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-            
-            for (Loan loan : loans) {
-                Book book = dbManager.getBookById(loan.getBookId());
-                String bookTitle = book != null ? book.getTitle() : "Неизвестно";
-                String status = loan.getStatus();
-                if (loan.isOverdue()) {
-                    status = "ПРОСРОЧЕНО";
-                }
-                
-                historyTableModel.addRow(new Object[]{
-                    loan.getId(),
-                    bookTitle,
-                    loan.getIssueDate().format(formatter),
-                    loan.getDueDate().format(formatter),
-                    status
-                });
-            }
+        if (currentReader == null || currentReader.getId() <= 0) {
+            historyTableModel.setRows(List.of());
+            return;
         }
+        int readerId = currentReader.getId();
+        boolean includeArchived = showArchivedHistory.isSelected();
+        loader.load("history", () -> dbManager.getLoanViewsByReaderId(readerId, includeArchived), this::showHistory);
+    }
+
+    private void showHistory(List<LoanView> loans) {
+        historyTableModel.setRows(loans);
     }
 
     private void extendLoan() {
@@ -256,7 +260,7 @@ public class ReaderWindow extends JFrame {
             return;
         }
 
-        int loanId = (Integer) historyTableModel.getValueAt(selectedRow, 0);
+        int loanId = historyTableModel.getInt(selectedRow, 0);
         Loan loan = dbManager.getLoanById(loanId);
 
         if (loan == null || !loan.isActive()) {
@@ -273,7 +277,6 @@ public class ReaderWindow extends JFrame {
         LocalDate newDueDate = loan.getDueDate().plusDays(14);
         dbManager.extendLoan(loanId, newDueDate);
         UITheme.showSuccessMessage(this, "Срок возврата продлен до " + newDueDate.format(DateTimeFormatter.ofPattern("dd.MM.yyyy")));
-        loadHistory();
     }
 }
 
@@ -0,0 +1,80 @@
+package com.library.gui;
+
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.function.Consumer;
+
+/**
+ * Живой поиск по мере ввода. Запрос отправляется, когда пользователь сделал паузу в наборе
+ * (а не на каждое нажатие клавиши), и только если текст запроса изменился.
+ * Enter и кнопка «Поиск» отправляют запрос сразу (submitNow).
+ *
+ * Работает в EDT: таймер и слушатель поля вызываются только в нем.
+ */
+public class SearchDebouncer {
+    public static final int DEFAULT_DELAY_MS = Integer.getInteger("library.search.debounceMs", 250);
+
+    private final JTextField field;
+    private final Consumer<String> onQuery;
+    private final Timer timer;
+    private String lastQuery;
+
+    /**
+     * Подключает живой поиск к полю с паузой delayMs (тесты задают короткую паузу).
+     */
+    SearchDebouncer(JTextField field, int delayMs, Consumer<String> onQuery) {
+        this.field = field;
+        this.onQuery = onQuery;
+        this.timer = new Timer(delayMs, e -> submit(false));
+        timer.setRepeats(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        field.addActionListener(e -> submitNow());
+    }
+
+    /**
+     * Подключает живой поиск к полю; onQuery получает обрезанный текст запроса.
+     */
+    public static SearchDebouncer install(JTextField field, Consumer<String> onQuery) {
+        return new SearchDebouncer(field, DEFAULT_DELAY_MS, onQuery);
+    }
+
+    /**
+     * Отправляет текущий запрос немедленно, даже если он не изменился.
+     */
+    public void submitNow() {
+        submit(true);
+    }
+
+    /**
+     * Отменяет ожидающий запрос (например, при «Показать все»); следующий ввод будет отправлен.
+     */
+    public void cancel() {
+        timer.stop();
+        lastQuery = null;
+    }
+
+    private void submit(boolean force) {
+        timer.stop();
+        String query = field.getText().trim();
+        if (force || !query.equals(lastQuery)) {
+            lastQuery = query;
+            onQuery.accept(query);
+        }
+    }
+}
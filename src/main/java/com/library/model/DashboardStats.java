@@ -0,0 +1,44 @@
+package com.library.model;
+
+/**
+ * Показатели панели статистики администратора, прочитанные одним запросом.
+ */
+public class DashboardStats {
+    private final int totalBooks;
+    private final int totalReaders;
+    private final int activeLoans;
+    private final int overdueLoans;
+
+    public DashboardStats(int totalBooks, int totalReaders, int activeLoans, int overdueLoans) {
+        this.totalBooks = totalBooks;
+        this.totalReaders = totalReaders;
+        this.activeLoans = activeLoans;
+        this.overdueLoans = overdueLoans;
+    }
+
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+
+    public int getTotalReaders() {
+        return totalReaders;
+    }
+
+    public int getActiveLoans() {
+        return activeLoans;
+    }
+
+    public int getOverdueLoans() {
+        return overdueLoans;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardStats{" +
+                "totalBooks=" + totalBooks +
+                ", totalReaders=" + totalReaders +
+                ", activeLoans=" + activeLoans +
+                ", overdueLoans=" + overdueLoans +
+                '}';
+    }
+}
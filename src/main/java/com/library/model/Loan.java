@@ -92,12 +92,18 @@ public class Loan {
         this.status = status;
     }
 
+    /**
+     * Книга еще у читателя (выдача активна или просрочена).
+     */
     public boolean isActive() {
-        return "ACTIVE".equals(status);
+        return "ACTIVE".equals(status) || "OVERDUE".equals(status);
     }
 
+    /**
+     * Просрочена: сохраненный статус OVERDUE или (пока OverdueEngine не отметил) срок уже прошел.
+     */
     public boolean isOverdue() {
-        return isActive() && LocalDate.now().isAfter(dueDate);
+        return "OVERDUE".equals(status) || ("ACTIVE".equals(status) && LocalDate.now().isAfter(dueDate));
     }
 
     @Override
@@ -0,0 +1,102 @@
+package com.library.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Выдача вместе с названием книги и ФИО читателя — строка таблицы выдач,
+ * собранная одним SQL-запросом с JOIN.
+ */
+public class LoanView {
+    private final int id;
+    private final int bookId;
+    private final String bookTitle;
+    private final int readerId;
+    private final String readerName;
+    private final LocalDate issueDate;
+    private final LocalDate returnDate;
+    private final LocalDate dueDate;
+    private final String status;
+
+    public LoanView(int id, int bookId, String bookTitle, int readerId, String readerName,
+                    LocalDate issueDate, LocalDate returnDate, LocalDate dueDate, String status) {
+        this.id = id;
+        this.bookId = bookId;
+        this.bookTitle = bookTitle;
+        this.readerId = readerId;
+        this.readerName = readerName;
+        this.issueDate = issueDate;
+        this.returnDate = returnDate;
+        this.dueDate = dueDate;
+        this.status = status;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    /**
+     * Название книги или null, если книга уже удалена из каталога.
+     */
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    public int getReaderId() {
+        return readerId;
+    }
+
+    /**
+     * ФИО читателя или null, если читатель не найден.
+     */
+    public String getReaderName() {
+        return readerName;
+    }
+
+    public LocalDate getIssueDate() {
+        return issueDate;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Книга еще у читателя (выдача активна или просрочена).
+     */
+    public boolean isActive() {
+        return "ACTIVE".equals(status) || "OVERDUE".equals(status);
+    }
+
+    /**
+     * Просрочена: сохраненный статус OVERDUE или (пока OverdueEngine не отметил) срок уже прошел.
+     */
+    public boolean isOverdue() {
+        return "OVERDUE".equals(status) || ("ACTIVE".equals(status) && LocalDate.now().isAfter(dueDate));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoanView loanView = (LoanView) o;
+        return id == loanView.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.library.model;
+
+/**
+ * Учетная запись пользователя системы (администратор или читатель).
+ */
+public class SystemUser {
+    private int id;
+    private String username;
+    private String password;
+    private String role;
+    private int readerId;
+
+    public SystemUser(int id, String username, String password, String role) {
+        this(id, username, password, role, 0);
+    }
+
+    public SystemUser(int id, String username, String password, String role, int readerId) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.readerId = readerId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * ID связанного читателя или 0, если учетная запись не связана.
+     */
+    public int getReaderId() {
+        return readerId;
+    }
+}
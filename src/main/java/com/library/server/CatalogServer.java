@@ -0,0 +1,439 @@
+package com.library.server;
+
+import com.library.database.BookRepository;
+import com.library.database.LibraryStorage;
+import com.library.database.LruCache;
+import com.library.database.Repositories;
+import com.library.model.Book;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Каталог книг для киосков по HTTP (JSON) без Swing: один процесс и один пул соединений с БД
+ * обслуживают все киоски вместо отдельной JVM с GuestCatalogWindow на каждом.
+ *
+ * GET /api/books?offset=&limit=       — страница каталога (порядок title, id) и общее число книг
+ * GET /api/books?q=...&offset=&limit= — поиск по названию и автору, как в окне каталога
+ * GET /api/books/{id}                 — одна книга с числом доступных экземпляров
+ *
+ * Запросы обрабатывает ограниченный пул потоков с ограниченной очередью; при переполнении
+ * очереди запрос выполняет поток приема соединений, что притормаживает прием новых.
+ * Готовые ответы кэшируются до изменения каталога (версия каталога в хранилище) или истечения
+ * cacheTtlMs — изменения, сделанные другим процессом (например, окном администратора),
+ * становятся видны не позже чем через cacheTtlMs. Поэтому ответы строятся запросами к БД в обход
+ * кэшей хранилища (книга по ID, результаты поиска): те сбрасываются только записями своего
+ * процесса и не знают о чужих. Каждый ответ несет ETag (хэш тела);
+ * при совпадении с If-None-Match отдается 304 без тела.
+ */
+public class CatalogServer implements AutoCloseable {
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final String BOOKS_PATH = "/api/books";
+
+    private final BookRepository catalog;
+    private final Config config;
+    private final LruCache<String, CachedResponse> responses;
+    private HttpServer server;
+    private ThreadPoolExecutor workers;
+
+    public CatalogServer(BookRepository catalog, Config config) {
+        this.catalog = catalog;
+        this.config = config;
+        this.responses = new LruCache<>(config.getCacheSize());
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        LibraryStorage storage = Repositories.getInstance();
+        CatalogServer catalogServer = new CatalogServer(storage, Config.fromSystemProperties());
+        try {
+            catalogServer.start();
+        } catch (IOException e) {
+            System.err.println("Ошибка запуска сервера каталога: " + e.getMessage());
+            e.printStackTrace();
+            storage.shutdown();
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            catalogServer.close();
+            storage.shutdown();
+        }, "library-http-shutdown"));
+        System.out.println("Сервер каталога запущен на порту " + catalogServer.getPort());
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Сервер уже запущен");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(config.getQueueSize()), r -> {
+                Thread thread = new Thread(r, "library-http-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        server = HttpServer.create(new InetSocketAddress(config.getPort()), config.getBacklog());
+        server.createContext(BOOKS_PATH, this::handle);
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    /**
+     * Фактический порт (при port=0 выбирается системой).
+     */
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Останавливает прием запросов, дожидаясь текущих (до секунды). Хранилище не закрывается.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        workers = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                send(exchange, error(405, "Метод не поддерживается"));
+                return;
+            }
+            send(exchange, route(exchange));
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка обработки запроса " + exchange.getRequestURI() + ": " + e.getMessage());
+            e.printStackTrace();
+            send(exchange, error(500, "Внутренняя ошибка сервера"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private CachedResponse route(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        try {
+            if (path.equals(BOOKS_PATH) || path.equals(BOOKS_PATH + "/")) {
+                String query = params.getOrDefault("q", "").trim();
+                int offset = Math.max(0, intParam(params, "offset", 0));
+                int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, intParam(params, "limit", DEFAULT_PAGE_SIZE)));
+                String key = "books:" + query.toLowerCase(Locale.ROOT) + ':' + offset + ':' + limit;
+                return cached(key, () -> query.isEmpty() ? listBooks(offset, limit) : searchBooks(query, offset, limit));
+            }
+            if (path.startsWith(BOOKS_PATH + "/")) {
+                int id = Integer.parseInt(path.substring(BOOKS_PATH.length() + 1));
+                return cached("book:" + id, () -> bookAvailability(id));
+            }
+        } catch (NumberFormatException e) {
+            return error(400, "Некорректное число: " + e.getMessage());
+        }
+        return error(404, "Не найдено");
+    }
+
+    private CachedResponse listBooks(int offset, int limit) {
+        List<Book> books = catalog.getBooksPage(offset, limit);
+        return page(catalog.getTotalBooks(), offset, limit, books);
+    }
+
+    private CachedResponse searchBooks(String query, int offset, int limit) {
+        // Не searchBookIds: его кэш поиска не видит книг, добавленных другим процессом
+        return page(catalog.countSearchBooks(query), offset, limit, catalog.searchBooksPage(query, offset, limit));
+    }
+
+    private CachedResponse bookAvailability(int id) {
+        // Не getBookById: его кэш не видит выдач и возвратов, сделанных другим процессом
+        List<Book> books = catalog.getBooksByIds(new int[]{id}, 0, 1);
+        if (books.isEmpty()) {
+            return error(404, "Книга не найдена: " + id);
+        }
+        StringBuilder json = new StringBuilder();
+        appendBook(json, books.get(0));
+        return new CachedResponse(200, json.toString());
+    }
+
+    private static CachedResponse page(int total, int offset, int limit, List<Book> books) {
+        StringBuilder json = new StringBuilder(64 + books.size() * 128);
+        json.append("{\"total\":").append(total)
+            .append(",\"offset\":").append(offset)
+            .append(",\"limit\":").append(limit)
+            .append(",\"books\":[");
+        for (int i = 0; i < books.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendBook(json, books.get(i));
+        }
+        json.append("]}");
+        return new CachedResponse(200, json.toString());
+    }
+
+    private static void appendBook(StringBuilder json, Book book) {
+        json.append("{\"id\":").append(book.getId())
+            .append(",\"title\":");
+        appendString(json, book.getTitle());
+        json.append(",\"author\":");
+        appendString(json, book.getAuthor());
+        json.append(",\"year\":").append(book.getYear())
+            .append(",\"copiesTotal\":").append(book.getCopiesTotal())
+            .append(",\"copiesAvailable\":").append(book.getCopiesAvailable())
+            .append(",\"available\":").append(book.getCopiesAvailable() > 0)
+            .append('}');
+    }
+
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static CachedResponse error(int status, String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        appendString(json, message);
+        json.append('}');
+        return new CachedResponse(status, json.toString());
+    }
+
+    /**
+     * Ответ из кэша, если с момента его построения каталог не менялся и не истек cacheTtlMs.
+     * Устаревший ответ заменяется новым на месте, без invalidate: тот сбросил бы поколение
+     * всего кэша, и параллельные загрузки других ключей не попали бы в кэш.
+     * Кэшируются только успешные ответы и 404; ошибка (например, временный сбой БД)
+     * не должна до конца TTL отдаваться всем киоскам.
+     */
+    private CachedResponse cached(String key, ResponseBuilder builder) {
+        long version = catalog.getCatalogVersion();
+        CachedResponse response = responses.getIfPresent(key);
+        if (response != null && response.version == version
+                && System.currentTimeMillis() - response.createdAt <= config.getCacheTtlMs()) {
+            return response;
+        }
+        response = builder.build().withVersion(version);
+        if (isCacheable(response.status)) {
+            responses.put(key, response);
+        }
+        return response;
+    }
+
+    static boolean isCacheable(int status) {
+        return (status >= 200 && status < 300) || status == 404;
+    }
+
+    private static void send(HttpExchange exchange, CachedResponse response) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // Киоск всегда переспрашивает сервер, но по ETag получает 304 без тела
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (response.status == 200) {
+            exchange.getResponseHeaders().set("ETag", response.etag);
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), response.etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response.body);
+        }
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private interface ResponseBuilder {
+        CachedResponse build();
+    }
+
+    /**
+     * Готовый ответ: статус, тело в UTF-8 и ETag тела.
+     */
+    private static final class CachedResponse {
+        private final int status;
+        private final byte[] body;
+        private final String etag;
+        private long version;
+        private long createdAt;
+
+        CachedResponse(int status, String json) {
+            this.status = status;
+            this.body = json.getBytes(StandardCharsets.UTF_8);
+            this.etag = etagOf(body);
+        }
+
+        CachedResponse withVersion(long version) {
+            this.version = version;
+            this.createdAt = System.currentTimeMillis();
+            return this;
+        }
+
+        private static String etagOf(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                StringBuilder tag = new StringBuilder("\"");
+                for (int i = 0; i < 12; i++) {
+                    tag.append(String.format("%02x", digest[i]));
+                }
+                return tag.append('"').toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static class Config {
+        private final int port;
+        private final int threads;
+        private final int queueSize;
+        private final int backlog;
+        private final int cacheSize;
+        private final long cacheTtlMs;
+
+        /**
+         * @param port       порт; 0 — любой свободный
+         * @param threads    число потоков обработки запросов
+         * @param queueSize  предел очереди запросов, ожидающих свободный поток
+         * @param backlog    очередь непринятых TCP-соединений; 0 — значение системы
+         * @param cacheSize  сколько готовых ответов хранить
+         * @param cacheTtlMs предельный возраст ответа в кэше
+         */
+        public Config(int port, int threads, int queueSize, int backlog, int cacheSize, long cacheTtlMs) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Число потоков должно быть положительным: " + threads);
+            }
+            this.port = port;
+            this.threads = threads;
+            this.queueSize = Math.max(1, queueSize);
+            this.backlog = Math.max(0, backlog);
+            this.cacheSize = Math.max(1, cacheSize);
+            this.cacheTtlMs = Math.max(0, cacheTtlMs);
+        }
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                Integer.getInteger("library.http.port", 8080),
+                Integer.getInteger("library.http.threads", 8),
+                Integer.getInteger("library.http.queueSize", 256),
+                Integer.getInteger("library.http.backlog", 0),
+                Integer.getInteger("library.http.cacheSize", 256),
+                Long.getLong("library.http.cacheTtlMs", 5_000L)
+            );
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public int getBacklog() {
+            return backlog;
+        }
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public long getCacheTtlMs() {
+            return cacheTtlMs;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.library.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV (RFC 4180): разделитель — запятая, поля в кавычках могут
+ * содержать запятые, переводы строк и удвоенные кавычки. В памяти держится только
+ * текущая запись, поэтому размер файла не ограничен.
+ */
+public class CsvReader implements Closeable {
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+
+    private final BufferedReader in;
+    private int lineNumber = 1;
+    private int recordLine;
+    private boolean started;
+
+    public CsvReader(Reader source) {
+        this.in = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+    }
+
+    /**
+     * Читает следующую запись. Пустые строки пропускаются.
+     *
+     * @return поля записи или null, если файл закончился
+     */
+    public List<String> readRecord() throws IOException {
+        int c = in.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = in.read();
+            }
+        }
+        while (c == '\r' || c == '\n') {
+            consumeLineBreak(c);
+            c = in.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Незакрытая кавычка в записи со строки " + recordLine);
+                }
+                if (c == QUOTE) {
+                    c = in.read();
+                    if (c == QUOTE) {
+                        field.append(QUOTE);
+                        c = in.read();
+                    } else {
+                        quoted = false;
+                    }
+                    continue;
+                }
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) c);
+            } else if (c == QUOTE && field.length() == 0) {
+                quoted = true;
+            } else if (c == DELIMITER) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    consumeLineBreak(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    /**
+     * Номер строки файла, с которой началась последняя прочитанная запись (с единицы).
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void consumeLineBreak(int c) throws IOException {
+        lineNumber++;
+        if (c == '\r') {
+            in.mark(1);
+            if (in.read() != '\n') {
+                in.reset();
+            }
+        }
+    }
+}
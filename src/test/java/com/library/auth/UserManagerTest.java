@@ -0,0 +1,61 @@
+package com.library.auth;
+
+import com.library.database.DatabaseManager;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserManagerTest {
+
+    private DatabaseManager dbManager;
+    private UserManager userManager;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+        userManager = UserManager.getInstance();
+    }
+
+    @Test
+    void loginReturnsSessionWithRoleAndLinkedReader() {
+        Session session = userManager.login("petrov", "petrov123");
+
+        assertThat(session.getUsername()).isEqualTo("petrov");
+        assertThat(session.getRole()).isEqualTo("READER");
+        assertThat(session.hasReader()).isTrue();
+        assertThat(dbManager.getReaderById(session.getReaderId()).getCardNumber()).isEqualTo("R001");
+
+        Session admin = userManager.login("admin", "admin");
+        assertThat(admin.isAdmin()).isTrue();
+        assertThat(admin.hasReader()).isFalse();
+    }
+
+    @Test
+    void wrongPasswordDoesNotCreateSession() {
+        assertThat(userManager.login("petrov", "wrong")).isNull();
+        assertThat(userManager.getSession("petrov")).isNull();
+    }
+
+    @Test
+    void authenticateChecksPasswordWithoutCreatingSession() {
+        assertThat(userManager.authenticate("petrov", "petrov123")).isTrue();
+        assertThat(userManager.authenticate("petrov", "wrong")).isFalse();
+        assertThat(userManager.getSession("petrov")).isNull();
+    }
+
+    @Test
+    void roleIsServedFromSessionUntilUserIsChanged() {
+        userManager.addUser("cached", "pwd", "READER");
+        userManager.login("cached", "pwd");
+
+        // Изменение в обход UserManager не видно: роль берется из сессии, без запроса к БД
+        dbManager.updateSystemUser("cached", "pwd", "ADMIN");
+        assertThat(userManager.getUserRole("cached")).isEqualTo("READER");
+
+        userManager.updateUser("cached", "pwd", "ADMIN");
+        assertThat(userManager.getSession("cached")).isNull();
+        assertThat(userManager.getUserRole("cached")).isEqualTo("ADMIN");
+    }
+}
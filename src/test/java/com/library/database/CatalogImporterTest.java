@@ -0,0 +1,112 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogImporterTest {
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+    }
+
+    @Test
+    void importsBooksFromCsvWithQuotedFieldsAndIndexesThem() {
+        String csv = "author,title,year,copies\n" +
+            "\"Стругацкие, братья\",\"Пикник на обочине\",1972,3\n" +
+            "Виктор Гюго,\"Отверженные\r\n(том 1)\",1862,2\n";
+
+        CatalogImporter.Report report = dbManager.importBooks(new StringReader(csv), null);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrorCount()).isZero();
+        List<Book> found = dbManager.searchBooks("пикник");
+        assertThat(found).hasSize(1);
+        assertThat(found.get(0).getAuthor()).isEqualTo("Стругацкие, братья");
+        assertThat(found.get(0).getCopiesAvailable()).isEqualTo(3);
+        assertThat(dbManager.searchBooks("Отверженные").get(0).getTitle()).isEqualTo("Отверженные\r\n(том 1)");
+    }
+
+    @Test
+    void malformedRowsAreReportedAndSkipped() {
+        String csv = "title,author,year,copies\n" +
+            "Good One,Author,2001,1\n" +
+            "Bad Year,Author,когда-то,1\n" +
+            "Too,Few\n" +
+            ",No Title,2000,1\n" +
+            "Good Two,Author,2002,2\n";
+
+        CatalogImporter.Report report = dbManager.importBooks(new StringReader(csv), null);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrorCount()).isEqualTo(3);
+        assertThat(report.getErrors()).anySatisfy(error -> assertThat(error).startsWith("Строка 3:"));
+        assertThat(report.getErrors()).anySatisfy(error -> assertThat(error).startsWith("Строка 4:"));
+        assertThat(dbManager.searchBooks("Good")).hasSize(2);
+    }
+
+    @Test
+    void duplicateReaderCardsAreSkipped() {
+        String csv = "full_name,card_number,email\n" +
+            "Новый Читатель,NEW-1,new@test.ru\n" +
+            "Двойник Петрова,R001,copy@test.ru\n";
+
+        CatalogImporter.Report report = dbManager.importReaders(new StringReader(csv), null);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getDuplicates()).isEqualTo(1);
+        assertThat(dbManager.getReaderByCardNumber("NEW-1").getEmail()).isEqualTo("new@test.ru");
+        assertThat(dbManager.getReaderByCardNumber("R001").getFullName()).isEqualTo("Иван Петров");
+    }
+
+    @Test
+    void missingRequiredColumnFailsWithoutImporting() {
+        int before = dbManager.getTotalBooks();
+
+        CatalogImporter.Report report = dbManager.importBooks(new StringReader("title,author\nX,Y\n"), null);
+
+        assertThat(report).isNull();
+        assertThat(dbManager.getTotalBooks()).isEqualTo(before);
+    }
+
+    @Test
+    void reportsProgressAfterEachBatch() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            books.add(new Book("Batch " + i, "Importer", 2020, 1));
+        }
+        List<Long> progress = new ArrayList<>();
+
+        try (Connection conn = DriverManager.getConnection(DatabaseTestHelper.currentUrl())) {
+            CatalogImporter importer = new CatalogImporter(conn, 2, (processed, imported) -> progress.add(imported));
+            CatalogImporter.Report report = importer.importBooks(books);
+
+            assertThat(report.getImported()).isEqualTo(5);
+            assertThat(conn.getAutoCommit()).isTrue();
+        }
+        assertThat(progress).containsExactly(2L, 4L, 5L);
+        assertThat(dbManager.searchBooks("Batch")).hasSize(5);
+    }
+
+    @Test
+    void fullTextTriggerIsRestoredAfterBookImport() {
+        dbManager.importBooks(new StringReader("title,author,year,copies\nImported,Someone,2000,1\n"), null);
+
+        dbManager.addBook(new Book("Added Later", "Someone", 2001, 1));
+
+        assertThat(dbManager.searchBooks("Later")).hasSize(1);
+        assertThat(dbManager.searchBooks("Imported")).hasSize(1);
+    }
+}
@@ -0,0 +1,160 @@
+package com.library.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("library-pool-");
+        url = "jdbc:sqlite:" + dir.resolve("pool.db").toAbsolutePath();
+        pool = new ConnectionPool(url, new ConnectionPool.Config(2, 1, 200, 60_000, 0, 1, 60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            assertThat(conn.isValid(1)).isTrue();
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertThat(conn.isClosed()).isFalse();
+        }
+
+        ConnectionPool.Stats stats = pool.getStats();
+        assertThat(stats.getCreated()).isEqualTo(1);
+        assertThat(stats.getBorrows()).isEqualTo(2);
+        assertThat(stats.getIdle()).isEqualTo(1);
+        assertThat(stats.getActive()).isZero();
+    }
+
+    @Test
+    void borrowFailsWhenPoolExhausted() throws SQLException {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+
+        assertThatThrownBy(() -> pool.getConnection()).isInstanceOf(SQLException.class);
+        assertThat(pool.getStats().getWaitTimeouts()).isEqualTo(1);
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void closedHandleCannotBeUsed() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+
+        assertThat(conn.isClosed()).isTrue();
+        assertThatThrownBy(conn::createStatement).isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBackOnReturn() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (v INTEGER)");
+        }
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO t VALUES (1)");
+            }
+        }
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertThat(conn.getAutoCommit()).isTrue();
+            assertThat(rs.getInt(1)).isZero();
+        }
+    }
+
+    @Test
+    void preparedStatementsAreReusedAcrossBorrows() throws SQLException {
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement("SELECT ? + 1")) {
+                pstmt.setInt(1, i);
+                ResultSet rs = pstmt.executeQuery();
+                assertThat(rs.getInt(1)).isEqualTo(i + 1);
+            }
+        }
+
+        LruCache.Stats stats = pool.getStatementCacheStats();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedStatementIsEvicted() throws SQLException {
+        try (ConnectionPool small = new ConnectionPool(url, new ConnectionPool.Config(1, 1, 200, 60_000, 0, 1, 60_000, 2));
+             Connection conn = small.getConnection()) {
+            for (String sql : new String[]{"SELECT 1", "SELECT 2", "SELECT 1", "SELECT 3", "SELECT 2"}) {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.executeQuery();
+                }
+            }
+
+            LruCache.Stats stats = small.getStatementCacheStats();
+            // SELECT 3 вытесняет SELECT 2, затем SELECT 2 вытесняет SELECT 1
+            assertThat(stats.getHits()).isEqualTo(1);
+            assertThat(stats.getEvictions()).isEqualTo(2);
+            assertThat(stats.getSize()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void closedCachedStatementCannotBeUsedAndNestedUseGetsOwnStatement() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement outer = conn.prepareStatement("SELECT ?");
+            try (PreparedStatement nested = conn.prepareStatement("SELECT ?")) {
+                assertThat(nested).isNotSameAs(outer);
+            }
+            outer.close();
+
+            assertThat(outer.isClosed()).isTrue();
+            assertThatThrownBy(outer::executeQuery).isInstanceOf(SQLException.class);
+            try (PreparedStatement again = conn.prepareStatement("SELECT ?")) {
+                assertThat(again).isSameAs(outer);
+                assertThat(again.isClosed()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void leakIsReportedFromBorrowTimestampWithoutStackTrace() throws Exception {
+        ConnectionPool.Config config = new ConnectionPool.Config(1, 0, 200, 60_000, 50, 1, 100);
+        assertThat(config.isLeakTrace()).isFalse();
+        try (ConnectionPool leaky = new ConnectionPool(url, config)) {
+            Connection forgotten = leaky.getConnection();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (leaky.getStats().getLeaks() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertThat(leaky.getStats().getLeaks()).isEqualTo(1);
+            forgotten.close();
+        }
+    }
+}
@@ -83,5 +83,121 @@ class DatabaseManagerBooksTest {
 
         assertThat(dbManager.getBookById(added.getId())).isNull();
     }
-}
 
+    @Test
+    void keysetPageContinuesOffsetPage() {
+        List<Book> firstPage = dbManager.getBooksPage(0, 10);
+        Book tail = firstPage.get(firstPage.size() - 1);
+
+        List<Book> byKeyset = dbManager.getBooksAfter(tail.getTitle(), tail.getId(), 10);
+        List<Book> byOffset = dbManager.getBooksPage(10, 10);
+
+        assertThat(byKeyset).containsExactlyElementsOf(byOffset);
+    }
+
+    @Test
+    void searchPageAndCountAgree() {
+        int total = dbManager.countSearchBooks("Толстой");
+
+        assertThat(total).isPositive();
+        assertThat(dbManager.searchBooksPage("Толстой", 0, 100)).hasSize(total);
+        assertThat(dbManager.searchBooksPage("Толстой", total, 100)).isEmpty();
+    }
+
+    @Test
+    void catalogSearchMatchesCyrillicPrefixesIgnoringCase() {
+        List<Book> found = dbManager.searchCatalog("толст", 50);
+
+        assertThat(found).isNotEmpty()
+            .allSatisfy(book -> assertThat(book.getAuthor()).isEqualTo("Лев Толстой"));
+        assertThat(dbManager.searchCatalog("ВОЙНА МИР", 50))
+            .extracting(Book::getTitle).contains("Война и мир");
+    }
+
+    @Test
+    void catalogSearchRanksTitleMatchesFirst() {
+        dbManager.addBook(new Book("Notes about Gaiman", "Somebody Else", 2020, 1));
+
+        List<Book> found = dbManager.searchCatalog("Gaiman", 10);
+
+        assertThat(found).hasSize(1);
+        dbManager.addBook(new Book("Unrelated", "Gaiman Fan", 2021, 1));
+        assertThat(dbManager.searchCatalog("Gaiman", 10))
+            .extracting(Book::getTitle).containsExactly("Notes about Gaiman", "Unrelated");
+    }
+
+    @Test
+    void fullTextIndexFollowsUpdatesAndDeletes() {
+        dbManager.addBook(new Book("Refactoring", "Martin Fowler", 1999, 2));
+        Book book = dbManager.searchBooks("Refactoring").get(0);
+
+        book.setTitle("Refactoring 2nd Edition");
+        dbManager.updateBook(book);
+        assertThat(dbManager.searchBooks("Edition")).extracting(Book::getId).containsExactly(book.getId());
+
+        dbManager.deleteBook(book.getId());
+        assertThat(dbManager.searchBooks("Refactoring")).isEmpty();
+        assertThat(dbManager.countSearchBooks("Fowler")).isZero();
+    }
+
+    @Test
+    void matchExpressionQuotesEveryWordAsPrefix() {
+        assertThat(DatabaseManager.buildMatchExpression("Domain-Driven \"design\""))
+            .isEqualTo("\"Domain\"* \"Driven\"* \"design\"*");
+        assertThat(DatabaseManager.buildMatchExpression("  %% ")).isNull();
+    }
+
+    @Test
+    void repeatedGetBookByIdIsServedFromCacheAsCopy() {
+        int id = dbManager.getAllBooks().get(0).getId();
+        long hitsBefore = dbManager.getBookCacheStats().getHits();
+
+        Book first = dbManager.getBookById(id);
+        first.setTitle("Изменено вне БД");
+        Book second = dbManager.getBookById(id);
+
+        assertThat(dbManager.getBookCacheStats().getHits()).isEqualTo(hitsBefore + 1);
+        assertThat(second.getTitle()).isNotEqualTo("Изменено вне БД");
+    }
+
+    @Test
+    void updateAndDeleteInvalidateCachedBook() {
+        Book book = dbManager.getAllBooks().get(0);
+        dbManager.getBookById(book.getId());
+
+        book.setYear(1234);
+        dbManager.updateBook(book);
+        assertThat(dbManager.getBookById(book.getId()).getYear()).isEqualTo(1234);
+
+        dbManager.deleteBook(book.getId());
+        assertThat(dbManager.getBookById(book.getId())).isNull();
+    }
+
+    @Test
+    void searchIdsFollowSearchPageOrderAndAreCached() {
+        int[] ids = dbManager.searchBookIds("Толстой", () -> false);
+        List<Book> page = dbManager.searchBooksPage("Толстой", 0, 100);
+
+        assertThat(ids).containsExactly(page.stream().mapToInt(Book::getId).toArray());
+        assertThat(dbManager.getBooksByIds(ids, 1, ids.length)).extracting(Book::getId)
+            .containsExactly(page.subList(1, page.size()).stream().map(Book::getId).toArray(Integer[]::new));
+
+        long hits = dbManager.getSearchCacheStats().getHits();
+        assertThat(dbManager.searchBookIds("  толстой ", () -> false)).containsExactly(ids);
+        assertThat(dbManager.getSearchCacheStats().getHits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void bookChangesInvalidateSearchCacheAndCancelledSearchIsNotCached() {
+        assertThat(dbManager.searchBookIds("Кэшируемая", () -> false)).isEmpty();
+        Book book = dbManager.getAllBooks().get(0);
+        book.setTitle("Кэшируемая книга");
+        dbManager.updateBook(book);
+
+        assertThat(dbManager.searchBookIds("Кэшируемая", () -> false)).containsExactly(book.getId());
+
+        dbManager.deleteBook(book.getId());
+        assertThat(dbManager.searchBookIds("Кэшируемая", () -> true)).isNull();
+        assertThat(dbManager.searchBookIds("Кэшируемая", () -> false)).isEmpty();
+    }
+}
@@ -2,13 +2,20 @@ package com.library.database;
 
 import com.library.model.Book;
 import com.library.model.Loan;
+import com.library.model.LoanView;
 import com.library.model.Reader;
 import com.library.testutil.DatabaseTestHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -65,5 +72,100 @@ class DatabaseManagerLoansTest {
 
         assertThat(dbManager.getLoanById(loanId).getDueDate()).isEqualTo(newDueDate);
     }
-}
 
+    @Test
+    void loanViewsCarryBookTitleAndReaderName() {
+        dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(7)));
+
+        List<LoanView> views = dbManager.getAllLoanViews();
+
+        assertThat(views).hasSize(1);
+        LoanView view = views.get(0);
+        assertThat(view.getBookTitle()).isEqualTo("Loanable Book");
+        assertThat(view.getReaderName()).isEqualTo("Loan Reader");
+        assertThat(view.getStatus()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void loanViewsByReaderKeepDeletedBookRows() {
+        dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(7)));
+        dbManager.deleteBook(bookId);
+
+        List<LoanView> views = dbManager.getLoanViewsByReaderId(readerId);
+
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).getBookTitle()).isNull();
+        assertThat(dbManager.getLoanViewsByReaderId(readerId + 1000)).isEmpty();
+    }
+
+    @Test
+    void addLoanSetsGeneratedIdAndReportsSuccess() {
+        Loan loan = new Loan(bookId, readerId, LocalDate.now().plusDays(7));
+
+        LoanResult result = dbManager.addLoan(loan);
+
+        assertThat(result).isEqualTo(LoanResult.SUCCESS);
+        assertThat(dbManager.getLoanById(loan.getId())).isNotNull();
+    }
+
+    @Test
+    void addLoanWithoutFreeCopiesIsRejectedWithoutLoanRow() {
+        dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(7)));
+        dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(7)));
+
+        LoanResult result = dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(7)));
+
+        assertThat(result).isEqualTo(LoanResult.NO_COPIES_AVAILABLE);
+        assertThat(dbManager.getAllLoans()).hasSize(2);
+        assertThat(dbManager.getBookById(bookId).getCopiesAvailable()).isZero();
+    }
+
+    @Test
+    void addLoanForMissingBookReportsBookNotFound() {
+        LoanResult result = dbManager.addLoan(new Loan(bookId + 1000, readerId, LocalDate.now().plusDays(7)));
+
+        assertThat(result).isEqualTo(LoanResult.BOOK_NOT_FOUND);
+        assertThat(dbManager.getAllLoans()).isEmpty();
+    }
+
+    @Test
+    void concurrentIssuesNeverOversellCopies() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LoanResult>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(7)));
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            for (Future<LoanResult> future : results) {
+                if (future.get(30, TimeUnit.SECONDS).isSuccess()) {
+                    successes++;
+                }
+            }
+
+            assertThat(successes).isEqualTo(2);
+            assertThat(dbManager.getAllLoans()).hasSize(2);
+            assertThat(dbManager.getBookById(bookId).getCopiesAvailable()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void secondReturnIsRejectedAndDoesNotRestoreCopiesTwice() {
+        Loan loan = new Loan(bookId, readerId, LocalDate.now().plusDays(5));
+        dbManager.addLoan(loan);
+
+        assertThat(dbManager.returnLoan(loan.getId())).isEqualTo(LoanResult.SUCCESS);
+        assertThat(dbManager.returnLoan(loan.getId())).isEqualTo(LoanResult.LOAN_NOT_ACTIVE);
+
+        assertThat(dbManager.getBookById(bookId).getCopiesAvailable()).isEqualTo(2);
+    }
+}
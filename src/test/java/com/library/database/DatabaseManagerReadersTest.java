@@ -44,5 +44,17 @@ class DatabaseManagerReadersTest {
         assertThat(updated.getPhone()).isEqualTo("+70000000002");
         assertThat(updated.getEmail()).isEqualTo("updated@reader.ru");
     }
-}
 
+    @Test
+    void updateReaderInvalidatesCachedReader() {
+        Reader reader = dbManager.getReaderByCardNumber("R001");
+        dbManager.getReaderById(reader.getId());
+        long missesBefore = dbManager.getReaderCacheStats().getMisses();
+
+        reader.setFullName("Иван Петров-Водкин");
+        dbManager.updateReader(reader);
+
+        assertThat(dbManager.getReaderById(reader.getId()).getFullName()).isEqualTo("Иван Петров-Водкин");
+        assertThat(dbManager.getReaderCacheStats().getMisses()).isEqualTo(missesBefore + 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.model.DashboardStats;
+import com.library.model.Loan;
+import com.library.model.Reader;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseManagerStatisticsTest {
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+    }
+
+    @Test
+    void dashboardStatsMatchTableCountsAfterSeeding() throws SQLException {
+        DashboardStats stats = dbManager.getDashboardStats();
+
+        assertThat(stats.getTotalBooks()).isEqualTo(count("SELECT COUNT(*) FROM books")).isPositive();
+        assertThat(stats.getTotalReaders()).isEqualTo(count("SELECT COUNT(*) FROM readers")).isPositive();
+        assertThat(stats.getActiveLoans()).isZero();
+        assertThat(stats.getOverdueLoans()).isZero();
+    }
+
+    @Test
+    void countersFollowInsertsDeletesIssuesAndReturns() {
+        DashboardStats before = dbManager.getDashboardStats();
+        dbManager.addBook(new Book("Счетчик", "Триггер", 2024, 2));
+        dbManager.addReader(new Reader("Счетный Читатель", "CARD-STATS", "", "", ""));
+        int bookId = dbManager.searchBooks("Счетчик").get(0).getId();
+        int readerId = dbManager.getReaderByCardNumber("CARD-STATS").getId();
+
+        Loan overdue = new Loan(bookId, readerId, LocalDate.now().minusDays(3));
+        dbManager.addLoan(overdue);
+        dbManager.addLoan(new Loan(bookId, readerId, LocalDate.now().plusDays(14)));
+
+        DashboardStats issued = dbManager.getDashboardStats();
+        assertThat(issued.getTotalBooks()).isEqualTo(before.getTotalBooks() + 1);
+        assertThat(issued.getTotalReaders()).isEqualTo(before.getTotalReaders() + 1);
+        assertThat(issued.getActiveLoans()).isEqualTo(2);
+        assertThat(issued.getOverdueLoans()).isEqualTo(1);
+
+        dbManager.returnLoan(overdue.getId());
+        dbManager.deleteBook(dbManager.searchBooks("Счетчик").get(0).getId());
+
+        DashboardStats after = dbManager.getDashboardStats();
+        assertThat(after.getTotalBooks()).isEqualTo(before.getTotalBooks());
+        assertThat(after.getActiveLoans()).isEqualTo(1);
+        assertThat(after.getOverdueLoans()).isZero();
+        assertThat(dbManager.getActiveLoans()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkImportIsCountedByTriggers() {
+        int before = dbManager.getTotalBooks();
+
+        dbManager.importBooks(new java.io.StringReader("title,author,year,copies\nA,B,2000,1\nC,D,2001,1\n"), null);
+
+        assertThat(dbManager.getTotalBooks()).isEqualTo(before + 2);
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DatabaseTestHelper.currentUrl());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.getInt(1);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.library.database;
 
+import com.library.model.Reader;
 import com.library.testutil.DatabaseTestHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,5 +51,24 @@ class DatabaseManagerUsersTest {
 
         assertThat(dbManager.systemUserExists("delete_me")).isFalse();
     }
-}
 
+    @Test
+    void seededReaderAccountIsLinkedToItsReader() {
+        Reader reader = dbManager.getReaderByUsername("petrov");
+
+        assertThat(reader).isNotNull();
+        assertThat(reader.getCardNumber()).isEqualTo("R001");
+        assertThat(reader.getFullName()).isEqualTo("Иван Петров");
+    }
+
+    @Test
+    void unlinkedUserHasNoReaderUntilLinked() {
+        dbManager.addSystemUser("reader_new", "pwd", "READER");
+        assertThat(dbManager.getReaderByUsername("reader_new")).isNull();
+
+        Reader reader = dbManager.getReaderByCardNumber("R008");
+        assertThat(dbManager.linkUserToReader("reader_new", reader.getId())).isTrue();
+
+        assertThat(dbManager.getReaderByUsername("reader_new").getFullName()).isEqualTo("Елена Иванова");
+    }
+}
@@ -0,0 +1,130 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.model.Reader;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryStorageTest {
+
+    private InMemoryStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.shutdown();
+    }
+
+    @Test
+    void sampleCatalogMatchesSqliteOrderAndSearch() {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+
+        assertThat(storage.getTotalBooks()).isEqualTo(dbManager.getTotalBooks());
+        assertThat(storage.getTotalReaders()).isEqualTo(dbManager.getTotalReaders());
+        assertThat(storage.getBooksPage(10, 20)).extracting(Book::getTitle)
+            .containsExactlyElementsOf(dbManager.getBooksPage(10, 20).stream().map(Book::getTitle)::iterator);
+        Book tenth = storage.getBooksPage(9, 1).get(0);
+        assertThat(storage.getBooksAfter(tenth.getTitle(), tenth.getId(), 5))
+            .isEqualTo(storage.getBooksPage(10, 5));
+        // Ранжирование у SQLite свое, поэтому сравниваются только найденные книги
+        for (String query : List.of("толстой", "Гарри Пот", "стихо", "Метро 2033", "нет такой книги")) {
+            assertThat(storage.searchBooks(query)).extracting(Book::getTitle)
+                .containsExactlyInAnyOrderElementsOf(dbManager.searchBooks(query).stream().map(Book::getTitle)::iterator);
+        }
+        assertThat(storage.getReaderByUsername("petrov").getCardNumber()).isEqualTo("R001");
+        assertThat(storage.findUserByCredentials("admin", "admin").getRole()).isEqualTo("ADMIN");
+        assertThat(storage.findUserByCredentials("admin", "wrong")).isNull();
+    }
+
+    @Test
+    void loanLifecycleKeepsCopiesAndCountersConsistent() {
+        Book book = new Book("Книга в памяти", "Автор", 2024, 1);
+        storage.addBook(book);
+        int readerId = storage.getReaderByCardNumber("R001").getId();
+        Loan loan = new Loan(book.getId(), readerId, LocalDate.now().plusDays(3));
+
+        assertThat(storage.addLoan(loan)).isEqualTo(LoanResult.SUCCESS);
+        assertThat(storage.addLoan(new Loan(book.getId(), readerId, LocalDate.now().plusDays(3))))
+            .isEqualTo(LoanResult.NO_COPIES_AVAILABLE);
+        assertThat(storage.getBookById(book.getId()).getCopiesAvailable()).isZero();
+        assertThat(storage.getLoanViewsByReaderId(readerId).get(0).getBookTitle()).isEqualTo("Книга в памяти");
+
+        assertThat(storage.markOverdue(LocalDate.now().plusDays(4))).extracting(Loan::getId).containsExactly(loan.getId());
+        assertThat(storage.getDashboardStats().getOverdueLoans()).isEqualTo(1);
+        assertThat(storage.getActiveLoans()).isEqualTo(1);
+
+        storage.extendLoan(loan.getId(), LocalDate.now().plusDays(14));
+        assertThat(storage.getLoanById(loan.getId()).getStatus()).isEqualTo("ACTIVE");
+        assertThat(storage.getOverdueLoans()).isZero();
+
+        assertThat(storage.returnLoan(loan.getId())).isEqualTo(LoanResult.SUCCESS);
+        assertThat(storage.returnLoan(loan.getId())).isEqualTo(LoanResult.LOAN_NOT_ACTIVE);
+        assertThat(storage.getBookById(book.getId()).getCopiesAvailable()).isEqualTo(1);
+        assertThat(storage.getActiveLoans()).isZero();
+    }
+
+    @Test
+    void concurrentLoansNeverOverbook() throws Exception {
+        Book book = new Book("Популярная", "Автор", 2024, 5);
+        storage.addBook(book);
+        int readerId = storage.getReaderByCardNumber("R002").getId();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<LoanResult>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                results.add(executor.submit(() -> storage.addLoan(new Loan(book.getId(), readerId, LocalDate.now().plusDays(7)))));
+            }
+            int issued = 0;
+            for (Future<LoanResult> result : results) {
+                if (result.get() == LoanResult.SUCCESS) {
+                    issued++;
+                }
+            }
+            assertThat(issued).isEqualTo(5);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(storage.getBookById(book.getId()).getCopiesAvailable()).isZero();
+        assertThat(storage.getLoansByReaderId(readerId)).hasSize(5);
+    }
+
+    @Test
+    void csvImportAndEditsUpdateIndexes() {
+        CatalogImporter.Report report = storage.importBooks(new StringReader(
+            "title,author,year,copies\nКвантовая физика,Иванов,2020,2\nбез года,Автор,,1\n"), null);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrorCount()).isEqualTo(1);
+
+        Book imported = storage.searchBooks("квантов").get(0);
+        imported.setTitle("Классическая механика");
+        storage.updateBook(imported);
+        assertThat(storage.searchBooks("квантов")).isEmpty();
+        assertThat(storage.searchBooks("механ")).extracting(Book::getId).containsExactly(imported.getId());
+
+        storage.deleteBook(imported.getId());
+        assertThat(storage.searchBooks("иванов")).isEmpty();
+        assertThat(storage.getBookById(imported.getId())).isNull();
+
+        Reader duplicate = new Reader("Дубликат", "R001", "", "", "");
+        storage.addReader(duplicate);
+        assertThat(duplicate.getId()).isZero();
+        assertThat(storage.getReaderByCardNumber("R001").getFullName()).isEqualTo("Иван Петров");
+    }
+}
@@ -0,0 +1,82 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.model.LoanView;
+import com.library.model.Reader;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanArchiverTest {
+
+    @Test
+    void returnedLoansMoveInBatchesAndHistoryUnionsArchiveOnlyWhenAsked() throws SQLException {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+        dbManager.addBook(new Book("Архивная", "Автор", 2024, 10));
+        dbManager.addReader(new Reader("Постоянный читатель", "CARD-ARCHIVE", "", "", ""));
+        int bookId = dbManager.searchBooks("Архивная").get(0).getId();
+        int readerId = dbManager.getReaderByCardNumber("CARD-ARCHIVE").getId();
+        List<Integer> returnedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Loan loan = new Loan(bookId, readerId, LocalDate.now().plusDays(7));
+            dbManager.addLoan(loan);
+            dbManager.returnLoan(loan.getId());
+            returnedIds.add(loan.getId());
+        }
+        Loan active = new Loan(bookId, readerId, LocalDate.now().plusDays(7));
+        dbManager.addLoan(active);
+
+        ConnectionPool pool = new ConnectionPool(DatabaseTestHelper.currentUrl(),
+            new ConnectionPool.Config(1, 0, 2_000, 60_000, 0, 1, 60_000));
+        LoanArchiver archiver = new LoanArchiver(pool, new LoanArchiver.Config(0, 2, 0));
+        List<Integer> batches = new ArrayList<>();
+        archiver.addListener(batches::add);
+        try {
+            // Возвращенные сегодня выдачи моложе границы и остаются на месте
+            assertThat(archiver.archive(LocalDate.now())).isZero();
+
+            assertThat(archiver.archive(LocalDate.now().plusDays(1))).isEqualTo(5);
+            assertThat(archiver.getBatchCount()).isEqualTo(3);
+            assertThat(batches).containsExactly(2, 2, 1);
+            assertThat(archiver.archive(LocalDate.now().plusDays(1))).isZero();
+        } finally {
+            archiver.close();
+            pool.close();
+        }
+
+        assertThat(dbManager.getAllLoanViews()).extracting(LoanView::getId).containsExactly(active.getId());
+        assertThat(dbManager.getLoanViewsByReaderId(readerId)).hasSize(1);
+        List<LoanView> history = dbManager.getLoanViewsByReaderId(readerId, true);
+        assertThat(history).extracting(LoanView::getId).containsAll(returnedIds).contains(active.getId()).hasSize(6);
+        assertThat(history).extracting(LoanView::getBookTitle).containsOnly("Архивная");
+        assertThat(dbManager.getAllLoanViews(true)).hasSize(6);
+        assertThat(dbManager.getActiveLoans()).isEqualTo(1);
+        assertThat(dbManager.getBookById(bookId).getCopiesAvailable()).isEqualTo(9);
+        assertThat(dbManager.returnLoan(returnedIds.get(0))).isEqualTo(LoanResult.LOAN_NOT_ACTIVE);
+    }
+
+    @Test
+    void recentlyReturnedLoanStaysUntilItIsOlderThanConfiguredAge() throws SQLException {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+        int readerId = dbManager.getReaderByCardNumber("R001").getId();
+        int bookId = dbManager.getAllBooks().get(0).getId();
+        Loan loan = new Loan(bookId, readerId, LocalDate.now().plusDays(7));
+        dbManager.addLoan(loan);
+        dbManager.returnLoan(loan.getId());
+
+        assertThat(dbManager.getLoanArchiver().getConfig().getAfterDays()).isEqualTo(365);
+        assertThat(dbManager.getLoanArchiver().getConfig().getInitialDelayMs())
+            .isLessThan(dbManager.getLoanArchiver().getConfig().getIntervalMs());
+        assertThat(dbManager.getLoanArchiver().archiveExpired()).isZero();
+        assertThat(dbManager.archiveReturnedLoans(LocalDate.now().plusDays(1))).isEqualTo(1);
+        assertThat(dbManager.getLoanById(loan.getId())).isNull();
+        assertThat(dbManager.getLoanArchiver().getArchivedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.library.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    @Test
+    void repeatedLookupIsServedFromCache() {
+        LruCache<Integer, String> cache = new LruCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> "v" + loads.incrementAndGet());
+        String second = cache.get(1, key -> "v" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.get(1, key -> "one");
+        cache.get(2, key -> "two");
+        cache.get(1, key -> "reloaded");
+
+        cache.get(3, key -> "three");
+
+        assertThat(cache.get(1, key -> "reloaded")).isEqualTo("one");
+        assertThat(cache.get(2, key -> "reloaded")).isEqualTo("reloaded");
+        assertThat(cache.getStats().getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    void valueLoadedDuringInvalidationIsNotCached() {
+        LruCache<Integer, String> cache = new LruCache<>(10);
+
+        String stale = cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertThat(stale).isEqualTo("stale");
+        assertThat(cache.get(1, key -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get(2, key -> null)).isNull();
+        assertThat(cache.getStats().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void putReplacesValueWithoutDroppingConcurrentLoadOfAnotherKey() {
+        LruCache<Integer, String> cache = new LruCache<>(10);
+        cache.put(1, "old");
+
+        String loaded = cache.get(2, key -> {
+            cache.put(1, "new");
+            return "two";
+        });
+
+        assertThat(loaded).isEqualTo("two");
+        assertThat(cache.getIfPresent(1)).isEqualTo("new");
+        assertThat(cache.getIfPresent(2)).isEqualTo("two");
+        assertThat(cache.getIfPresent(3)).isNull();
+    }
+}
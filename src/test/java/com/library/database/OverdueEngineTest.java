@@ -0,0 +1,99 @@
+package com.library.database;
+
+import com.library.event.ChangeEvent;
+import com.library.event.ChangeEventBus;
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.model.Reader;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverdueEngineTest {
+
+    private DatabaseManager dbManager;
+    private OverdueEngine engine;
+    private int bookId;
+    private int readerId;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+        engine = dbManager.getOverdueEngine();
+        dbManager.addBook(new Book("Просрочка", "Автор", 2024, 3));
+        dbManager.addReader(new Reader("Должник", "CARD-OVERDUE", "", "", ""));
+        bookId = dbManager.searchBooks("Просрочка").get(0).getId();
+        readerId = dbManager.getReaderByCardNumber("CARD-OVERDUE").getId();
+    }
+
+    @Test
+    void marksOnlyLoansPastDueAndReportsEachOnce() throws SQLException {
+        Loan soon = new Loan(bookId, readerId, LocalDate.now().plusDays(5));
+        Loan later = new Loan(bookId, readerId, LocalDate.now().plusDays(30));
+        Loan returned = new Loan(bookId, readerId, LocalDate.now().plusDays(1));
+        dbManager.addLoan(soon);
+        dbManager.addLoan(later);
+        dbManager.addLoan(returned);
+        dbManager.returnLoan(returned.getId());
+        List<List<Loan>> notified = new ArrayList<>();
+        engine.addListener(notified::add);
+
+        List<Loan> marked = engine.markOverdue(LocalDate.now().plusDays(10));
+
+        assertThat(marked).extracting(Loan::getId).containsExactly(soon.getId());
+        assertThat(engine.getLastNewlyOverdue()).isEqualTo(marked);
+        assertThat(notified).containsExactly(marked);
+        assertThat(dbManager.getLoanById(soon.getId()).getStatus()).isEqualTo("OVERDUE");
+        assertThat(dbManager.getLoanById(later.getId()).getStatus()).isEqualTo("ACTIVE");
+        assertThat(dbManager.getLoanById(returned.getId()).getStatus()).isEqualTo("RETURNED");
+        assertThat(dbManager.getActiveLoans()).isEqualTo(2);
+        assertThat(dbManager.getOverdueLoans()).isEqualTo(1);
+
+        assertThat(engine.markOverdue(LocalDate.now().plusDays(10))).isEmpty();
+        assertThat(notified).hasSize(1);
+    }
+
+    @Test
+    void overdueLoanCanBeExtendedOrReturned() throws SQLException {
+        Loan extended = new Loan(bookId, readerId, LocalDate.now().plusDays(2));
+        Loan returned = new Loan(bookId, readerId, LocalDate.now().plusDays(2));
+        dbManager.addLoan(extended);
+        dbManager.addLoan(returned);
+        engine.markOverdue(LocalDate.now().plusDays(3));
+        assertThat(dbManager.getOverdueLoans()).isEqualTo(2);
+
+        dbManager.extendLoan(extended.getId(), LocalDate.now().plusDays(14));
+        assertThat(dbManager.returnLoan(returned.getId())).isEqualTo(LoanResult.SUCCESS);
+
+        assertThat(dbManager.getLoanById(extended.getId()).getStatus()).isEqualTo("ACTIVE");
+        assertThat(dbManager.getOverdueLoans()).isZero();
+        assertThat(dbManager.getActiveLoans()).isEqualTo(1);
+        assertThat(dbManager.getBookById(bookId).getCopiesAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void largeRunIsPublishedAsSingleBulkEvent() {
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        ChangeEventBus bus = new ChangeEventBus(Runnable::run);
+        bus.subscribe(batches::add);
+        List<Loan> many = new ArrayList<>();
+        for (int i = 1; i <= OverdueEngine.BULK_EVENT_THRESHOLD + 1; i++) {
+            many.add(new Loan(i, bookId, readerId, LocalDate.now().minusDays(20), null,
+                LocalDate.now().minusDays(1), "OVERDUE"));
+        }
+
+        OverdueEngine.publish(bus, many);
+        OverdueEngine.publish(bus, many.subList(0, 2));
+
+        assertThat(batches).hasSize(3);
+        assertThat(batches.get(0)).containsExactly(ChangeEvent.LoansChanged.ALL);
+        assertThat(batches.get(1)).singleElement().isInstanceOf(ChangeEvent.LoanOverdue.class);
+    }
+}
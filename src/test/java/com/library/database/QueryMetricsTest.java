@@ -0,0 +1,95 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryMetricsTest {
+
+    @Test
+    void everyFacadeCallIsCountedIncludingCacheHitsAndExposedViaJmx() throws Exception {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+        QueryMetrics metrics = dbManager.getQueryMetrics();
+        metrics.reset();
+        LibraryStorage storage = metrics.instrument(LibraryStorage.class, dbManager);
+        Book book = storage.getAllBooks().get(0);
+
+        // Первый вызов идет в БД, второй отвечает кэш книг — учитываются оба
+        storage.getBookById(book.getId());
+        storage.getBookById(book.getId());
+        storage.searchBooks("Толстой");
+
+        QueryMetrics.Operation getById = metrics.getOperation("DatabaseManager.getBookById");
+        assertThat(getById.getCount()).isEqualTo(2);
+        assertThat(getById.getErrorCount()).isZero();
+        assertThat(getById.getLatencyHistogram()).hasSize(QueryMetrics.BUCKET_BOUNDS_MICROS.length + 1);
+        assertThat(metrics.getOperation("DatabaseManager.getAllBooks").getCount()).isEqualTo(1);
+        assertThat(metrics.getOperationNames()).contains("DatabaseManager.getAllBooks", "DatabaseManager.searchBooks");
+
+        Object jmxCount = ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(QueryMetrics.operationName("DatabaseManager.getBookById"), "Count");
+        assertThat(jmxCount).isEqualTo(2L);
+    }
+
+    @Test
+    void failedCallIsCountedAsError() {
+        QueryMetrics metrics = new QueryMetrics(-1, 1);
+
+        assertThatThrownBy(() -> metrics.time("import", () -> {
+            throw new SQLException("нет таблицы");
+        })).isInstanceOf(SQLException.class);
+
+        assertThat(metrics.getOperation("import").getCount()).isEqualTo(1);
+        assertThat(metrics.getOperation("import").getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void slowStatementsAreLoggedWithParameterTypesAndCurrentOperation() throws Throwable {
+        Path dir = Files.createTempDirectory("library-metrics-");
+        QueryMetrics metrics = new QueryMetrics(0, 2);
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("metrics.db").toAbsolutePath(),
+            new ConnectionPool.Config(1, 0, 200, 60_000, 0, 1, 60_000), connection -> { }, metrics);
+        metrics.time("load", () -> {
+            try (Connection conn = pool.getConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TABLE t (id INTEGER PRIMARY KEY, name TEXT)");
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT abs(?) FROM t WHERE name = ?")) {
+                    pstmt.setLong(1, Long.MIN_VALUE);
+                    pstmt.setString(2, "x");
+                    pstmt.executeQuery();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT abs(?)")) {
+                    pstmt.setLong(1, Long.MIN_VALUE);
+                    boolean failed = false;
+                    try {
+                        pstmt.executeQuery();
+                    } catch (SQLException e) {
+                        failed = true;
+                    }
+                    assertThat(failed).isTrue();
+                }
+            }
+            return null;
+        });
+        pool.close();
+
+        // Выражения идут только в журнал: операция load учтена одним вызовом
+        assertThat(metrics.getOperation("load").getCount()).isEqualTo(1);
+        assertThat(metrics.getOperation("load").getErrorCount()).isZero();
+        assertThat(metrics.getSlowQueries()).hasSize(2);
+        assertThat(metrics.getSlowQueries().get(0)).contains("load", "[Long, String]", "SELECT abs(?) FROM t WHERE name = ?");
+        assertThat(metrics.getSlowQueries().get(1)).contains("(ошибка)", "[Long]");
+    }
+}
@@ -0,0 +1,102 @@
+package com.library.database;
+
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaMigratorTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("library-migrations-");
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("m.db").toAbsolutePath());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void appliesPendingMigrationsOnceInOrder() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+            Migration.of(2, "second", "INSERT INTO t VALUES (2)"),
+            Migration.of(1, "first", "CREATE TABLE t (v INTEGER)", "INSERT INTO t VALUES (1)")
+        ));
+
+        assertThat(migrator.migrate(conn)).isEqualTo(2);
+        assertThat(migrator.migrate(conn)).isZero();
+
+        assertThat(migrator.getCurrentVersion(conn)).isEqualTo(2);
+        assertThat(count("SELECT COUNT(*) FROM t")).isEqualTo(2);
+    }
+
+    @Test
+    void failedMigrationIsRolledBackAndStopsTheRun() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+            Migration.of(1, "ok", "CREATE TABLE t (v INTEGER)"),
+            Migration.of(2, "broken", "INSERT INTO t VALUES (1)", "INSERT INTO missing VALUES (1)"),
+            Migration.of(3, "never", "INSERT INTO t VALUES (3)")
+        ));
+
+        assertThatThrownBy(() -> migrator.migrate(conn)).isInstanceOf(SQLException.class);
+
+        assertThat(migrator.getCurrentVersion(conn)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM t")).isZero();
+        assertThat(conn.getAutoCommit()).isTrue();
+    }
+
+    @Test
+    void duplicateVersionsAreRejected() {
+        assertThatThrownBy(() -> new SchemaMigrator(List.of(
+            Migration.of(1, "a", "SELECT 1"),
+            Migration.of(1, "b", "SELECT 1")
+        ))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void libraryDatabaseIsMigratedAndLoanQueriesUseIndexes() throws SQLException {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+        int latest = new SchemaMigrator(SchemaMigrator.libraryMigrations()).getLatestVersion();
+
+        assertThat(dbManager.getSchemaVersion()).isEqualTo(latest);
+
+        try (Connection db = DriverManager.getConnection(DatabaseTestHelper.currentUrl())) {
+            assertThat(queryPlan(db, "SELECT * FROM loans WHERE reader_id = 1 ORDER BY issue_date DESC"))
+                .contains("idx_loans_reader_issue");
+            assertThat(queryPlan(db, "SELECT COUNT(*) FROM loans WHERE status = 'ACTIVE' AND due_date < '2024-01-01'"))
+                .contains("idx_loans_status_due");
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.getInt(1);
+        }
+    }
+
+    private static String queryPlan(Connection db, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = db.createStatement(); ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString("detail")).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.database;
+
+import com.library.model.Book;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageProfileTest {
+
+    private DatabaseManager dbManager;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+    }
+
+    @Test
+    void poolConnectionsUseBalancedProfileByDefault() throws Exception {
+        assertThat(dbManager.getStorageProfile()).isSameAs(StorageProfile.BALANCED);
+        assertThat(dbManager.getCheckpointer()).isNotNull();
+
+        try (ConnectionPool pool = new ConnectionPool(DatabaseTestHelper.currentUrl(),
+                new ConnectionPool.Config(1, 0, 1_000, 60_000, 0, 1, 60_000), StorageProfile.BALANCED::apply);
+             Connection conn = pool.getConnection()) {
+            assertThat(pragma(conn, "journal_mode")).isEqualTo("wal");
+            assertThat(pragma(conn, "synchronous")).isEqualTo("1");
+            assertThat(pragma(conn, "busy_timeout")).isEqualTo("5000");
+            assertThat(pragma(conn, "temp_store")).isEqualTo("2");
+            assertThat(pragma(conn, "cache_size")).isEqualTo("-16384");
+            assertThat(pragma(conn, "wal_autocheckpoint")).isEqualTo("0");
+        }
+    }
+
+    @Test
+    void unknownProfileNameIsRejected() {
+        assertThat(StorageProfile.forName(" Legacy ")).isSameAs(StorageProfile.LEGACY);
+        assertThatThrownBy(() -> StorageProfile.forName("turbo"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("turbo");
+    }
+
+    @Test
+    void checkpointTruncatesGrownWal() throws SQLException {
+        for (int i = 0; i < 50; i++) {
+            dbManager.addBook(new Book("WAL " + i, "Checkpoint", 2024, 1));
+        }
+        Path wal = Path.of(DatabaseTestHelper.currentUrl().substring("jdbc:sqlite:".length()) + "-wal");
+
+        try (ConnectionPool pool = new ConnectionPool(DatabaseTestHelper.currentUrl(),
+                new ConnectionPool.Config(1, 0, 1_000, 60_000, 0, 1, 60_000), StorageProfile.BALANCED::apply);
+             WalCheckpointer forced = new WalCheckpointer(pool, 60_000, 1)) {
+            assertThat(forced.getLastWalPages()).isEqualTo(-1);
+            assertThat(forced.checkpoint()).isPositive();
+            assertThat(forced.getTruncateCount()).isEqualTo(1);
+        }
+
+        assertThat(wal).satisfies(path -> assertThat(Files.size(path)).isZero());
+        assertThat(dbManager.searchBooks("Checkpoint")).hasSize(50);
+    }
+
+    private static String pragma(Connection conn, String name) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.event;
+
+import com.library.database.DatabaseManager;
+import com.library.database.LoanResult;
+import com.library.model.Book;
+import com.library.model.Loan;
+import com.library.model.Reader;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeEventBusTest {
+
+    private final Queue<Runnable> frames = new ArrayDeque<>();
+    private final ChangeEventBus bus = new ChangeEventBus(frames::add);
+    private final List<List<ChangeEvent>> batches = new ArrayList<>();
+
+    @Test
+    void eventsOfOneFrameAreCoalescedPerEntity() {
+        bus.subscribe(batches::add);
+
+        bus.publish(new ChangeEvent.BookChanged(5, ChangeEvent.Kind.CREATED));
+        bus.publish(new ChangeEvent.BookChanged(5, ChangeEvent.Kind.UPDATED));
+        bus.publish(new ChangeEvent.LoanIssued(9, 5, 1));
+        bus.publish(new ChangeEvent.LoanExtended(9, 5, 1));
+        bus.publish(new ChangeEvent.BookChanged(6, ChangeEvent.Kind.UPDATED));
+
+        assertThat(frames).hasSize(1);
+        frames.poll().run();
+
+        assertThat(batches).hasSize(1);
+        List<ChangeEvent> batch = batches.get(0);
+        assertThat(batch).hasSize(3);
+        assertThat(((ChangeEvent.BookChanged) batch.get(0)).getKind()).isEqualTo(ChangeEvent.Kind.CREATED);
+        assertThat(batch.get(1)).isInstanceOf(ChangeEvent.LoanIssued.class);
+        assertThat(((ChangeEvent.BookChanged) batch.get(2)).getBookId()).isEqualTo(6);
+    }
+
+    @Test
+    void eventsAfterFlushGoToNextBatchAndUnsubscribeStopsDelivery() {
+        ChangeEventBus.Subscription subscription = bus.subscribe(batches::add);
+
+        bus.publish(new ChangeEvent.ReaderChanged(1, ChangeEvent.Kind.UPDATED));
+        frames.poll().run();
+        bus.publish(new ChangeEvent.ReaderChanged(1, ChangeEvent.Kind.UPDATED));
+        frames.poll().run();
+        assertThat(batches).hasSize(2);
+
+        subscription.close();
+        bus.publish(new ChangeEvent.ReaderChanged(1, ChangeEvent.Kind.UPDATED));
+        assertThat(frames).isEmpty();
+        assertThat(batches).hasSize(2);
+    }
+
+    @Test
+    void databaseManagerPublishesLoanAndBookChanges() throws Exception {
+        DatabaseManager dbManager = DatabaseTestHelper.setupTestDatabase();
+        List<ChangeEvent> received = new ArrayList<>();
+        dbManager.getEventBus().subscribe(received::addAll);
+
+        Book book = dbManager.getAllBooks().stream().filter(b -> b.getCopiesAvailable() > 0).findFirst().orElseThrow();
+        Reader reader = dbManager.getAllReaders().get(0);
+        Loan loan = new Loan(book.getId(), reader.getId(), LocalDate.now().plusDays(14));
+        assertThat(dbManager.addLoan(loan)).isEqualTo(LoanResult.SUCCESS);
+        book.setTitle("Новое название");
+        dbManager.updateBook(book);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertThat(received).hasSize(2);
+        ChangeEvent.LoanIssued issued = (ChangeEvent.LoanIssued) received.get(0);
+        assertThat(issued.getLoanId()).isEqualTo(loan.getId());
+        assertThat(issued.getBookId()).isEqualTo(book.getId());
+        assertThat(issued.getReaderId()).isEqualTo(reader.getId());
+        assertThat(((ChangeEvent.BookChanged) received.get(1)).getBookId()).isEqualTo(book.getId());
+    }
+}
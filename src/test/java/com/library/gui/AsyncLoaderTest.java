@@ -0,0 +1,114 @@
+package com.library.gui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncLoaderTest {
+
+    // Ручные очереди вместо фонового пула и EDT: тест сам решает, когда выполнять задачи
+    private final Queue<Runnable> background = new ArrayDeque<>();
+    private final Queue<Runnable> ui = new ArrayDeque<>();
+    private final AsyncLoader loader = new AsyncLoader(background::add, ui::add);
+
+    @Test
+    void supersededRequestIsNotExecutedAndOnlyLatestResultDelivered() {
+        AtomicInteger queries = new AtomicInteger();
+        List<String> delivered = new ArrayList<>();
+
+        loader.load("books", () -> "old-" + queries.incrementAndGet(), delivered::add);
+        loader.load("books", () -> "new-" + queries.incrementAndGet(), delivered::add);
+        drain();
+
+        assertThat(queries).hasValue(1);
+        assertThat(delivered).containsExactly("new-1");
+        assertThat(loader.isBusy()).isFalse();
+    }
+
+    @Test
+    void resultOfRequestSupersededWhileRunningIsDropped() {
+        List<String> delivered = new ArrayList<>();
+        loader.load("books", () -> "old", delivered::add);
+        background.poll().run();
+
+        loader.load("books", () -> "new", delivered::add);
+        drain();
+
+        assertThat(delivered).containsExactly("new");
+    }
+
+    @Test
+    void runningCancellableQuerySeesThatItWasSuperseded() {
+        List<Boolean> seen = new ArrayList<>();
+        List<String> delivered = new ArrayList<>();
+        loader.loadCancellable("search", superseded -> {
+            seen.add(superseded.getAsBoolean());
+            loader.load("search", () -> "new", delivered::add);
+            seen.add(superseded.getAsBoolean());
+            return "old";
+        }, delivered::add);
+        drain();
+
+        assertThat(seen).containsExactly(false, true);
+        assertThat(delivered).containsExactly("new");
+    }
+
+    @Test
+    void differentKeysDoNotCancelEachOtherAndBusyStateIsReported() {
+        List<Boolean> busyStates = new ArrayList<>();
+        List<Object> delivered = new ArrayList<>();
+        loader.addBusyListener(busyStates::add);
+
+        loader.load("readers", () -> "readers", delivered::add);
+        loader.load("loans", () -> 42, delivered::add);
+        assertThat(loader.isBusy()).isTrue();
+        drain();
+
+        assertThat(delivered).containsExactly("readers", 42);
+        assertThat(busyStates).containsExactly(true, false);
+    }
+
+    @Test
+    void failedQueryIsNotDeliveredAndReleasesBusyState() {
+        List<Object> delivered = new ArrayList<>();
+
+        loader.load("books", () -> {
+            throw new IllegalStateException("БД недоступна");
+        }, delivered::add);
+        drain();
+
+        assertThat(delivered).isEmpty();
+        assertThat(loader.isBusy()).isFalse();
+    }
+
+    @Test
+    void finishedKeysAreForgottenButSupersededOnesKeepTheLatestRequest() {
+        List<Object> delivered = new ArrayList<>();
+        loader.load("books", () -> "old", delivered::add);
+        background.poll().run();
+        for (int loanId = 1; loanId <= 100; loanId++) {
+            int id = loanId;
+            loader.load("loan:" + loanId, () -> id, delivered::add);
+        }
+        assertThat(loader.getTrackedKeyCount()).isEqualTo(101);
+
+        loader.load("books", () -> "new", delivered::add);
+        drain();
+
+        assertThat(delivered).hasSize(101).contains("new").doesNotContain("old");
+        assertThat(loader.getTrackedKeyCount()).isZero();
+    }
+
+    private void drain() {
+        while (!background.isEmpty() || !ui.isEmpty()) {
+            Runnable task = !background.isEmpty() ? background.poll() : ui.poll();
+            task.run();
+        }
+    }
+}
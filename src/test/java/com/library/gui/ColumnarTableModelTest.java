@@ -0,0 +1,88 @@
+package com.library.gui;
+
+import com.library.model.LoanView;
+import com.library.model.Reader;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarTableModelTest {
+
+    @Test
+    void bulkLoadGrowsColumnsAndSharesRepeatedStrings() {
+        ReaderTableModel model = new ReaderTableModel();
+        List<Reader> readers = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            // Каждое значение статуса — отдельный экземпляр String
+            readers.add(new Reader(i + 1, "Читатель " + i, "R" + i, null, "", null, null, new String("ACTIVE")));
+        }
+        model.setRows(readers);
+
+        assertThat(model.getRowCount()).isEqualTo(1_000);
+        assertThat(model.getInt(999, 0)).isEqualTo(1_000);
+        assertThat(model.getValueAt(999, 1)).isEqualTo("Читатель 999");
+        assertThat(model.getValueAt(0, 4)).isNull();
+        assertThat(model.getValueAt(999, 5)).isSameAs(model.getValueAt(0, 5));
+        assertThat(model.getColumnClass(0)).isEqualTo(Integer.class);
+        assertThat(model.getColumnClass(1)).isEqualTo(String.class);
+        assertThatThrownBy(() -> model.getString(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void appendReplaceUpsertAndRemoveFireSingleRowEvents() {
+        ReaderTableModel model = new ReaderTableModel();
+        model.setRows(List.of(reader(1, "Анна"), reader(2, "Борис")));
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        model.append(reader(3, "Вера"));
+        model.replaceRow(0, reader(1, "Анна Иванова"));
+        model.upsert(reader(2, "Борис Петров"));
+        model.upsert(reader(4, "Глеб"));
+        model.remove(1);
+
+        assertThat(events).extracting(TableModelEvent::getType).containsExactly(
+            TableModelEvent.INSERT, TableModelEvent.UPDATE, TableModelEvent.UPDATE,
+            TableModelEvent.INSERT, TableModelEvent.DELETE);
+        assertThat(events).extracting(TableModelEvent::getFirstRow).containsExactly(2, 0, 1, 3, 0);
+        assertThat(model.getRowCount()).isEqualTo(3);
+        assertThat(model.getString(0, 1)).isEqualTo("Борис Петров");
+        assertThat(model.indexOf(4)).isEqualTo(2);
+        assertThat(model.indexOf(1)).isEqualTo(-1);
+    }
+
+    @Test
+    void replacedValuesLeaveDictionaryAndKeyIndexFollowsInsertsAtTop() {
+        LoanTableModel model = new LoanTableModel(true);
+        model.setRows(List.of(loan(2, "ACTIVE"), loan(1, "ACTIVE")));
+        int status = model.getColumnCount() - 1;
+
+        model.upsert(loan(2, "RETURNED"));
+        model.upsert(loan(1, "RETURNED"));
+        assertThat(model.distinctValues(status)).isEqualTo(1);
+        assertThat(model.distinctValues(1)).isZero();
+
+        model.upsert(loan(3, "ACTIVE"));
+        model.remove(2);
+        assertThat(model.distinctValues(status)).isEqualTo(2);
+        assertThat(model.indexOf(3)).isZero();
+        assertThat(model.indexOf(1)).isEqualTo(1);
+        assertThat(model.indexOf(2)).isEqualTo(-1);
+        assertThat(model.getValueAt(1, status)).isEqualTo("RETURNED");
+    }
+
+    private static LoanView loan(int id, String status) {
+        return new LoanView(id, 10 + id, "Книга " + id, 5, "Читатель " + id,
+            LocalDate.of(2024, 2, 1), null, LocalDate.of(2024, 2, 15), status);
+    }
+
+    private static Reader reader(int id, String name) {
+        return new Reader(id, name, "R" + id, null, "", "", "", "ACTIVE");
+    }
+}
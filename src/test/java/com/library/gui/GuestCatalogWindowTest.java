@@ -6,6 +6,9 @@ import org.assertj.swing.edt.FailOnThreadViolationRepaintManager;
 import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.finder.WindowFinder;
+import org.assertj.swing.timing.Condition;
+import org.assertj.swing.timing.Pause;
+import org.assertj.swing.timing.Timeout;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 class GuestCatalogWindowTest {
 
     private FrameFixture window;
+    private GuestCatalogWindow frame;
     private DatabaseManager dbManager;
 
     @BeforeAll
@@ -27,9 +31,10 @@ class GuestCatalogWindowTest {
     @BeforeEach
     void setUp() {
         dbManager = DatabaseTestHelper.setupTestDatabase();
-        GuestCatalogWindow frame = GuiActionRunner.execute(GuestCatalogWindow::new);
+        frame = GuiActionRunner.execute(GuestCatalogWindow::new);
         window = new FrameFixture(frame);
         window.show();
+        awaitLoaded();
     }
 
     @AfterEach
@@ -51,6 +56,7 @@ class GuestCatalogWindowTest {
 
         window.textBox("searchField").setText("Толстой");
         window.button("searchButton").click();
+        awaitLoaded();
 
         int afterSearch = window.table("booksTable").rowCount();
         assertThat(afterSearch).isPositive();
@@ -62,9 +68,11 @@ class GuestCatalogWindowTest {
         int initial = window.table("booksTable").rowCount();
         window.textBox("searchField").setText("не_существует");
         window.button("searchButton").click();
+        awaitLoaded();
         assertThat(window.table("booksTable").rowCount()).isEqualTo(0);
 
         window.button("showAllButton").click();
+        awaitLoaded();
 
         assertThat(window.table("booksTable").rowCount()).isEqualTo(initial);
     }
@@ -77,5 +85,16 @@ class GuestCatalogWindowTest {
         login.requireVisible();
         login.cleanUp();
     }
-}
 
+    /**
+     * Данные грузятся вне EDT — ждем завершения всех фоновых запросов окна.
+     */
+    private void awaitLoaded() {
+        Pause.pause(new Condition("загрузка данных окна") {
+            @Override
+            public boolean test() {
+                return !GuiActionRunner.execute(frame::isLoading);
+            }
+        }, Timeout.timeout(10_000));
+    }
+}
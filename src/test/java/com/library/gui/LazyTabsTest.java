@@ -0,0 +1,61 @@
+package com.library.gui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyTabsTest {
+
+    private final List<String> log = new ArrayList<>();
+
+    private LazyTabs.Tab add(LazyTabs tabs, String title) {
+        return tabs.add(title, () -> {
+            log.add("build " + title);
+            return new JLabel(title);
+        }, () -> log.add("load " + title));
+    }
+
+    @Test
+    void onlySelectedTabIsBuiltAndLoadedAndDataIsKeptOnReselect() {
+        JTabbedPane pane = new JTabbedPane();
+        LazyTabs tabs = new LazyTabs(pane);
+        LazyTabs.Tab catalog = add(tabs, "catalog");
+        LazyTabs.Tab loans = add(tabs, "loans");
+
+        assertThat(log).containsExactly("build catalog", "load catalog");
+        assertThat(catalog.isLoaded()).isTrue();
+        assertThat(loans.isLoaded()).isFalse();
+
+        pane.setSelectedIndex(1);
+        pane.setSelectedIndex(0);
+        pane.setSelectedIndex(1);
+
+        assertThat(log).containsExactly("build catalog", "load catalog", "build loans", "load loans");
+    }
+
+    @Test
+    void invalidateReloadsSelectedTabNowAndOthersOnNextSelection() {
+        JTabbedPane pane = new JTabbedPane();
+        LazyTabs tabs = new LazyTabs(pane);
+        LazyTabs.Tab catalog = add(tabs, "catalog");
+        LazyTabs.Tab users = add(tabs, "users");
+        LazyTabs.Tab reports = add(tabs, "reports");
+        pane.setSelectedIndex(1);
+        pane.setSelectedIndex(0);
+        log.clear();
+
+        catalog.invalidate();
+        users.invalidate();
+        reports.invalidate();
+        assertThat(log).containsExactly("load catalog");
+
+        pane.setSelectedIndex(1);
+        pane.setSelectedIndex(2);
+        assertThat(log).containsExactly("load catalog", "load users", "build reports", "load reports");
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.gui;
+
+import com.library.model.LoanView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanTableModelTest {
+
+    private LoanTableModel model;
+    private final List<TableModelEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        model = new LoanTableModel(true);
+        model.setRows(List.of(loan(3, "ACTIVE"), loan(2, "ACTIVE"), loan(1, "RETURNED")));
+        model.addTableModelListener(events::add);
+    }
+
+    @Test
+    void upsertUpdatesExistingRowOrInsertsNewestFirst() {
+        model.upsert(loan(2, "RETURNED"));
+        model.upsert(loan(4, "ACTIVE"));
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getType()).isEqualTo(TableModelEvent.UPDATE);
+        assertThat(events.get(0).getFirstRow()).isEqualTo(1);
+        assertThat(events.get(1).getType()).isEqualTo(TableModelEvent.INSERT);
+        assertThat(events.get(1).getFirstRow()).isZero();
+        assertThat(model.getValueAt(2, 5)).isEqualTo("RETURNED");
+        assertThat(model.indexOf(1)).isEqualTo(3);
+    }
+
+    @Test
+    void removeDeletesSingleRowAndReaderViewHidesReaderColumn() {
+        model.remove(3);
+        model.remove(42);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(TableModelEvent.DELETE);
+            assertThat(event.getFirstRow()).isZero();
+        });
+        assertThat(model.getRowCount()).isEqualTo(2);
+        assertThat(model.indexOf(2)).isZero();
+
+        LoanTableModel history = new LoanTableModel(false);
+        history.setRows(List.of(loan(1, "RETURNED")));
+        assertThat(history.getColumnCount()).isEqualTo(5);
+        assertThat(history.getValueAt(0, 2)).isEqualTo("01.02.2024");
+    }
+
+    private static LoanView loan(int id, String status) {
+        return new LoanView(id, 10 + id, "Книга " + id, 5, "Читатель",
+            LocalDate.of(2024, 2, 1), null, LocalDate.now().plusDays(7), status);
+    }
+}
@@ -94,6 +94,8 @@ class LoginWindowTest {
 
         FrameFixture admin = WindowFinder.findFrame(AdminWindow.class).using(window.robot());
         admin.requireVisible();
+        window.robot().waitForIdle();
+        assertThat(((AdminWindow) admin.target()).getFirstFrameMillis()).isNotNegative();
         admin.cleanUp();
     }
 
@@ -0,0 +1,129 @@
+package com.library.gui;
+
+import com.library.database.DatabaseManager;
+import com.library.model.Book;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagedBookTableModelTest {
+
+    private DatabaseManager dbManager;
+    private PagedBookTableModel model;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+        model = new PagedBookTableModel(dbManager, AsyncLoader.direct(), 7, 2);
+        model.showAll();
+    }
+
+    @Test
+    void rowCountComesFromCountWithoutLoadingPages() {
+        assertThat(model.getRowCount()).isEqualTo(dbManager.getTotalBooks());
+        assertThat(model.getCachedPageCount()).isZero();
+    }
+
+    @Test
+    void rowsMatchCatalogOrderAcrossPages() {
+        List<Book> all = dbManager.getBooksPage(0, model.getRowCount());
+
+        for (int row = 0; row < model.getRowCount(); row++) {
+            assertThat(model.getValueAt(row, 0)).isEqualTo(all.get(row).getId());
+        }
+        assertThat(model.getCachedPageCount()).isEqualTo(2);
+        // Вытесненные страницы забирают свои ID из индекса строк
+        assertThat(model.getIndexedRowCount()).isLessThanOrEqualTo(2 * 7);
+    }
+
+    @Test
+    void searchRestrictsRowsAndShowAllRestores() {
+        int total = model.getRowCount();
+
+        model.search("Толстой");
+        assertThat(model.getRowCount()).isEqualTo(dbManager.countSearchBooks("Толстой"));
+        assertThat((String) model.getValueAt(0, 2)).contains("Толстой");
+
+        model.search("  ");
+        assertThat(model.getRowCount()).isEqualTo(total);
+    }
+
+    @Test
+    void updatedBookChangesOnlyItsRow() {
+        Book book = model.getBookAt(3);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        book.setCopiesAvailable(0);
+        model.updateBook(book);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(TableModelEvent.UPDATE);
+            assertThat(event.getFirstRow()).isEqualTo(3);
+            assertThat(event.getLastRow()).isEqualTo(3);
+        });
+        assertThat(model.getValueAt(3, 4)).isEqualTo(0);
+    }
+
+    @Test
+    void removedBookDeletesOneRowAndKeepsEarlierPages() {
+        int total = model.getRowCount();
+        Book first = model.getBookAt(0);
+        Book removed = model.getBookAt(8);
+        Book next = model.getBookAt(9);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        dbManager.deleteBook(removed.getId());
+        model.removeBook(removed.getId());
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(TableModelEvent.DELETE);
+            assertThat(event.getFirstRow()).isEqualTo(8);
+        });
+        assertThat(model.getRowCount()).isEqualTo(total - 1);
+        assertThat(model.getCachedPageCount()).isEqualTo(1);
+        assertThat(model.getIndexedRowCount()).isEqualTo(7);
+        assertThat(model.getBookAt(0)).isSameAs(first);
+        assertThat(model.getValueAt(8, 0)).isEqualTo(next.getId());
+    }
+
+    @Test
+    void shortPageIsNotCachedAndIsRequestedAgain() {
+        int lastRow = model.getRowCount() - 1;
+        // Удаление мимо модели: последняя страница придет короче ожидаемой
+        dbManager.deleteBook(dbManager.getBooksPage(0, 1).get(0).getId());
+
+        assertThat(model.getBookAt(lastRow)).isNull();
+        assertThat(model.getCachedPageCount()).isZero();
+
+        model.showAll();
+        assertThat(model.getBookAt(model.getRowCount() - 1)).isNotNull();
+        assertThat(model.getCachedPageCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchPagesAreReadByCachedIdsAndRemovalKeepsOrder() {
+        List<Book> found = dbManager.searchBooksPage("Толстой", 0, 100);
+        model.search("Толстой");
+
+        assertThat(model.getRowCount()).isEqualTo(found.size());
+        for (int row = 0; row < found.size(); row++) {
+            assertThat(model.getValueAt(row, 0)).isEqualTo(found.get(row).getId());
+        }
+
+        dbManager.deleteBook(found.get(0).getId());
+        model.removeBook(found.get(0).getId());
+
+        assertThat(model.getRowCount()).isEqualTo(found.size() - 1);
+        for (int row = 0; row < found.size() - 1; row++) {
+            assertThat(model.getValueAt(row, 0)).isEqualTo(found.get(row + 1).getId());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.gui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchDebouncerTest {
+
+    private static final int DELAY_MS = 50;
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private JTextField field;
+    private SearchDebouncer debouncer;
+
+    @Test
+    void pauseAfterSeveralEditsSubmitsOnceAndUnchangedTextIsNotResubmitted() throws Exception {
+        onEdt(() -> {
+            field = new JTextField();
+            debouncer = new SearchDebouncer(field, DELAY_MS, queries::add);
+            field.setText("Т");
+            field.setText("То");
+            field.setText(" Толстой ");
+        });
+        waitForTimer();
+        assertThat(queries).containsExactly("Толстой");
+
+        // Текст изменился и вернулся к прежнему до паузы: запрос тот же, повторно не отправляется
+        onEdt(() -> {
+            field.setText("Толсто");
+            field.setText("Толстой");
+        });
+        waitForTimer();
+        assertThat(queries).containsExactly("Толстой");
+
+        onEdt(() -> field.postActionEvent());
+        assertThat(queries).containsExactly("Толстой", "Толстой");
+    }
+
+    @Test
+    void cancelDropsPendingQueryAndForgetsLastOne() throws Exception {
+        onEdt(() -> {
+            field = new JTextField();
+            debouncer = new SearchDebouncer(field, DELAY_MS, queries::add);
+            field.setText("Пушкин");
+        });
+        waitForTimer();
+
+        onEdt(() -> {
+            field.setText("Гоголь");
+            debouncer.cancel();
+        });
+        waitForTimer();
+        assertThat(queries).containsExactly("Пушкин");
+
+        // После cancel тот же текст снова отправляется
+        onEdt(() -> field.setText("Пушкин"));
+        waitForTimer();
+        assertThat(queries).containsExactly("Пушкин", "Пушкин");
+    }
+
+    private static void onEdt(Runnable action) throws Exception {
+        SwingUtilities.invokeAndWait(action);
+    }
+
+    /**
+     * Ждет дольше паузы и дает EDT обработать сработавший таймер.
+     */
+    private static void waitForTimer() throws Exception {
+        Thread.sleep(DELAY_MS * 4L);
+        onEdt(() -> { });
+    }
+}
@@ -0,0 +1,120 @@
+package com.library.server;
+
+import com.library.database.DatabaseManager;
+import com.library.model.Book;
+import com.library.testutil.DatabaseTestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogServerTest {
+
+    private DatabaseManager dbManager;
+    private CatalogServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbManager = DatabaseTestHelper.setupTestDatabase();
+        server = new CatalogServer(dbManager, new CatalogServer.Config(0, 2, 16, 0, 16, 60_000));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void searchReturnsJsonWithEtagAndRevalidatesUntilCatalogChanges() throws Exception {
+        String path = "/api/books?q=" + URLEncoder.encode("Толстой", StandardCharsets.UTF_8) + "&limit=2";
+        HttpResponse<String> first = get(path, null);
+
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.headers().firstValue("Content-Type")).hasValue("application/json; charset=utf-8");
+        assertThat(first.body()).startsWith("{\"total\":").contains("\"limit\":2", "Толстой", "\"available\":");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> notModified = get(path, etag);
+        assertThat(notModified.statusCode()).isEqualTo(304);
+        assertThat(notModified.body()).isEmpty();
+
+        Book book = dbManager.searchBooks("Толстой").get(0);
+        book.setCopiesTotal(book.getCopiesTotal() + 1);
+        book.setCopiesAvailable(book.getCopiesAvailable() + 1);
+        dbManager.updateBook(book);
+
+        HttpResponse<String> changed = get(path, etag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void singleBookAvailabilityAndErrors() throws Exception {
+        Book book = dbManager.getAllBooks().get(0);
+
+        HttpResponse<String> found = get("/api/books/" + book.getId(), null);
+        assertThat(found.statusCode()).isEqualTo(200);
+        assertThat(found.body()).contains("\"id\":" + book.getId(),
+            "\"copiesAvailable\":" + book.getCopiesAvailable());
+
+        assertThat(get("/api/books/999999", null).statusCode()).isEqualTo(404);
+        assertThat(get("/api/books?offset=abc", null).statusCode()).isEqualTo(400);
+    }
+
+    @Test
+    void changesFromAnotherConnectionAreVisibleAfterCacheTtl() throws Exception {
+        CatalogServer shortLived = new CatalogServer(dbManager, new CatalogServer.Config(0, 1, 4, 0, 16, 100));
+        shortLived.start();
+        try {
+            Book book = dbManager.getBookById(dbManager.getAllBooks().get(0).getId());
+            String path = "http://localhost:" + shortLived.getPort() + "/api/books/" + book.getId();
+            HttpResponse<String> before = client.send(HttpRequest.newBuilder(URI.create(path)).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            assertThat(before.body()).contains("\"copiesAvailable\":" + book.getCopiesAvailable());
+
+            // Выдача в другом процессе: хранилище этого процесса о ней не знает
+            try (Connection other = DriverManager.getConnection(DatabaseTestHelper.currentUrl());
+                 PreparedStatement update = other.prepareStatement(
+                     "UPDATE books SET copies_available = copies_available - 1 WHERE id = ?")) {
+                update.setInt(1, book.getId());
+                update.executeUpdate();
+            }
+            Thread.sleep(150);
+
+            HttpResponse<String> after = client.send(HttpRequest.newBuilder(URI.create(path)).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            assertThat(after.body()).contains("\"copiesAvailable\":" + (book.getCopiesAvailable() - 1));
+        } finally {
+            shortLived.close();
+        }
+    }
+
+    @Test
+    void onlySuccessfulAndNotFoundResponsesAreCached() {
+        assertThat(CatalogServer.isCacheable(200)).isTrue();
+        assertThat(CatalogServer.isCacheable(404)).isTrue();
+        assertThat(CatalogServer.isCacheable(400)).isFalse();
+        assertThat(CatalogServer.isCacheable(500)).isFalse();
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+}
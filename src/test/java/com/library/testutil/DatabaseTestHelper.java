@@ -12,6 +12,8 @@ import java.nio.file.Path;
  */
 public final class DatabaseTestHelper {
 
+    private static String currentUrl;
+
     private DatabaseTestHelper() {
     }
 
@@ -24,11 +26,18 @@ public final class DatabaseTestHelper {
             Path dbFile = tempDir.resolve("library.db");
             String jdbcUrl = "jdbc:sqlite:" + dbFile.toAbsolutePath();
             DatabaseManager.useCustomUrlForTests(jdbcUrl);
+            currentUrl = jdbcUrl;
             UserManager.resetForTests();
             return DatabaseManager.getInstance();
         } catch (IOException e) {
             throw new IllegalStateException("Не удалось создать временную БД для тестов", e);
         }
     }
-}
 
+    /**
+     * JDBC URL последней созданной тестовой БД — для прямых проверок схемы.
+     */
+    public static String currentUrl() {
+        return currentUrl;
+    }
+}